@@ -0,0 +1,75 @@
+package io.iamkyu.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 같은 프로파일을 label 별로 돌린 부하 테스트 보고서({profile}-{label}.json)를 작업별 표로 비교한다.
+ *
+ * 사용법: LoadComparison <보고서 디렉터리> <profile> <label>...
+ */
+@Slf4j
+public class LoadComparison {
+    private static final List<String> PERCENTILES = Arrays.asList("p50", "p99", "p99.9", "max");
+
+    public static void main(String[] args) throws IOException {
+        File directory = new File(args[0]);
+        String profile = args[1];
+        List<String> labels = Arrays.asList(args).subList(2, args.length);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> summaries = new LinkedHashMap<>();
+        for (String label : labels) {
+            File report = new File(directory, profile + "-" + label + ".json");
+            if (!report.exists()) {
+                log.warn("Missing report {}", report);
+                continue;
+            }
+            summaries.put(label, objectMapper.readTree(report));
+        }
+
+        // 보고서에 있는 작업마다 표를 하나씩 만든다.
+        Set<String> operations = new LinkedHashSet<>();
+        summaries.values().forEach(summary -> summary.path("operations").fieldNames().forEachRemaining(operations::add));
+
+        StringBuilder html = new StringBuilder()
+                .append("<!DOCTYPE html><html><head><meta charset=\"UTF-8\"><title>Comparison: ")
+                .append(profile).append("</title></head><body>");
+        for (String operationName : operations) {
+            html.append("<h1>").append(profile).append(" (").append(operationName).append(")</h1>")
+                    .append("<table border=\"1\"><tr><th>label</th><th>server</th><th>throughput (req/s)</th>")
+                    .append("<th>errors</th>");
+            PERCENTILES.forEach(p -> html.append("<th>").append(p).append(" (µs)</th>"));
+            html.append("</tr>");
+
+            summaries.forEach((label, summary) -> {
+                JsonNode operation = summary.path("operations").path(operationName);
+                html.append("<tr><td>").append(label)
+                        .append("</td><td>").append(summary.path("server").asText())
+                        .append("</td><td>").append(summary.path("throughput").asDouble())
+                        .append("</td><td>").append(operation.path("errors").asLong()).append("</td>");
+                PERCENTILES.forEach(p -> html.append("<td>")
+                        .append(operation.path("latencyMicros").path(p).asLong()).append("</td>"));
+                html.append("</tr>");
+            });
+            html.append("</table>");
+        }
+        html.append("</body></html>");
+
+        File output = new File(directory, profile + "-comparison.html");
+        Files.write(output.toPath(), html.toString().getBytes(StandardCharsets.UTF_8));
+        log.info("Comparison written to {}", output.getAbsolutePath());
+    }
+}
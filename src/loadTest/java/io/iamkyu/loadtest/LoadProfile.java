@@ -0,0 +1,28 @@
+package io.iamkyu.loadtest;
+
+import lombok.Data;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class LoadProfile {
+    private String name;
+    private List<String> springProfiles = Collections.emptyList();
+    private Map<String, String> properties = new LinkedHashMap<>();
+    private int seedEvents = 100;
+    private double requestsPerSecond = 100;
+    private int warmupSeconds = 5;
+    private int durationSeconds = 30;
+    private int concurrency = 32;
+    private Map<Operation, Integer> mix = new LinkedHashMap<>();
+    private List<Integer> pageSizes = Arrays.asList(10, 20);
+    private List<String> sorts = Collections.singletonList("id,DESC");
+
+    public enum Operation {
+        createEvent, getEvents, getEvent, updateEvent
+    }
+}
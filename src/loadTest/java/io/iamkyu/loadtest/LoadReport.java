@@ -0,0 +1,148 @@
+package io.iamkyu.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.iamkyu.loadtest.LoadProfile.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 작업별 지연 시간 분포를 모아 JSON, HTML 보고서로 남긴다.
+ * latency 는 요청 예정 시각부터, serviceTime 은 실제 전송 시각부터 잰 값이다. 단위는 마이크로초.
+ * JSON 은 키 순서가 고정되어 있어 커밋 간 diff 로 비교할 수 있다.
+ */
+class LoadReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadProfile profile;
+    private final String name;
+    private final String server;
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> serviceTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private long startNanos;
+    private long elapsedNanos;
+
+    LoadReport(LoadProfile profile, String label, String server) {
+        this.profile = profile;
+        this.name = label == null ? profile.getName() : profile.getName() + "-" + label;
+        this.server = server;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+            serviceTimes.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+    }
+
+    void finish() {
+        elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    void record(Operation operation, long latencyNanos, long serviceTimeNanos, boolean success) {
+        latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        serviceTimes.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(serviceTimeNanos));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    void write(File directory) throws IOException {
+        Map<String, Object> summary = summary();
+        Files.createDirectories(directory.toPath());
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        objectMapper.writeValue(new File(directory, name + ".json"), summary);
+        Files.write(new File(directory, name + ".html").toPath(),
+                html(summary).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Map<String, Object> summary() {
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        long totalRequests = 0;
+        long totalErrors = 0;
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Histogram latency = latencies.get(operation);
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", latency.getTotalCount());
+            stats.put("errors", errors.get(operation).sum());
+            stats.put("latencyMicros", distribution(latency));
+            stats.put("serviceTimeMicros", distribution(serviceTimes.get(operation)));
+            operations.put(operation.name(), stats);
+            totalRequests += latency.getTotalCount();
+            totalErrors += errors.get(operation).sum();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("profile", profile.getName());
+        summary.put("server", server);
+        summary.put("targetRequestsPerSecond", profile.getRequestsPerSecond());
+        summary.put("durationSeconds", round(seconds));
+        summary.put("requests", totalRequests);
+        summary.put("errors", totalErrors);
+        summary.put("throughput", round(totalRequests / seconds));
+        summary.put("operations", operations);
+        return summary;
+    }
+
+    private Map<String, Object> distribution(Histogram histogram) {
+        Map<String, Object> distribution = new LinkedHashMap<>();
+        distribution.put("mean", round(histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            distribution.put("p" + String.valueOf(percentile).replace(".0", ""),
+                    histogram.getValueAtPercentile(percentile));
+        }
+        distribution.put("max", histogram.getMaxValue());
+        return distribution;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String html(Map<String, Object> summary) {
+        StringBuilder html = new StringBuilder()
+                .append("<!DOCTYPE html><html><head><meta charset=\"UTF-8\"><title>Load test: ")
+                .append(summary.get("profile")).append("</title></head><body>")
+                .append("<h1>").append(summary.get("profile")).append("</h1>")
+                .append("<p>throughput ").append(summary.get("throughput")).append(" req/s, ")
+                .append(summary.get("requests")).append(" requests, ")
+                .append(summary.get("errors")).append(" errors</p>")
+                .append("<table border=\"1\"><tr><th>operation</th><th>requests</th><th>errors</th>");
+        for (double percentile : PERCENTILES) {
+            html.append("<th>p").append(percentile).append(" (µs)</th>");
+        }
+        html.append("<th>max (µs)</th></tr>");
+
+        ((Map<String, Map<String, Object>>) summary.get("operations")).forEach((name, stats) -> {
+            html.append("<tr><td>").append(name).append("</td><td>").append(stats.get("requests"))
+                    .append("</td><td>").append(stats.get("errors")).append("</td>");
+            ((Map<String, Object>) stats.get("latencyMicros")).forEach((key, value) -> {
+                if (!"mean".equals(key)) {
+                    html.append("<td>").append(value).append("</td>");
+                }
+            });
+            html.append("</tr>");
+        });
+        return html.append("</table></body></html>").toString();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,242 @@
+package io.iamkyu.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.iamkyu.Application;
+import io.iamkyu.app.EventCreateRequest;
+import io.iamkyu.app.EventUpdateRequest;
+import io.iamkyu.loadtest.LoadProfile.Operation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 이벤트 API 부하 테스트. 앱을 임의 포트로 띄우고 프로파일에 정의된 요청 비율(open model)로 요청을 보낸다.
+ * 지연 시간은 요청을 보냈어야 할 시각부터 측정하므로 서버가 밀려도 측정이 누락되지 않는다(coordinated omission 보정).
+ *
+ * 사용법: ./gradlew loadTest -PloadProfile=default [-PloadLabel=tomcat] [-PloadSpringProfiles=kv-store]
+ * label 을 주면 보고서 이름이 {profile}-{label} 이 된다. loadSpringProfiles 는 프로파일의 springProfiles 에 더한다.
+ */
+@Slf4j
+public class LoadTest {
+    private static final String JSON = "application/json;charset=UTF-8";
+
+    private final LoadProfile profile;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final List<Integer> eventIds = new CopyOnWriteArrayList<>();
+    private final Operation[] weightedOperations;
+
+    private LoadTest(LoadProfile profile, ObjectMapper objectMapper, int port) {
+        this.profile = profile;
+        this.objectMapper = objectMapper;
+        this.baseUrl = "http://localhost:" + port + "/api/events";
+        this.weightedOperations = profile.getMix().entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(Operation[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String profileName = args.length > 0 ? args[0] : "default";
+        File reportDir = new File(args.length > 1 ? args[1] : "build/reports/load-test");
+        String label = args.length > 2 && !args[2].isEmpty() ? args[2] : null;
+        String[] extraSpringProfiles = args.length > 3 && !args[3].isEmpty() ? args[3].split(",") : new String[0];
+
+        ObjectMapper profileReader = new ObjectMapper();
+        LoadProfile profile;
+        try (InputStream in = LoadTest.class.getResourceAsStream("/profiles/" + profileName + ".json")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown load profile: " + profileName);
+            }
+            profile = profileReader.readValue(in, LoadProfile.class);
+        }
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class)
+                .profiles(profile.getSpringProfiles().toArray(new String[0]))
+                .profiles(extraSpringProfiles)
+                .properties("server.port=0");
+        profile.getProperties().forEach((key, value) -> builder.properties(key + "=" + value));
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            int port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+            String server = ((WebServerApplicationContext) context).getWebServer().getClass().getSimpleName();
+            LoadTest loadTest = new LoadTest(profile, context.getBean(ObjectMapper.class), port);
+            loadTest.seed();
+
+            log.info("Warming up for {}s", profile.getWarmupSeconds());
+            loadTest.run(profile.getWarmupSeconds(), new LoadReport(profile, label, server));
+
+            log.info("Running {} on {} at {} req/s for {}s",
+                    profile.getName(), server, profile.getRequestsPerSecond(), profile.getDurationSeconds());
+            LoadReport report = new LoadReport(profile, label, server);
+            loadTest.run(profile.getDurationSeconds(), report);
+
+            report.write(reportDir);
+            log.info("Load test report written to {}", reportDir.getAbsolutePath());
+        }
+    }
+
+    private void seed() throws IOException {
+        for (int i = 0; i < profile.getSeedEvents(); i++) {
+            createEvent();
+        }
+    }
+
+    private void run(int seconds, LoadReport report) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(profile.getConcurrency());
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / profile.getRequestsPerSecond());
+        long durationNanos = TimeUnit.SECONDS.toNanos(seconds);
+        long start = System.nanoTime();
+
+        report.start();
+        for (long i = 0; i * intervalNanos < durationNanos; i++) {
+            long intendedNanos = start + i * intervalNanos;
+            sleepUntil(intendedNanos);
+            Operation operation = weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+            workers.execute(() -> {
+                long sentNanos = System.nanoTime();
+                boolean success = execute(operation);
+                long doneNanos = System.nanoTime();
+                report.record(operation, doneNanos - intendedNanos, doneNanos - sentNanos, success);
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        report.finish();
+    }
+
+    private boolean execute(Operation operation) {
+        try {
+            switch (operation) {
+                case createEvent:
+                    return createEvent();
+                case getEvents:
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int size = pick(profile.getPageSizes());
+                    int pages = Math.max(1, eventIds.size() / size);
+                    return request("GET", baseUrl + "?page=" + random.nextInt(pages) + "&size=" + size
+                            + "&sort=" + pick(profile.getSorts()), null) == 200;
+                case getEvent:
+                    return request("GET", baseUrl + "/" + pick(eventIds), null) == 200;
+                case updateEvent:
+                    return request("PUT", baseUrl + "/" + pick(eventIds), updateRequest()) == 200;
+                default:
+                    throw new IllegalStateException("Unknown operation: " + operation);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean createEvent() throws IOException {
+        HttpURLConnection connection = open("POST", baseUrl, createRequest());
+        if (connection.getResponseCode() != 201) {
+            try (InputStream in = connection.getErrorStream()) {
+                drain(in);
+            }
+            return false;
+        }
+        try (InputStream in = connection.getInputStream()) {
+            Map<?, ?> body = objectMapper.readValue(in, Map.class);
+            eventIds.add(((Number) body.get("id")).intValue());
+        }
+        return true;
+    }
+
+    private int request(String method, String url, byte[] body) throws IOException {
+        HttpURLConnection connection = open(method, url, body);
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            drain(in);
+        }
+        return status;
+    }
+
+    private HttpURLConnection open(String method, String url, byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/hal+json");
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", JSON);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        return connection;
+    }
+
+    private byte[] createRequest() throws IOException {
+        int n = ThreadLocalRandom.current().nextInt(100_000);
+        LocalDateTime begin = LocalDateTime.now().plusDays(n % 365);
+        EventCreateRequest request = EventCreateRequest.builder()
+                .name("Load Event " + n)
+                .description("Generated by load test")
+                .beginEnrollmentDateTime(begin)
+                .closeEnrollmentDateTime(begin.plusDays(7))
+                .beginEventDateTime(begin.plusDays(14))
+                .endEventDateTime(begin.plusDays(15))
+                .location(n % 2 == 0 ? "서울특별시" : null)
+                .basePrice(n % 3 == 0 ? 0 : 1000)
+                .maxPrice(n % 3 == 0 ? 0 : 5000)
+                .limitOfEnrollment(100)
+                .build();
+        return objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] updateRequest() throws IOException {
+        LocalDateTime begin = LocalDateTime.now().plusDays(30);
+        EventUpdateRequest request = EventUpdateRequest.builder()
+                .name("Updated Load Event")
+                .description("Updated by load test")
+                .beginEnrollmentDateTime(begin)
+                .closeEnrollmentDateTime(begin.plusDays(7))
+                .beginEventDateTime(begin.plusDays(14))
+                .endEventDateTime(begin.plusDays(15))
+                .location("부산광역시")
+                .basePrice(1000)
+                .maxPrice(5000)
+                .limitOfEnrollment(200)
+                .build();
+        return objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) {
+            return;
+        }
+        byte[] buffer = new byte[8192];
+        while (in.read(buffer) != -1) {
+            // 커넥션 재사용을 위해 본문을 끝까지 읽는다.
+        }
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package io.iamkyu.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.iamkyu.Application;
+import io.iamkyu.config.DiagnosticsFilter;
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.EventStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 이벤트 목록 한 페이지를 HAL, Accept: application/json, ?links=none 으로 각각 요청해
+ * 응답 바이트 수, 요청 스레드의 할당 바이트 수, 직렬화 시간을 비교한다. 할당과 직렬화 시간은 진단 모드 헤더로 잰다.
+ *
+ * 사용법: ./gradlew representationBenchmark [-PpageSize=100]
+ */
+@Slf4j
+public class RepresentationBenchmark {
+    private static final int SEED_EVENTS = 1000;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int ITERATIONS = 500;
+    private static final Pattern SERIALIZATION = Pattern.compile("ser;dur=([0-9.]+)");
+
+    public static void main(String[] args) throws Exception {
+        File reportDir = new File(args.length > 0 ? args[0] : "build/reports/load-test");
+        int pageSize = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "app.admission.enabled=false", "app.warmup.enabled=false",
+                        "spring.jpa.properties.hibernate.show_sql=false", "logging.level.org.hibernate=WARN");
+
+        Map<String, Object> modes = new LinkedHashMap<>();
+        try (ConfigurableApplicationContext context = builder.run()) {
+            seed(context.getBean(EventRepository.class));
+            int port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+            String url = "http://localhost:" + port + "/api/events?page=0&sort=id&size=" + pageSize;
+
+            modes.put("hal", measure(url, "application/hal+json"));
+            modes.put("json", measure(url, "application/json"));
+            modes.put("links=none", measure(url + "&links=none", "application/hal+json"));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("pageSize", pageSize);
+        report.put("iterations", ITERATIONS);
+        report.put("modes", modes);
+        modes.forEach((mode, result) -> log.info("{}: {}", mode, result));
+
+        reportDir.mkdirs();
+        File output = new File(reportDir, "representation-benchmark.json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, report);
+        log.info("Representation benchmark written to {}", output.getAbsolutePath());
+    }
+
+    private static void seed(EventRepository eventRepository) {
+        List<Event> events = new ArrayList<>(SEED_EVENTS);
+        LocalDateTime begin = LocalDateTime.of(2019, 1, 1, 9, 0);
+        for (int i = 0; i < SEED_EVENTS; i++) {
+            events.add(Event.builder()
+                    .name("Benchmark Event " + i)
+                    .description("Seeded by representation benchmark")
+                    .beginEnrollmentDateTime(begin.plusDays(i))
+                    .closeEnrollmentDateTime(begin.plusDays(i + 7))
+                    .beginEventDateTime(begin.plusDays(i + 14))
+                    .endEventDateTime(begin.plusDays(i + 15))
+                    .location(i % 2 == 0 ? "서울특별시" : null)
+                    .basePrice(1000)
+                    .maxPrice(5000)
+                    .limitOfEnrollment(100)
+                    .offline(i % 2 == 0)
+                    .eventStatus(EventStatus.DRAFT)
+                    .build());
+        }
+        eventRepository.saveAll(events);
+    }
+
+    private static Map<String, Object> measure(String url, String accept) throws IOException {
+        long[] bytes = new long[ITERATIONS];
+        long[] allocated = new long[ITERATIONS];
+        double[] serializationMillis = new double[ITERATIONS];
+        for (int i = -WARMUP_ITERATIONS; i < ITERATIONS; i++) {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestProperty("Accept", accept);
+            connection.setRequestProperty("X-Diagnostics", "true");
+            if (connection.getResponseCode() != 200) {
+                throw new IllegalStateException(url + " responded " + connection.getResponseCode());
+            }
+            long length = 0;
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[8192];
+                for (int read; (read = in.read(buffer)) != -1; ) {
+                    length += read;
+                }
+            }
+            if (i < 0) {
+                continue;
+            }
+            bytes[i] = length;
+            allocated[i] = Long.parseLong(connection.getHeaderField(DiagnosticsFilter.ALLOCATED_BYTES_HEADER));
+            Matcher matcher = SERIALIZATION.matcher(connection.getHeaderField(DiagnosticsFilter.SERVER_TIMING_HEADER));
+            serializationMillis[i] = matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+        }
+
+        Arrays.sort(allocated);
+        Arrays.sort(serializationMillis);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("responseBytes", bytes[0]);
+        result.put("allocatedBytesP50", allocated[ITERATIONS / 2]);
+        result.put("allocatedBytesP99", allocated[ITERATIONS * 99 / 100]);
+        result.put("serializationMillisP50", serializationMillis[ITERATIONS / 2]);
+        result.put("serializationMillisP99", serializationMillis[ITERATIONS * 99 / 100]);
+        return result;
+    }
+}
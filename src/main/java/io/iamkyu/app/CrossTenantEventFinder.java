@@ -0,0 +1,109 @@
+package io.iamkyu.app;
+
+import io.iamkyu.common.SortComparator;
+import io.iamkyu.config.ShardRoutingContext;
+import io.iamkyu.config.ShardRoutingDataSource;
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 모든 테넌트의 이벤트 목록(관리자용). 샤드마다 (offset + size) 만큼을 같은 정렬로 동시에 읽어 합친다.
+ * 샤드 조회는 테넌트가 없는 별도 스레드에서 실행되므로 요청의 테넌트 헤더와 관계없이 모든 테넌트를 본다.
+ * 샤딩이 꺼져 있으면 테넌트 구분이 없으므로 EventFinder 로 한 번 조회한다.
+ */
+@Component
+public class CrossTenantEventFinder {
+    public static final int MAX_MERGE_WINDOW = 10_000;
+
+    private final EventRepository eventRepository;
+    private final EventFinder eventFinder;
+    private final ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "shard-query");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CrossTenantEventFinder(EventRepository eventRepository, EventFinder eventFinder,
+                                  ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        this.eventRepository = eventRepository;
+        this.eventFinder = eventFinder;
+        this.shardRoutingDataSource = shardRoutingDataSource;
+    }
+
+    public Page<Event> findAll(Pageable pageable) {
+        long window = pageable.getOffset() + pageable.getPageSize();
+        if (window > MAX_MERGE_WINDOW) {
+            throw new IllegalArgumentException("Page is too deep to merge across shards: " + window);
+        }
+
+        ShardRoutingDataSource shards = shardRoutingDataSource.getIfAvailable();
+        if (shards == null) {
+            return eventFinder.findAll(pageable);
+        }
+
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        Pageable head = PageRequest.of(0, (int) window, sort);
+        List<Future<ShardPage>> futures = shards.shardNames().stream()
+                .map(shard -> executor.submit(() -> ShardRoutingContext.call(shard,
+                        () -> new ShardPage(eventRepository.findUncachedSlice(head), eventRepository.count()))))
+                .collect(toList());
+
+        List<ShardPage> pages = new ArrayList<>(futures.size());
+        for (Future<ShardPage> future : futures) {
+            pages.add(await(future));
+        }
+        List<Event> merged = pages.stream()
+                .flatMap(page -> page.events.stream())
+                .sorted(SortComparator.of(sort, "id"))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(toList());
+        long total = pages.stream().mapToLong(page -> page.count).sum();
+        return new PageImpl<>(merged, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort), total);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ShardPage await(Future<ShardPage> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ShardPage {
+        private final Slice<Event> events;
+        private final long count;
+    }
+}
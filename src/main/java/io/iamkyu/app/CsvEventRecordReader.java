@@ -0,0 +1,117 @@
+package io.iamkyu.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 첫 줄이 EventCreateRequest 필드명으로 된 헤더인 CSV(RFC 4180). 따옴표 안의 줄바꿈도 한 레코드로 읽는다.
+ */
+class CsvEventRecordReader implements EventRecordReader<String> {
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final List<String> header;
+
+    CsvEventRecordReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+        String headerLine = next();
+        if (headerLine == null) {
+            throw new IOException("CSV header is missing.");
+        }
+        this.header = split(stripBom(headerLine));
+    }
+
+    @Override
+    public String next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isEmpty());
+        if (line == null) {
+            return null;
+        }
+        StringBuilder record = new StringBuilder(line);
+        while (hasOpenQuote(record)) {
+            String continuation = reader.readLine();
+            if (continuation == null) {
+                break;
+            }
+            record.append('\n').append(continuation);
+        }
+        return record.toString();
+    }
+
+    @Override
+    public EventCreateRequest parse(String record) throws IOException {
+        List<String> values = split(record);
+        if (values.size() != header.size()) {
+            throw new IOException("Expected " + header.size() + " columns but found " + values.size() + ".");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i);
+            fields.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        try {
+            return objectMapper.convertValue(fields, EventCreateRequest.class);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static boolean hasOpenQuote(CharSequence record) {
+        boolean open = false;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    static List<String> split(String record) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+}
@@ -0,0 +1,146 @@
+package io.iamkyu.app;
+
+import io.iamkyu.common.CountMinSketch;
+import io.iamkyu.config.WarmupProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 이벤트 단건 조회 빈도를 Count-Min sketch 로 근사하고, 자주 조회된 이벤트 후보를 hotEvents 의 몇 배까지만 유지한다.
+ * warm-up 이 켜져 있으면 sketch 와 후보를 파일에 저장해 재시작 후 EventWarmup 이 같은 이벤트를 먼저 적재한다.
+ */
+@Slf4j
+@Component
+public class EventAccessTracker {
+    private static final int CANDIDATE_FACTOR = 4;
+
+    private final WarmupProperties properties;
+    private final Set<Integer> candidates = ConcurrentHashMap.newKeySet();
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile CountMinSketch sketch;
+    private volatile boolean paused;
+
+    public EventAccessTracker(WarmupProperties properties) {
+        this.properties = properties;
+        this.sketch = new CountMinSketch(properties.getSketchDepth(), properties.getSketchWidth());
+    }
+
+    public void record(Integer id) {
+        if (paused) {
+            return;
+        }
+        sketch.add(id);
+        candidates.add(id);
+        // 폭이 포화되기 전에 반으로 줄여 최근 접근의 비중을 유지한다.
+        if (recorded.incrementAndGet() % (10L * properties.getSketchWidth()) == 0) {
+            sketch.halve();
+        }
+        if (candidates.size() > CANDIDATE_FACTOR * Math.max(1, properties.getHotEvents())) {
+            prune();
+        }
+    }
+
+    /**
+     * resume 할 때까지 조회를 기록하지 않는다. EventWarmup 이 스스로 보낸 요청이 조회 빈도를 부풀리지 않게 한다.
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+    }
+
+    /**
+     * @return 추정 조회 수가 많은 순서로 최대 limit 개의 이벤트 아이디
+     */
+    public List<Integer> hottest(int limit) {
+        CountMinSketch current = sketch;
+        return new ArrayList<>(candidates).stream()
+                .sorted(Comparator.comparingLong((Integer id) -> current.estimate(id)).reversed())
+                .limit(limit)
+                .collect(toList());
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path file = Paths.get(properties.getSketchFile());
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            CountMinSketch loaded = CountMinSketch.readFrom(in);
+            int count = in.readInt();
+            List<Integer> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(in.readInt());
+            }
+            if (loaded.getDepth() != properties.getSketchDepth() || loaded.getWidth() != properties.getSketchWidth()) {
+                log.info("Sketch size changed, ignoring {}", file);
+                return;
+            }
+            sketch = loaded;
+            candidates.addAll(ids);
+            log.info("Loaded event access sketch with {} candidates from {}", count, file);
+        } catch (NoSuchFileException e) {
+            log.debug("No event access sketch at {}", file);
+        } catch (IOException e) {
+            log.warn("Failed to load event access sketch from {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${app.warmup.persist-interval-millis:60000}")
+    public void persist() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Path file = Paths.get(properties.getSketchFile()).toAbsolutePath();
+        List<Integer> ids = hottest(CANDIDATE_FACTOR * properties.getHotEvents());
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                sketch.writeTo(out);
+                out.writeInt(ids.size());
+                for (Integer id : ids) {
+                    out.writeInt(id);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to persist event access sketch to {}", file, e);
+        }
+    }
+
+    private synchronized void prune() {
+        int keep = CANDIDATE_FACTOR * Math.max(1, properties.getHotEvents());
+        if (candidates.size() <= keep) {
+            return;
+        }
+        candidates.retainAll(new HashSet<>(hottest(keep / 2)));
+    }
+}
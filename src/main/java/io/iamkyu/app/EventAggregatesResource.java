@@ -0,0 +1,71 @@
+package io.iamkyu.app;
+
+import io.iamkyu.domain.EventAggregate;
+import io.iamkyu.domain.EventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.hateoas.ResourceSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+
+/**
+ * event_aggregate 의 집계 단위를 대시보드용 합계로 묶는다. 장소가 없는 이벤트 묶음에는 location 이 없다.
+ */
+@Getter
+public class EventAggregatesResource extends ResourceSupport {
+    private final long eventCount;
+    private final long capacityValue;
+    private final double averageBasePrice;
+    private final List<Group> byStatus;
+    private final List<Group> byLocation;
+
+    public EventAggregatesResource(List<EventAggregate> aggregates) {
+        long count = 0;
+        long basePriceSum = 0;
+        long capacity = 0;
+        Map<EventStatus, long[]> statuses = new TreeMap<>();
+        Map<String, long[]> locations = new TreeMap<>();
+        for (EventAggregate aggregate : aggregates) {
+            count += aggregate.getEventCount();
+            basePriceSum += aggregate.getBasePriceSum();
+            capacity += aggregate.getCapacityValue();
+            int column = aggregate.getKey().isFree() ? 0 : 1;
+            statuses.computeIfAbsent(aggregate.getKey().getEventStatus(), key -> new long[2])[column]
+                    += aggregate.getEventCount();
+            locations.computeIfAbsent(aggregate.getKey().getLocation(), key -> new long[2])[column]
+                    += aggregate.getEventCount();
+        }
+
+        this.eventCount = count;
+        this.capacityValue = capacity;
+        this.averageBasePrice = count == 0 ? 0 : (double) basePriceSum / count;
+        this.byStatus = groups(statuses, (status, freeAndPaid) ->
+                new Group(status, null, freeAndPaid[0], freeAndPaid[1]));
+        this.byLocation = groups(locations, (location, freeAndPaid) ->
+                new Group(null, location.isEmpty() ? null : location, freeAndPaid[0], freeAndPaid[1]));
+    }
+
+    // 합이 0 인 묶음(모두 지워진 집계 단위)은 뺀다.
+    private static <K> List<Group> groups(Map<K, long[]> counts, BiFunction<K, long[], Group> group) {
+        List<Group> groups = new ArrayList<>();
+        counts.forEach((key, freeAndPaid) -> {
+            if (freeAndPaid[0] + freeAndPaid[1] != 0) {
+                groups.add(group.apply(key, freeAndPaid));
+            }
+        });
+        return groups;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Group {
+        private final EventStatus eventStatus;
+        private final String location;
+        private final long free;
+        private final long paid;
+    }
+}
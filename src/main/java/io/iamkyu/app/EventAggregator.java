@@ -0,0 +1,185 @@
+package io.iamkyu.app;
+
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventAggregate;
+import io.iamkyu.domain.EventAggregateDelta;
+import io.iamkyu.domain.EventAggregateKey;
+import io.iamkyu.domain.EventAggregateRepository;
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * event_aggregate 테이블을 이벤트를 쓰는 트랜잭션 안에서 증감분으로 갱신한다.
+ * 다시 세지 않고 더하기만 하므로 주기적으로 event 테이블에서 다시 집계해 비교하고, 어긋난 만큼 보정한다.
+ */
+@Slf4j
+@Component
+public class EventAggregator {
+    private final EventRepository eventRepository;
+    private final EventAggregateRepository aggregateRepository;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate readTransaction;
+    private final boolean repair;
+    private final AtomicInteger lastDrift = new AtomicInteger();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EventAggregator(EventRepository eventRepository, EventAggregateRepository aggregateRepository,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                           @Value("${app.events.aggregates.repair:true}") boolean repair) {
+        this.eventRepository = eventRepository;
+        this.aggregateRepository = aggregateRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.repair = repair;
+        Gauge.builder("events.aggregates.drift", lastDrift, AtomicInteger::get)
+                .description("Number of aggregate groups that differed from a rebuild at the last check")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Collection<Event> events) {
+        Map<EventAggregateKey, EventAggregateDelta> deltas = new HashMap<>();
+        events.forEach(event -> deltas.merge(keyOf(event), EventAggregateDelta.of(event), EventAggregator::sum));
+        deltas.values().forEach(this::apply);
+    }
+
+    /**
+     * @param before 수정 전 이벤트의 EventAggregateDelta.of
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updated(EventAggregateDelta before, Event after) {
+        EventAggregateDelta current = EventAggregateDelta.of(after);
+        if (current.equals(before)) {
+            return;
+        }
+        apply(before.negate());
+        apply(current);
+    }
+
+    /**
+     * 지우거나 옮기기 직전에 호출한다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removing(List<Integer> ids) {
+        eventRepository.aggregateByIds(ids).forEach(delta -> apply(delta.negate()));
+    }
+
+    /**
+     * @return 현재 테넌트의 집계 단위. 테넌트가 없으면(관리자, 샤딩하지 않을 때) 모든 집계 단위
+     */
+    @Transactional(readOnly = true)
+    public List<EventAggregate> aggregates() {
+        String tenantId = TenantContext.current();
+        return tenantId == null ? aggregateRepository.findAll() : aggregateRepository.findByTenantId(tenantId);
+    }
+
+    /**
+     * event 테이블을 다시 집계해 비교한다. 쓰기와 겹쳐 생긴 일시적인 차이를 거르기 위해 두 번 비교하여
+     * 두 번 모두 같은 만큼 어긋난 집계 단위만 보정한다.
+     *
+     * @return 어긋난 집계 단위 수
+     */
+    @Scheduled(fixedDelayString = "${app.events.aggregates.check-interval-millis:300000}")
+    public int check() {
+        Map<EventAggregateKey, EventAggregateDelta> first = drift();
+        if (first.isEmpty()) {
+            lastDrift.set(0);
+            return 0;
+        }
+        Map<EventAggregateKey, EventAggregateDelta> second = drift();
+        first.keySet().retainAll(second.keySet());
+        first.entrySet().removeIf(entry -> !entry.getValue().equals(second.get(entry.getKey())));
+
+        lastDrift.set(first.size());
+        if (!first.isEmpty()) {
+            log.warn("Event aggregates drifted in {} groups: {}", first.size(), first.values());
+            if (repair) {
+                newTransaction.execute(status -> {
+                    first.values().forEach(this::apply);
+                    return null;
+                });
+            }
+        }
+        return first.size();
+    }
+
+    // 다시 집계한 값 - 유지하는 값. 0 이 아닌 것만.
+    private Map<EventAggregateKey, EventAggregateDelta> drift() {
+        return readTransaction.execute(status -> {
+            Map<EventAggregateKey, EventAggregateDelta> drift = eventRepository.aggregate().stream()
+                    .collect(toMap(EventAggregateDelta::getKey, Function.identity()));
+            for (EventAggregate aggregate : aggregateRepository.findAll()) {
+                EventAggregateDelta maintained = new EventAggregateDelta(aggregate.getKey(),
+                        aggregate.getEventCount(), aggregate.getBasePriceSum(), aggregate.getCapacityValue());
+                EventAggregateDelta expected = drift.getOrDefault(aggregate.getKey(),
+                        new EventAggregateDelta(aggregate.getKey(), 0, 0, 0));
+                drift.put(aggregate.getKey(), expected.minus(maintained));
+            }
+            drift.values().removeIf(EventAggregateDelta::isZero);
+            return drift;
+        });
+    }
+
+    private void apply(EventAggregateDelta delta) {
+        if (delta.isZero() || add(delta) > 0) {
+            return;
+        }
+        createEmpty(delta.getKey());
+        add(delta);
+    }
+
+    private int add(EventAggregateDelta delta) {
+        EventAggregateKey key = delta.getKey();
+        return aggregateRepository.add(key.getTenantId(), key.getEventStatus(), key.getLocation(), key.isFree(),
+                delta.getEventCount(), delta.getBasePriceSum(), delta.getCapacityValue());
+    }
+
+    // 새 집계 단위의 0 행은 별도 트랜잭션에서 만든다. 다른 트랜잭션이 먼저 만들었으면 그 행을 쓴다.
+    private void createEmpty(EventAggregateKey key) {
+        try {
+            newTransaction.execute(status -> {
+                entityManager.persist(new EventAggregate(key));
+                entityManager.flush();
+                return null;
+            });
+        } catch (PersistenceException | DataIntegrityViolationException e) {
+            log.debug("Aggregate group {} was created concurrently", key);
+        }
+    }
+
+    private static EventAggregateKey keyOf(Event event) {
+        return EventAggregateDelta.of(event).getKey();
+    }
+
+    private static EventAggregateDelta sum(EventAggregateDelta a, EventAggregateDelta b) {
+        return a.minus(b.negate());
+    }
+}
@@ -0,0 +1,89 @@
+package io.iamkyu.app;
+
+import io.iamkyu.config.ArchiveProperties;
+import io.iamkyu.config.ShardRoutingContext;
+import io.iamkyu.config.ShardRoutingDataSource;
+import io.iamkyu.domain.EventCounter;
+import io.iamkyu.domain.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 종료된 지 보존 기간이 지난 이벤트를 event_archive 테이블로 옮긴다.
+ * 한 트랜잭션에서 chunkSize 만큼씩 복사하고 지워서 락을 오래 잡지 않는다.
+ * 샤딩을 켜면 보관 테이블도 이벤트와 같은 샤드에 있으므로 모든 샤드를 차례로 처리한다.
+ */
+@Slf4j
+@Component
+public class EventArchiver {
+    private final EventRepository eventRepository;
+    private final EventCounter eventCounter;
+    private final EventAggregator aggregator;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties properties;
+    private final ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource;
+    private final Counter archivedEvents;
+
+    public EventArchiver(EventRepository eventRepository, EventCounter eventCounter, EventAggregator aggregator,
+                         PlatformTransactionManager transactionManager, ArchiveProperties properties,
+                         ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource,
+                         MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.eventCounter = eventCounter;
+        this.aggregator = aggregator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.shardRoutingDataSource = shardRoutingDataSource;
+        this.archivedEvents = meterRegistry.counter("events.archived");
+    }
+
+    public int archive() {
+        LocalDateTime threshold = LocalDateTime.now().minus(properties.getRetention());
+        ShardRoutingDataSource shards = shardRoutingDataSource.getIfAvailable();
+        int total = 0;
+        if (shards == null) {
+            total = archiveShard(threshold);
+        } else {
+            for (String shard : shards.shardNames()) {
+                total += ShardRoutingContext.call(shard, () -> archiveShard(threshold));
+            }
+        }
+
+        if (total > 0) {
+            eventCounter.archived(total);
+            archivedEvents.increment(total);
+            log.info("Archived {} events ended before {}", total, threshold);
+        }
+        return total;
+    }
+
+    private int archiveShard(LocalDateTime threshold) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveChunk(threshold));
+            total += moved;
+        } while (moved == properties.getChunkSize());
+        return total;
+    }
+
+    private int archiveChunk(LocalDateTime threshold) {
+        List<Integer> ids = eventRepository.findIdsEndedBefore(threshold, PageRequest.of(0, properties.getChunkSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        eventRepository.copyToArchive(ids);
+        aggregator.removing(ids);
+        eventRepository.deleteByIds(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,17 @@
+package io.iamkyu.app;
+
+import io.iamkyu.controller.EventController;
+import io.iamkyu.controller.IndexController;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Resource;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
+public class EventConflictResource extends Resource<EventUpdateConflict> {
+    public EventConflictResource(EventUpdateConflict content, Link... links) {
+        super(content, links);
+        add(linkTo(EventController.class).slash(content.getId()).withRel("event"));
+        add(linkTo(methodOn(IndexController.class).index()).withRel("index"));
+    }
+}
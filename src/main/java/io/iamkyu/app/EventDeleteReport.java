@@ -0,0 +1,12 @@
+package io.iamkyu.app;
+
+import io.iamkyu.domain.EventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EventDeleteReport {
+    private final EventStatus status;
+    private final long deleted;
+}
@@ -0,0 +1,89 @@
+package io.iamkyu.app;
+
+import io.iamkyu.domain.Event;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 수정 요청으로 바꿀 수 있는 이벤트 필드. 병합은 필드 단위로 하되, 함께 검증하는 필드(가격, 일정)는 한 그룹으로 본다.
+ */
+public enum EventField {
+    NAME("name", Event::getName, EventUpdateRequest::getName, (event, value) -> event.setName((String) value)),
+    DESCRIPTION("description", Event::getDescription, EventUpdateRequest::getDescription,
+            (event, value) -> event.setDescription((String) value)),
+    BEGIN_ENROLLMENT_DATE_TIME("beginEnrollmentDateTime", "schedule", Event::getBeginEnrollmentDateTime,
+            EventUpdateRequest::getBeginEnrollmentDateTime,
+            (event, value) -> event.setBeginEnrollmentDateTime((LocalDateTime) value)),
+    CLOSE_ENROLLMENT_DATE_TIME("closeEnrollmentDateTime", "schedule", Event::getCloseEnrollmentDateTime,
+            EventUpdateRequest::getCloseEnrollmentDateTime,
+            (event, value) -> event.setCloseEnrollmentDateTime((LocalDateTime) value)),
+    BEGIN_EVENT_DATE_TIME("beginEventDateTime", "schedule", Event::getBeginEventDateTime,
+            EventUpdateRequest::getBeginEventDateTime,
+            (event, value) -> event.setBeginEventDateTime((LocalDateTime) value)),
+    END_EVENT_DATE_TIME("endEventDateTime", "schedule", Event::getEndEventDateTime,
+            EventUpdateRequest::getEndEventDateTime,
+            (event, value) -> event.setEndEventDateTime((LocalDateTime) value)),
+    LOCATION("location", Event::getLocation, EventUpdateRequest::getLocation,
+            (event, value) -> event.setLocation((String) value)),
+    BASE_PRICE("basePrice", "price", Event::getBasePrice, EventUpdateRequest::getBasePrice,
+            (event, value) -> event.setBasePrice((Integer) value)),
+    MAX_PRICE("maxPrice", "price", Event::getMaxPrice, EventUpdateRequest::getMaxPrice,
+            (event, value) -> event.setMaxPrice((Integer) value)),
+    LIMIT_OF_ENROLLMENT("limitOfEnrollment", Event::getLimitOfEnrollment, EventUpdateRequest::getLimitOfEnrollment,
+            (event, value) -> event.setLimitOfEnrollment((Integer) value));
+
+    private final String property;
+    private final String group;
+    private final Function<Event, Object> eventValue;
+    private final Function<EventUpdateRequest, Object> requestValue;
+    private final BiConsumer<Event, Object> setter;
+
+    EventField(String property, Function<Event, Object> eventValue,
+               Function<EventUpdateRequest, Object> requestValue, BiConsumer<Event, Object> setter) {
+        this(property, null, eventValue, requestValue, setter);
+    }
+
+    EventField(String property, String group, Function<Event, Object> eventValue,
+               Function<EventUpdateRequest, Object> requestValue, BiConsumer<Event, Object> setter) {
+        this.property = property;
+        this.group = group != null ? group : property;
+        this.eventValue = eventValue;
+        this.requestValue = requestValue;
+        this.setter = setter;
+    }
+
+    /**
+     * @return Event 의 속성 이름. 충돌 응답에 이 이름으로 나간다.
+     */
+    public String property() {
+        return property;
+    }
+
+    public String group() {
+        return group;
+    }
+
+    public void set(Event event, Object value) {
+        setter.accept(event, value);
+    }
+
+    public static Map<EventField, Object> valuesOf(Event event) {
+        Map<EventField, Object> values = new EnumMap<>(EventField.class);
+        for (EventField field : values()) {
+            values.put(field, field.eventValue.apply(event));
+        }
+        return values;
+    }
+
+    public static Map<EventField, Object> valuesOf(EventUpdateRequest request) {
+        Map<EventField, Object> values = new EnumMap<>(EventField.class);
+        for (EventField field : values()) {
+            values.put(field, field.requestValue.apply(request));
+        }
+        return values;
+    }
+}
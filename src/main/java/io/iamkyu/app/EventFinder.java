@@ -0,0 +1,167 @@
+package io.iamkyu.app;
+
+import io.iamkyu.common.SingleFlight;
+import io.iamkyu.common.SortComparator;
+import io.iamkyu.domain.ArchivedEvent;
+import io.iamkyu.domain.ArchivedEventRepository;
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventCounter;
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.TenantContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 읽기 전용 조회. 동시에 들어온 같은 조회는 한 번의 쿼리로 합친다.
+ * 반환된 엔티티는 여러 요청이 공유하므로 수정하려면 EventRepository 로 다시 조회해야 한다.
+ * 테넌트가 있는 요청은 테넌트마다 결과가 다르므로 합치지 않고, 전체 개수도 테넌트 필터가 걸린 count 쿼리로 센다.
+ */
+@Component
+public class EventFinder {
+    /**
+     * 보관된 이벤트를 포함한 목록 조회는 두 테이블에서 (offset + size) 만큼씩 읽어 합치므로 깊이를 제한한다.
+     */
+    public static final int MAX_ARCHIVE_MERGE_WINDOW = 10_000;
+
+    private final EventRepository eventRepository;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final EventCounter eventCounter;
+    private final EventAccessTracker accessTracker;
+    private final SingleFlight<Integer, Optional<Event>> findByIdFlight = new SingleFlight<>();
+    private final SingleFlight<Pageable, Slice<Event>> findSliceFlight = new SingleFlight<>();
+
+    public EventFinder(EventRepository eventRepository, ArchivedEventRepository archivedEventRepository,
+                       EventCounter eventCounter, EventAccessTracker accessTracker, MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.archivedEventRepository = archivedEventRepository;
+        this.eventCounter = eventCounter;
+        this.accessTracker = accessTracker;
+        bindMetrics(meterRegistry, "findById", findByIdFlight);
+        bindMetrics(meterRegistry, "findAll", findSliceFlight);
+    }
+
+    public Optional<Event> findById(Integer id) {
+        accessTracker.record(id);
+        if (tenantScoped()) {
+            return eventRepository.findById(id).filter(TenantContext::isVisible).filter(event -> !event.isDeleted());
+        }
+        return findByIdFlight.execute(id, () -> eventRepository.findById(id).filter(event -> !event.isDeleted()));
+    }
+
+    public Optional<Event> findById(Integer id, boolean includeArchived) {
+        Optional<Event> event = findById(id);
+        if (event.isPresent() || !includeArchived) {
+            return event;
+        }
+        return archivedEventRepository.findById(id).map(ArchivedEvent::toEvent).filter(TenantContext::isVisible);
+    }
+
+    public Page<Event> findAll(Pageable pageable) {
+        if (tenantScoped()) {
+            return eventRepository.findAll(pageable);
+        }
+        Slice<Event> slice = findSlice(pageable);
+        return toPage(slice, eventCounter.countEvents());
+    }
+
+    /**
+     * 전체 개수 없이 한 페이지를 읽는다.
+     */
+    public Slice<Event> findSlice(Pageable pageable) {
+        if (tenantScoped()) {
+            return eventRepository.findSlice(pageable);
+        }
+        return findSliceFlight.execute(pageable, () -> eventRepository.findSlice(pageable));
+    }
+
+    public Page<Event> findAll(Pageable pageable, boolean includeArchived) {
+        if (!includeArchived) {
+            return findAll(pageable);
+        }
+
+        long window = pageable.getOffset() + pageable.getPageSize();
+        if (window > MAX_ARCHIVE_MERGE_WINDOW) {
+            throw new IllegalArgumentException("Page is too deep to include archived events: " + window);
+        }
+
+        // 정렬이 없으면 두 테이블의 앞부분이 합칠 순서(id)와 같도록 id 로 정렬해 읽는다.
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        Pageable head = PageRequest.of(0, (int) window, sort);
+        Slice<Event> events = findSlice(head);
+        Slice<ArchivedEvent> archivedEvents = archivedEventRepository.findSlice(head);
+
+        List<Event> merged = Stream.concat(events.stream(), archivedEvents.stream().map(ArchivedEvent::toEvent))
+                .sorted(SortComparator.of(sort, "id"))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(toList());
+        long total = tenantScoped()
+                ? eventRepository.count() + archivedEventRepository.count()
+                : eventCounter.countEvents() + eventCounter.countArchivedEvents();
+        boolean hasNext = events.hasNext() || archivedEvents.hasNext()
+                || events.getNumberOfElements() + archivedEvents.getNumberOfElements() > window;
+        return toPage(new SliceImpl<>(merged, pageable, hasNext), total);
+    }
+
+    /**
+     * [from, to) 와 겹치는 이벤트. 정렬은 종료일, 아이디 순으로 고정이다.
+     * totals 가 false 면 count 쿼리 없이 Slice 를 반환한다.
+     */
+    public Slice<Event> findOverlapping(LocalDateTime from, LocalDateTime to, Pageable pageable, boolean totals) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return totals
+                ? eventRepository.findOverlapping(from, to, unsorted)
+                : eventRepository.findSliceOverlapping(from, to, unsorted);
+    }
+
+    /**
+     * at 시점에 등록 기간인 이벤트. 정렬은 등록 마감일, 아이디 순으로 고정이다.
+     */
+    public Slice<Event> findEnrollmentOpenAt(LocalDateTime at, Pageable pageable, boolean totals) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return totals
+                ? eventRepository.findEnrollmentOpenAt(at, unsorted)
+                : eventRepository.findSliceEnrollmentOpenAt(at, unsorted);
+    }
+
+    // 유지하는 개수는 근사값이므로, 실제로 읽은 페이지보다 작으면 읽은 만큼으로 보정한다.
+    private Page<Event> toPage(Slice<Event> slice, long count) {
+        Pageable pageable = slice.getPageable();
+        long seen = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        return new PageImpl<>(slice.getContent(), pageable, Math.max(count, seen));
+    }
+
+    private static boolean tenantScoped() {
+        return TenantContext.current() != null;
+    }
+
+    SingleFlight<Integer, Optional<Event>> findByIdFlight() {
+        return findByIdFlight;
+    }
+
+    private void bindMetrics(MeterRegistry meterRegistry, String query, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("events.single-flight.calls", flight, SingleFlight::executions)
+                .tag("query", query)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("events.single-flight.calls", flight, SingleFlight::collapsed)
+                .tag("query", query)
+                .tag("result", "collapsed")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package io.iamkyu.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Optional;
+
+public enum EventImportFormat {
+    CSV {
+        @Override
+        EventRecordReader<?> reader(InputStream in, ObjectMapper objectMapper) throws IOException {
+            return new CsvEventRecordReader(in, objectMapper);
+        }
+    },
+    JSON {
+        @Override
+        EventRecordReader<?> reader(InputStream in, ObjectMapper objectMapper) throws IOException {
+            return new JsonEventRecordReader(in, objectMapper);
+        }
+    };
+
+    abstract EventRecordReader<?> reader(InputStream in, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * 파일 확장자, 없으면 Content-Type 으로 형식을 정한다.
+     */
+    public static Optional<EventImportFormat> detect(String filename, String contentType) {
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return Optional.of(CSV);
+        }
+        if (name.endsWith(".json") || name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return Optional.of(JSON);
+        }
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/csv")) {
+            return Optional.of(CSV);
+        }
+        if (type.startsWith("application/json") || type.startsWith("application/x-ndjson")) {
+            return Optional.of(JSON);
+        }
+        return Optional.empty();
+    }
+}
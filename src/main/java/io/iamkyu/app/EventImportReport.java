@@ -0,0 +1,25 @@
+package io.iamkyu.app;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class EventImportReport {
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final long elapsedMillis;
+    private final double rowsPerSecond;
+    /** 거부된 행, 최대 app.import.max-reported-errors 개. 행 번호는 헤더를 제외한 1부터 센다. */
+    private final List<RowError> errors;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private final long row;
+        private final List<String> messages;
+    }
+}
@@ -0,0 +1,57 @@
+package io.iamkyu.app;
+
+import io.iamkyu.config.EventImportProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * CLI 로 이벤트 파일을 가져온다.
+ *
+ * 사용법: java -jar hello-rest-api.jar --app.import.file=events.csv
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.import", name = "file")
+public class EventImportRunner implements ApplicationRunner {
+    private final EventImporter importer;
+    private final EventImportProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    public EventImportRunner(EventImporter importer, EventImportProperties properties,
+                             ConfigurableApplicationContext context) {
+        this.importer = importer;
+        this.properties = properties;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Path file = Paths.get(properties.getFile());
+        EventImportFormat format = EventImportFormat.detect(file.getFileName().toString(), null)
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported import file: " + file));
+
+        EventImportReport report;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            report = importer.importEvents(in, format);
+        }
+        log.info("Import of {} finished: {} imported, {} rejected, {} rows/s",
+                file, report.getImported(), report.getRejected(), Math.round(report.getRowsPerSecond()));
+        report.getErrors().forEach(error -> log.warn("Row {} rejected: {}", error.getRow(), error.getMessages()));
+
+        if (properties.isExitOnComplete()) {
+            System.exit(SpringApplication.exit(context, () -> report.getRejected() == 0 ? 0 : 1));
+        }
+    }
+}
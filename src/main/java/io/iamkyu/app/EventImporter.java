@@ -0,0 +1,251 @@
+package io.iamkyu.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.iamkyu.config.EventImportProperties;
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 이벤트 카탈로그 파일을 가져온다.
+ * 읽기 스레드가 파일을 스트리밍으로 읽어 chunkSize 개씩 묶으면, 워커들이 병렬로 해석, 검증하고 한 트랜잭션에서 배치 insert 한다.
+ * 워커 큐가 차면 읽기 스레드가 직접 청크를 처리하므로(CallerRunsPolicy) 메모리에는 최대
+ * parallelism + queueCapacity + 1 개의 청크만 올라온다.
+ */
+@Slf4j
+@Component
+public class EventImporter {
+    private final ObjectMapper objectMapper;
+    private final ModelMapper modelMapper;
+    private final SpringValidatorAdapter validator;
+    private final EventCreateRequestValidator createRequestValidator;
+    private final EventRepository eventRepository;
+    private final EventAggregator aggregator;
+    private final TransactionTemplate transactionTemplate;
+    private final EventImportProperties properties;
+    private final Counter importedEvents;
+    private final Counter rejectedEvents;
+
+    public EventImporter(ObjectMapper objectMapper, ModelMapper modelMapper, Validator validator,
+                         EventCreateRequestValidator createRequestValidator, EventRepository eventRepository,
+                         EventAggregator aggregator, PlatformTransactionManager transactionManager,
+                         EventImportProperties properties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.modelMapper = modelMapper;
+        this.validator = new SpringValidatorAdapter(validator);
+        this.createRequestValidator = createRequestValidator;
+        this.eventRepository = eventRepository;
+        this.aggregator = aggregator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.importedEvents = meterRegistry.counter("events.imported");
+        this.rejectedEvents = meterRegistry.counter("events.import.rejected");
+    }
+
+    public EventImportReport importEvents(InputStream in, EventImportFormat format) throws IOException {
+        try (EventRecordReader<?> reader = format.reader(in, objectMapper)) {
+            return run(reader);
+        }
+    }
+
+    private <R> EventImportReport run(EventRecordReader<R> reader) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress(properties.getMaxReportedErrors());
+        int parallelism = Math.max(1, properties.getParallelism());
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            long row = 0;
+            List<Row<R>> chunk = new ArrayList<>(properties.getChunkSize());
+            R record;
+            while ((record = reader.next()) != null) {
+                chunk.add(new Row<>(++row, record));
+                if (chunk.size() == properties.getChunkSize()) {
+                    submit(workers, reader, chunk, progress);
+                    chunk = new ArrayList<>(properties.getChunkSize());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(workers, reader, chunk, progress);
+            }
+        } finally {
+            workers.shutdown();
+            awaitTermination(workers);
+        }
+        progress.rethrowIfFailed();
+
+        long elapsedNanos = System.nanoTime() - start;
+        long rows = progress.imported.get() + progress.rejected.get();
+        EventImportReport report = new EventImportReport(rows, progress.imported.get(), progress.rejected.get(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                elapsedNanos == 0 ? 0 : rows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos,
+                progress.sortedErrors());
+        log.info("Imported {} of {} events ({} rejected) in {}ms",
+                report.getImported(), report.getRowsRead(), report.getRejected(), report.getElapsedMillis());
+        return report;
+    }
+
+    private <R> void submit(ThreadPoolExecutor workers, EventRecordReader<R> reader, List<Row<R>> chunk,
+                            Progress progress) {
+        String tenantId = TenantContext.current();
+        workers.execute(() -> TenantContext.run(tenantId, () -> {
+            try {
+                importChunk(reader, chunk, progress);
+            } catch (RuntimeException | Error e) {
+                progress.fail(e);
+            }
+        }));
+    }
+
+    private <R> void importChunk(EventRecordReader<R> reader, List<Row<R>> chunk, Progress progress) {
+        List<Event> events = new ArrayList<>(chunk.size());
+        List<Long> rows = new ArrayList<>(chunk.size());
+        for (Row<R> row : chunk) {
+            List<String> messages = new ArrayList<>();
+            Event event = toEvent(reader, row.record, messages);
+            if (event == null) {
+                progress.reject(row.number, messages);
+            } else {
+                events.add(event);
+                rows.add(row.number);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        events.forEach(event -> event.setTenantId(TenantContext.current()));
+        try {
+            transactionTemplate.execute(status -> {
+                aggregator.created(eventRepository.saveAll(events));
+                return null;
+            });
+            progress.imported.addAndGet(events.size());
+            importedEvents.increment(events.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to insert rows {}..{}", rows.get(0), rows.get(rows.size() - 1), e);
+            List<String> messages = Collections.singletonList("Insert failed: " + e.getMessage());
+            rows.forEach(row -> progress.reject(row, messages));
+        }
+    }
+
+    private <R> Event toEvent(EventRecordReader<R> reader, R record, List<String> messages) {
+        EventCreateRequest request;
+        try {
+            request = reader.parse(record);
+        } catch (IOException e) {
+            messages.add(e.getMessage());
+            return null;
+        }
+
+        Errors errors = new BeanPropertyBindingResult(request, "eventCreateRequest");
+        validator.validate(request, errors);
+        if (!errors.hasErrors()) {
+            createRequestValidator.validate(request, errors);
+        }
+        if (errors.hasErrors()) {
+            errors.getAllErrors().forEach(error -> messages.add(error instanceof FieldError
+                    ? ((FieldError) error).getField() + ": " + error.getDefaultMessage()
+                    : error.getDefaultMessage()));
+            return null;
+        }
+
+        Event event = modelMapper.map(request, Event.class);
+        event.adjust();
+        return event;
+    }
+
+    private static void awaitTermination(ThreadPoolExecutor workers) throws IOException {
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Waiting for {} import chunks", workers.getQueue().size() + workers.getActiveCount());
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        }
+    }
+
+    private static class Row<R> {
+        private final long number;
+        private final R record;
+
+        Row(long number, R record) {
+            this.number = number;
+            this.record = record;
+        }
+    }
+
+    private class Progress {
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<EventImportReport.RowError> errors;
+        private final int maxErrors;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+            this.errors = new ArrayList<>(Math.min(maxErrors, 1024));
+        }
+
+        void reject(long row, List<String> messages) {
+            rejected.incrementAndGet();
+            rejectedEvents.increment();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new EventImportReport.RowError(row, messages));
+                }
+            }
+        }
+
+        void fail(Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+
+        void rethrowIfFailed() {
+            Throwable e = failure.get();
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+
+        List<EventImportReport.RowError> sortedErrors() {
+            synchronized (errors) {
+                return errors.stream()
+                        .sorted(Comparator.comparingLong(EventImportReport.RowError::getRow))
+                        .collect(toList());
+            }
+        }
+    }
+}
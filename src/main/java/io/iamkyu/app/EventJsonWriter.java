@@ -0,0 +1,96 @@
+package io.iamkyu.app;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.iamkyu.domain.Event;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 링크 없는 이벤트 JSON 을 JsonGenerator 로 바로 쓴다. Resource 래퍼나 리플렉션 없이 필드를 순서대로 쓰고,
+ * 필드 이름과 날짜 형식, null 생략은 ObjectMapper 로 Event 를 직렬화한 결과와 같다.
+ */
+public class EventJsonWriter {
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    public void write(Event event, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", event.getId());
+        writeStringField(generator, "name", event.getName());
+        writeStringField(generator, "description", event.getDescription());
+        writeDateTimeField(generator, "beginEnrollmentDateTime", event.getBeginEnrollmentDateTime());
+        writeDateTimeField(generator, "closeEnrollmentDateTime", event.getCloseEnrollmentDateTime());
+        writeDateTimeField(generator, "beginEventDateTime", event.getBeginEventDateTime());
+        writeDateTimeField(generator, "endEventDateTime", event.getEndEventDateTime());
+        writeStringField(generator, "location", event.getLocation());
+        generator.writeNumberField("basePrice", event.getBasePrice());
+        generator.writeNumberField("maxPrice", event.getMaxPrice());
+        generator.writeNumberField("limitOfEnrollment", event.getLimitOfEnrollment());
+        generator.writeBooleanField("offline", event.isOffline());
+        generator.writeBooleanField("free", event.isFree());
+        if (event.getEventStatus() != null) {
+            generator.writeStringField("eventStatus", event.getEventStatus().name());
+        }
+        if (event.getVersion() != null) {
+            generator.writeNumberField("version", event.getVersion());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Page 면 전체 개수를, 아니면 다음 페이지 존재 여부를 page 에 쓴다.
+     */
+    public void write(Slice<Event> slice, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("content");
+        for (Event event : slice) {
+            write(event, generator);
+        }
+        generator.writeEndArray();
+
+        generator.writeObjectFieldStart("page");
+        generator.writeNumberField("size", slice.getSize());
+        if (slice instanceof Page) {
+            Page<Event> page = (Page<Event>) slice;
+            generator.writeNumberField("totalElements", page.getTotalElements());
+            generator.writeNumberField("totalPages", page.getTotalPages());
+        }
+        generator.writeNumberField("number", slice.getNumber());
+        if (!(slice instanceof Page)) {
+            generator.writeBooleanField("hasNext", slice.hasNext());
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    public void write(EventMultiGetter.Result result, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("content");
+        for (Event event : result.getEvents()) {
+            write(event, generator);
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("missingIds");
+        for (Integer id : result.getMissingIds()) {
+            generator.writeNumber(id);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeStringField(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private static void writeDateTimeField(JsonGenerator generator, String name, LocalDateTime value)
+            throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value.format(DATE_TIME));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.iamkyu.app;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventMultiGetRequest {
+    @NotEmpty
+    @Size(max = EventMultiGetter.MAX_IDS)
+    private List<@NotNull Integer> ids;
+}
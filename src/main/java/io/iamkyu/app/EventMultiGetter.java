@@ -0,0 +1,56 @@
+package io.iamkyu.app;
+
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventRepository;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class EventMultiGetter {
+    public static final int MAX_IDS = 1000;
+    static final int CHUNK_SIZE = 200;
+
+    private final EventRepository eventRepository;
+
+    public EventMultiGetter(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    // IN 절의 파라미터 수가 너무 커지지 않도록 CHUNK_SIZE 단위로 나누어 조회하고, 요청한 순서대로 정렬한다.
+    public Result get(List<Integer> ids) {
+        List<Integer> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        Map<Integer, Event> found = new HashMap<>(distinctIds.size() * 2);
+        for (int from = 0; from < distinctIds.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = distinctIds.subList(from, Math.min(from + CHUNK_SIZE, distinctIds.size()));
+            eventRepository.findAllById(chunk).forEach(event -> found.put(event.getId(), event));
+        }
+
+        List<Event> events = new ArrayList<>(found.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : distinctIds) {
+            Event event = found.get(id);
+            if (event == null) {
+                missingIds.add(id);
+            } else {
+                events.add(event);
+            }
+        }
+        return new Result(events, missingIds);
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static class Result {
+        private final List<Event> events;
+        private final List<Integer> missingIds;
+    }
+}
@@ -0,0 +1,97 @@
+package io.iamkyu.app;
+
+import io.iamkyu.config.DeleteProperties;
+import io.iamkyu.config.ShardRoutingContext;
+import io.iamkyu.config.ShardRoutingDataSource;
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventTombstoneRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * 삭제 표시된 이벤트를 event_tombstone 의 기본 키 순서로 chunkSize 만큼씩 실제로 지운다.
+ * 삭제 표시된 이벤트는 이미 모든 조회에서 빠져 있으므로, event 의 2차 캐시와 쿼리 캐시를 비우지 않도록
+ * 네이티브 쿼리가 바꾸는 대상을 event_tombstone 으로만 알리고 지운 이벤트만 2차 캐시에서 뺀다.
+ * 샤딩을 켜면 삭제 표시는 이벤트와 같은 샤드에 있으므로 모든 샤드를 차례로 처리한다.
+ */
+@Slf4j
+@Component
+public class EventPurger {
+    private final EventTombstoneRepository tombstoneRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DeleteProperties properties;
+    private final ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource;
+    private final Counter purgedEvents;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EventPurger(EventTombstoneRepository tombstoneRepository, PlatformTransactionManager transactionManager,
+                       DeleteProperties properties, ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource,
+                       MeterRegistry meterRegistry) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.shardRoutingDataSource = shardRoutingDataSource;
+        this.purgedEvents = meterRegistry.counter("events.purged");
+    }
+
+    /**
+     * @return 처리한 삭제 표시 수
+     */
+    public int purge() {
+        ShardRoutingDataSource shards = shardRoutingDataSource.getIfAvailable();
+        if (shards == null) {
+            return purgeShard();
+        }
+        int total = 0;
+        for (String shard : shards.shardNames()) {
+            total += ShardRoutingContext.call(shard, this::purgeShard);
+        }
+        return total;
+    }
+
+    private int purgeShard() {
+        int total = 0;
+        int processed;
+        do {
+            processed = transactionTemplate.execute(status -> purgeChunk());
+            total += processed;
+        } while (processed == properties.getChunkSize());
+
+        if (total > 0) {
+            log.info("Purged {} deleted events", total);
+        }
+        return total;
+    }
+
+    // 지울 행이 없으면(이미 지워졌으면) 삭제 표시만 지운다.
+    private int purgeChunk() {
+        List<Integer> ids = tombstoneRepository.findIds(PageRequest.of(0, properties.getChunkSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int purged = entityManager.createNativeQuery("delete from event where id in (:ids) and deleted_at is not null")
+                .setParameter("ids", ids)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("event_tombstone")
+                .executeUpdate();
+        tombstoneRepository.deleteByIds(ids);
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(Event.class, id));
+        purgedEvents.increment(purged);
+        return ids.size();
+    }
+}
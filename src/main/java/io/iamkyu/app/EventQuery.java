@@ -0,0 +1,199 @@
+package io.iamkyu.app;
+
+import io.iamkyu.domain.EventAggregate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 파싱하고 컴파일한 이벤트 조회. 쿼리 텍스트마다 한 번 만들어 EventQueryCache 에 두고, 요청마다 변수 값만 바꿔 실행한다.
+ * jpql 은 선택한 필드(와 연관 조회에 필요한 필드)만 읽는 한 개의 쿼리이고, 조건과 정렬은 쿼리 텍스트에서 정해진다.
+ */
+public class EventQuery {
+    private final List<Field> fields;
+    private final List<AggregateField> aggregateFields;
+    private final String jpql;
+    private final Map<Field, Integer> columns;
+    private final Map<String, Argument> parameters;
+    private final Argument page;
+    private final Argument size;
+
+    EventQuery(List<Field> fields, List<AggregateField> aggregateFields, String jpql, List<Field> columns,
+               Map<String, Argument> parameters, Argument page, Argument size) {
+        this.fields = Collections.unmodifiableList(fields);
+        this.aggregateFields = Collections.unmodifiableList(aggregateFields);
+        this.jpql = jpql;
+        this.columns = new EnumMap<>(Field.class);
+        for (int i = 0; i < columns.size(); i++) {
+            this.columns.put(columns.get(i), i);
+        }
+        this.parameters = Collections.unmodifiableMap(parameters);
+        this.page = page;
+        this.size = size;
+    }
+
+    /**
+     * @return 응답에 선택한 순서대로의 이벤트 필드
+     */
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return 선택한 aggregate 필드. aggregate 를 선택하지 않았으면 비어 있다.
+     */
+    public List<AggregateField> getAggregateFields() {
+        return aggregateFields;
+    }
+
+    public String getJpql() {
+        return jpql;
+    }
+
+    /**
+     * @return jpql 의 select 절에서 필드의 위치
+     */
+    public int column(Field field) {
+        return columns.get(field);
+    }
+
+    /**
+     * @return jpql 의 파라미터 이름별 인자
+     */
+    public Map<String, Argument> getParameters() {
+        return parameters;
+    }
+
+    public Argument getPage() {
+        return page;
+    }
+
+    public Argument getSize() {
+        return size;
+    }
+
+    /**
+     * 선택할 수 있는 이벤트 필드. property 는 쿼리와 응답에 쓰는 이름이며 Event 의 속성 이름과 같다.
+     */
+    public enum Field {
+        ID("id"),
+        NAME("name"),
+        DESCRIPTION("description"),
+        BEGIN_ENROLLMENT_DATE_TIME("beginEnrollmentDateTime"),
+        CLOSE_ENROLLMENT_DATE_TIME("closeEnrollmentDateTime"),
+        BEGIN_EVENT_DATE_TIME("beginEventDateTime"),
+        END_EVENT_DATE_TIME("endEventDateTime"),
+        LOCATION("location"),
+        BASE_PRICE("basePrice"),
+        MAX_PRICE("maxPrice"),
+        LIMIT_OF_ENROLLMENT("limitOfEnrollment"),
+        OFFLINE("offline"),
+        FREE("free"),
+        EVENT_STATUS("eventStatus"),
+        VERSION("version");
+
+        private final String property;
+
+        Field(String property) {
+            this.property = property;
+        }
+
+        public String property() {
+            return property;
+        }
+
+        String path() {
+            return "e." + property;
+        }
+
+        static Optional<Field> of(String property) {
+            return Arrays.stream(values()).filter(field -> field.property.equals(property)).findFirst();
+        }
+
+        static List<String> properties() {
+            return Arrays.stream(values()).map(Field::property).collect(toList());
+        }
+    }
+
+    /**
+     * aggregate 아래에서 선택할 수 있는 필드. 이벤트가 속한 (상태, 장소, 무료 여부) 집계 단위의 값이다.
+     */
+    public enum AggregateField {
+        EVENT_COUNT("eventCount", EventAggregate::getEventCount),
+        BASE_PRICE_SUM("basePriceSum", EventAggregate::getBasePriceSum),
+        CAPACITY_VALUE("capacityValue", EventAggregate::getCapacityValue);
+
+        private final String property;
+        private final ToLongFunction<EventAggregate> value;
+
+        AggregateField(String property, ToLongFunction<EventAggregate> value) {
+            this.property = property;
+            this.value = value;
+        }
+
+        public String property() {
+            return property;
+        }
+
+        public long valueOf(EventAggregate aggregate) {
+            return value.applyAsLong(aggregate);
+        }
+
+        static Optional<AggregateField> of(String property) {
+            return Arrays.stream(values()).filter(field -> field.property.equals(property)).findFirst();
+        }
+
+        static List<String> properties() {
+            return Arrays.stream(values()).map(AggregateField::property).collect(toList());
+        }
+    }
+
+    /**
+     * 쿼리 텍스트에 쓴 값 또는 $변수. 변수 값은 실행할 때 같은 규칙으로 변환하고 검증한다.
+     */
+    public static class Argument {
+        private final String variable;
+        private final Object value;
+        private final Function<Object, Object> converter;
+
+        private Argument(String variable, Object value, Function<Object, Object> converter) {
+            this.variable = variable;
+            this.value = value;
+            this.converter = converter;
+        }
+
+        static Argument literal(Object value) {
+            return new Argument(null, value, null);
+        }
+
+        static Argument variable(String name, Function<Object, Object> converter) {
+            return new Argument(name, null, converter);
+        }
+
+        /**
+         * @throws EventQueryException 변수가 없거나 값을 변환할 수 없으면
+         */
+        public Object resolve(Map<String, Object> variables) {
+            if (variable == null) {
+                return value;
+            }
+            Object raw = variables == null ? null : variables.get(variable);
+            if (raw == null) {
+                throw new EventQueryException("Variable $" + variable + " is not given.");
+            }
+            try {
+                return converter.apply(raw);
+            } catch (EventQueryException e) {
+                throw new EventQueryException("Variable $" + variable + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.iamkyu.app;
+
+import io.iamkyu.config.EventQueryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 쿼리 텍스트별로 컴파일한 EventQuery 를 최근에 쓴 maxPlans 개까지 보관한다.
+ * 클라이언트가 값은 변수로 넘기고 같은 텍스트를 보내면 요청마다 파싱하지 않는다. 잘못된 쿼리는 보관하지 않는다.
+ */
+@Component
+public class EventQueryCache {
+    private final EventQueryParser parser;
+    private final Map<String, EventQuery> queries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public EventQueryCache(EventQueryProperties properties, EventSortPolicy sortPolicy, MeterRegistry meterRegistry) {
+        int maxPlans = properties.getMaxPlans();
+        this.parser = new EventQueryParser(sortPolicy, properties.getMaxPageSize());
+        this.queries = new LinkedHashMap<String, EventQuery>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EventQuery> eldest) {
+                return size() > maxPlans;
+            }
+        };
+        this.hits = plans(meterRegistry, "hit");
+        this.misses = plans(meterRegistry, "miss");
+    }
+
+    /**
+     * @throws EventQueryException 쿼리가 잘못되었으면
+     */
+    public EventQuery get(String text) {
+        EventQuery query;
+        synchronized (queries) {
+            query = queries.get(text);
+        }
+        if (query != null) {
+            hits.increment();
+            return query;
+        }
+
+        misses.increment();
+        query = parser.parse(text);
+        synchronized (queries) {
+            queries.put(text, query);
+        }
+        return query;
+    }
+
+    private static Counter plans(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("events.query.plans")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,11 @@
+package io.iamkyu.app;
+
+/**
+ * 쿼리 텍스트나 변수가 잘못되었다. 메시지는 그대로 응답의 오류 메시지가 된다.
+ */
+public class EventQueryException extends RuntimeException {
+
+    public EventQueryException(String message) {
+        super(message);
+    }
+}
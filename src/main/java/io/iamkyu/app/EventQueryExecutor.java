@@ -0,0 +1,122 @@
+package io.iamkyu.app;
+
+import io.iamkyu.common.BatchLoader;
+import io.iamkyu.domain.EventAggregate;
+import io.iamkyu.domain.EventAggregateDelta;
+import io.iamkyu.domain.EventAggregateKey;
+import io.iamkyu.domain.EventAggregateRepository;
+import io.iamkyu.domain.EventStatus;
+import io.iamkyu.domain.TenantContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * EventQuery 를 실행한다. 이벤트는 선택한 컬럼만 읽는 쿼리 한 번으로 읽고,
+ * aggregate 는 페이지의 모든 이벤트에 필요한 집계 단위를 모아 BatchLoader 로 한 번에 읽는다.
+ * 목록 조회와 같이 테넌트 필터가 걸리고 삭제 표시된 이벤트는 빠진다.
+ */
+@Component
+public class EventQueryExecutor {
+    private final EventAggregateRepository aggregateRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EventQueryExecutor(EventAggregateRepository aggregateRepository) {
+        this.aggregateRepository = aggregateRepository;
+    }
+
+    /**
+     * @throws EventQueryException 변수가 없거나 잘못되었으면
+     */
+    @Transactional(readOnly = true)
+    public EventQueryResult execute(EventQuery query, Map<String, Object> variables) {
+        int page = (Integer) query.getPage().resolve(variables);
+        int size = (Integer) query.getSize().resolve(variables);
+        long offset = (long) page * size;
+        if (offset > Integer.MAX_VALUE) {
+            throw new EventQueryException("Page is too deep: " + page);
+        }
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query.getJpql(), Tuple.class);
+        query.getParameters().forEach((name, argument) -> typedQuery.setParameter(name, argument.resolve(variables)));
+        // 다음 페이지가 있는지 보려고 하나 더 읽는다.
+        List<Tuple> rows = typedQuery
+                .setFirstResult((int) offset)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > size;
+        if (hasNext) {
+            rows = rows.subList(0, size);
+        }
+
+        BatchLoader<EventAggregateKey, EventAggregate> aggregates =
+                new BatchLoader<>(this::loadAggregates, EventMultiGetter.CHUNK_SIZE);
+        List<Map<String, Object>> events = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            for (EventQuery.Field field : query.getFields()) {
+                event.put(field.property(), row.get(query.column(field)));
+            }
+            if (!query.getAggregateFields().isEmpty()) {
+                event.put(EventQueryParser.AGGREGATE, null);
+                aggregates.load(aggregateKeyOf(query, row),
+                        aggregate -> event.put(EventQueryParser.AGGREGATE, aggregateValues(query, aggregate)));
+            }
+            events.add(event);
+        }
+        aggregates.dispatch();
+
+        return new EventQueryResult(events, new SliceResources.SliceMetadata(size, page, hasNext));
+    }
+
+    private Map<EventAggregateKey, EventAggregate> loadAggregates(Collection<EventAggregateKey> keys) {
+        Set<EventStatus> statuses = new HashSet<>();
+        Set<String> locations = new HashSet<>();
+        keys.forEach(key -> {
+            statuses.add(key.getEventStatus());
+            locations.add(key.getLocation());
+        });
+        Set<EventAggregateKey> requested = new HashSet<>(keys);
+        Map<EventAggregateKey, EventAggregate> found = new HashMap<>();
+        String tenantId = EventAggregateDelta.tenantIdOf(TenantContext.current());
+        for (EventAggregate aggregate
+                : aggregateRepository.findByStatusesAndLocations(tenantId, statuses, locations)) {
+            if (requested.contains(aggregate.getKey())) {
+                found.put(aggregate.getKey(), aggregate);
+            }
+        }
+        return found;
+    }
+
+    // 조회한 이벤트는 테넌트 필터로 현재 테넌트의 것만 남으므로 집계 단위의 테넌트도 현재 테넌트다.
+    private static EventAggregateKey aggregateKeyOf(EventQuery query, Tuple row) {
+        return EventAggregateDelta.keyOf(TenantContext.current(),
+                (EventStatus) row.get(query.column(EventQuery.Field.EVENT_STATUS)),
+                (String) row.get(query.column(EventQuery.Field.LOCATION)),
+                (Boolean) row.get(query.column(EventQuery.Field.FREE)));
+    }
+
+    private static Map<String, Object> aggregateValues(EventQuery query, EventAggregate aggregate) {
+        if (aggregate == null) {
+            return null;
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (EventQuery.AggregateField field : query.getAggregateFields()) {
+            values.put(field.property(), field.valueOf(aggregate));
+        }
+        return values;
+    }
+}
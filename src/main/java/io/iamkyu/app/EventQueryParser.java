@@ -0,0 +1,499 @@
+package io.iamkyu.app;
+
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.EventStatus;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * GraphQL 과 비슷한 문법의 이벤트 조회를 EventQuery 로 컴파일한다.
+ *
+ * <pre>
+ * { events(status: PUBLISHED, from: $from, size: 20, sort: "beginEventDateTime,desc") {
+ *     id name beginEventDateTime aggregate { eventCount } } }
+ * </pre>
+ *
+ * 루트 필드는 events 하나다. 콤마는 공백과 같고 # 부터 줄 끝까지는 주석이다.
+ * 인자 값은 문자열, 정수, true/false, 이름(EventStatus), 목록, $변수이며 sort 는 쿼리 텍스트에만 쓸 수 있다.
+ */
+class EventQueryParser {
+    static final String ROOT = "events";
+    static final String AGGREGATE = "aggregate";
+    static final int DEFAULT_SIZE = 20;
+
+    private final EventSortPolicy sortPolicy;
+    private final int maxPageSize;
+
+    EventQueryParser(EventSortPolicy sortPolicy, int maxPageSize) {
+        this.sortPolicy = sortPolicy;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * @throws EventQueryException 문법이 틀렸거나 없는 필드, 인자를 썼으면
+     */
+    EventQuery parse(String text) {
+        Tokens tokens = new Tokens(text);
+        boolean braced;
+        if (tokens.acceptName("query")) {
+            tokens.expect('{');
+            braced = true;
+        } else {
+            braced = tokens.accept('{');
+        }
+        tokens.expectName(ROOT);
+
+        Map<String, Object> arguments = new LinkedHashMap<>();
+        if (tokens.accept('(')) {
+            while (!tokens.accept(')')) {
+                int position = tokens.position;
+                String name = tokens.name();
+                tokens.expect(':');
+                if (arguments.put(name, tokens.value()) != null) {
+                    throw new EventQueryException("Duplicate argument '" + name + "' at position " + position);
+                }
+            }
+        }
+
+        Set<EventQuery.Field> fields = new LinkedHashSet<>();
+        Set<EventQuery.AggregateField> aggregateFields = new LinkedHashSet<>();
+        boolean aggregateSelected = false;
+        tokens.expect('{');
+        while (!tokens.accept('}')) {
+            int position = tokens.position;
+            String name = tokens.name();
+            if (AGGREGATE.equals(name)) {
+                aggregateSelected = true;
+                tokens.expect('{');
+                while (!tokens.accept('}')) {
+                    aggregateFields.add(aggregateField(tokens.position, tokens.name()));
+                }
+                if (aggregateFields.isEmpty()) {
+                    throw new EventQueryException("Select at least one field of '" + AGGREGATE + "' at position "
+                            + position);
+                }
+            } else {
+                fields.add(field(position, name));
+            }
+        }
+        if (fields.isEmpty() && !aggregateSelected) {
+            throw new EventQueryException("Select at least one field of '" + ROOT + "'.");
+        }
+        if (braced) {
+            tokens.expect('}');
+        }
+        tokens.expectEnd();
+
+        return compile(new ArrayList<>(fields), new ArrayList<>(aggregateFields), arguments);
+    }
+
+    private EventQuery compile(List<EventQuery.Field> fields, List<EventQuery.AggregateField> aggregateFields,
+                               Map<String, Object> arguments) {
+        List<EventQuery.Field> columns = new ArrayList<>(fields);
+        if (!aggregateFields.isEmpty()) {
+            // 집계 단위를 찾는 데 필요한 필드는 선택하지 않았어도 읽는다.
+            for (EventQuery.Field field : Arrays.asList(
+                    EventQuery.Field.EVENT_STATUS, EventQuery.Field.LOCATION, EventQuery.Field.FREE)) {
+                if (!columns.contains(field)) {
+                    columns.add(field);
+                }
+            }
+        }
+
+        List<String> conditions = new ArrayList<>();
+        Map<String, EventQuery.Argument> parameters = new LinkedHashMap<>();
+        EventQuery.Argument page = EventQuery.Argument.literal(0);
+        EventQuery.Argument size = EventQuery.Argument.literal(Math.min(DEFAULT_SIZE, maxPageSize));
+        String orderBy = "e.id asc";
+        for (Map.Entry<String, Object> entry : arguments.entrySet()) {
+            String name = entry.getKey();
+            Object value = entry.getValue();
+            switch (name) {
+                case "page":
+                    page = argument(name, value, EventQueryParser::toPage);
+                    break;
+                case "size":
+                    size = argument(name, value, this::toSize);
+                    break;
+                case "sort":
+                    if (!(value instanceof String)) {
+                        throw new EventQueryException("Argument 'sort' must be a string in the query text.");
+                    }
+                    orderBy = orderBy((String) value);
+                    break;
+                default:
+                    Filter filter = filter(name);
+                    conditions.add(filter.condition);
+                    parameters.put(filter.argument, argument(name, value, filter.converter));
+            }
+        }
+        conditions.add(EventRepository.LIVE);
+
+        String jpql = "select " + columns.stream().map(EventQuery.Field::path).collect(joining(", "))
+                + " from Event e where " + String.join(" and ", conditions)
+                + " order by " + orderBy;
+        return new EventQuery(fields, aggregateFields, jpql, columns, parameters, page, size);
+    }
+
+    private static EventQuery.Argument argument(String name, Object value, Function<Object, Object> converter) {
+        if (value instanceof Variable) {
+            return EventQuery.Argument.variable(((Variable) value).name, converter);
+        }
+        try {
+            return EventQuery.Argument.literal(converter.apply(value));
+        } catch (EventQueryException e) {
+            throw new EventQueryException("Argument '" + name + "': " + e.getMessage());
+        }
+    }
+
+    private String orderBy(String value) {
+        List<String> parts = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .collect(toList());
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (!parts.isEmpty()) {
+            Optional<Sort.Direction> last = Sort.Direction.fromOptionalString(parts.get(parts.size() - 1));
+            if (last.isPresent()) {
+                direction = last.get();
+                parts = parts.subList(0, parts.size() - 1);
+            }
+        }
+        if (parts.isEmpty()) {
+            throw new EventQueryException("Argument 'sort' needs at least one property.");
+        }
+
+        Optional<Pageable> supported = sortPolicy.apply(
+                PageRequest.of(0, 1, Sort.by(direction, parts.toArray(new String[0]))));
+        if (!supported.isPresent()) {
+            throw new EventQueryException("Sort is not supported. Supported sorts: " + EventSortPolicy.SUPPORTED_SORTS);
+        }
+        return supported.get().getSort().stream()
+                .map(order -> "e." + order.getProperty() + " " + order.getDirection().name().toLowerCase())
+                .collect(joining(", "));
+    }
+
+    private static EventQuery.Field field(int position, String name) {
+        return EventQuery.Field.of(name).orElseThrow(() -> new EventQueryException(
+                "Unknown field '" + name + "' at position " + position
+                        + ". Available fields: " + EventQuery.Field.properties() + ", " + AGGREGATE));
+    }
+
+    private static EventQuery.AggregateField aggregateField(int position, String name) {
+        return EventQuery.AggregateField.of(name).orElseThrow(() -> new EventQueryException(
+                "Unknown field '" + AGGREGATE + "." + name + "' at position " + position
+                        + ". Available fields: " + EventQuery.AggregateField.properties()));
+    }
+
+    private static Filter filter(String name) {
+        return Arrays.stream(Filter.values())
+                .filter(filter -> filter.argument.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new EventQueryException("Unknown argument '" + name + "'. Available arguments: "
+                        + Arrays.stream(Filter.values()).map(filter -> filter.argument).collect(toList())
+                        + ", page, size, sort"));
+    }
+
+    private static Object toPage(Object value) {
+        int page = toInt(value);
+        if (page < 0) {
+            throw new EventQueryException("must not be negative.");
+        }
+        return page;
+    }
+
+    private Object toSize(Object value) {
+        int size = toInt(value);
+        if (size < 1 || size > maxPageSize) {
+            throw new EventQueryException("must be between 1 and " + maxPageSize + ".");
+        }
+        return size;
+    }
+
+    private static int toInt(Object value) {
+        if (!(value instanceof Integer || value instanceof Long)
+                || ((Number) value).longValue() != ((Number) value).intValue()) {
+            throw new EventQueryException("must be an integer.");
+        }
+        return ((Number) value).intValue();
+    }
+
+    private static Object toStatus(Object value) {
+        try {
+            return EventStatus.valueOf(toText(value).toString());
+        } catch (IllegalArgumentException e) {
+            throw new EventQueryException("must be one of " + Arrays.toString(EventStatus.values()) + ".");
+        }
+    }
+
+    private static Object toText(Object value) {
+        if (!(value instanceof String)) {
+            throw new EventQueryException("must be a string.");
+        }
+        return value;
+    }
+
+    private static Object toBoolean(Object value) {
+        if (!(value instanceof Boolean)) {
+            throw new EventQueryException("must be true or false.");
+        }
+        return value;
+    }
+
+    private static Object toDateTime(Object value) {
+        try {
+            return LocalDateTime.parse(toText(value).toString().trim());
+        } catch (DateTimeParseException e) {
+            throw new EventQueryException("must be an ISO date-time.");
+        }
+    }
+
+    private static Object toIds(Object value) {
+        if (!(value instanceof List) || ((List<?>) value).isEmpty()
+                || ((List<?>) value).size() > EventMultiGetter.MAX_IDS) {
+            throw new EventQueryException("must be a list of 1 to " + EventMultiGetter.MAX_IDS + " ids.");
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Object id : (List<?>) value) {
+            ids.add(toInt(id));
+        }
+        return ids;
+    }
+
+    /**
+     * 이벤트를 거르는 인자. 조건의 파라미터 이름은 인자 이름과 같다.
+     */
+    private enum Filter {
+        STATUS("status", "e.eventStatus = :status", EventQueryParser::toStatus),
+        LOCATION("location", "e.location = :location", EventQueryParser::toText),
+        FREE("free", "e.free = :free", EventQueryParser::toBoolean),
+        OFFLINE("offline", "e.offline = :offline", EventQueryParser::toBoolean),
+        // from, to 를 함께 주면 기간 조회(overlaps)와 같이 [from, to) 와 겹치는 이벤트다.
+        FROM("from", "e.endEventDateTime > :from", EventQueryParser::toDateTime),
+        TO("to", "e.beginEventDateTime < :to", EventQueryParser::toDateTime),
+        IDS("ids", "e.id in :ids", EventQueryParser::toIds);
+
+        private final String argument;
+        private final String condition;
+        private final Function<Object, Object> converter;
+
+        Filter(String argument, String condition, Function<Object, Object> converter) {
+            this.argument = argument;
+            this.condition = condition;
+            this.converter = converter;
+        }
+    }
+
+    private static final class Variable {
+        private final String name;
+
+        Variable(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Tokens {
+        private final String text;
+        private int position;
+
+        Tokens(String text) {
+            this.text = text;
+            skipIgnored();
+        }
+
+        boolean accept(char c) {
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                skipIgnored();
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!accept(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        boolean acceptName(String name) {
+            int end = nameEnd();
+            if (end - position == name.length() && text.startsWith(name, position)) {
+                position = end;
+                skipIgnored();
+                return true;
+            }
+            return false;
+        }
+
+        void expectName(String name) {
+            if (!acceptName(name)) {
+                throw error("Expected '" + name + "'");
+            }
+        }
+
+        String name() {
+            int end = nameEnd();
+            if (end == position) {
+                throw error("Expected a name");
+            }
+            String name = text.substring(position, end);
+            position = end;
+            skipIgnored();
+            return name;
+        }
+
+        Object value() {
+            if (position >= text.length()) {
+                throw error("Expected a value");
+            }
+            char c = text.charAt(position);
+            if (c == '$') {
+                position++;
+                return new Variable(name());
+            }
+            if (c == '"') {
+                return string();
+            }
+            if (c == '-' || Character.isDigit(c)) {
+                return number();
+            }
+            if (c == '[') {
+                position++;
+                skipIgnored();
+                List<Object> values = new ArrayList<>();
+                while (!accept(']')) {
+                    values.add(value());
+                }
+                return values;
+            }
+            int start = position;
+            String name = name();
+            switch (name) {
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                case "null":
+                    throw new EventQueryException("null is not allowed at position " + start);
+                default:
+                    return name;
+            }
+        }
+
+        void expectEnd() {
+            if (position < text.length()) {
+                throw error("Unexpected '" + text.charAt(position) + "'");
+            }
+        }
+
+        private String string() {
+            int start = position++;
+            StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == '"') {
+                    skipIgnored();
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (position >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw error("Wrong unicode escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Wrong unicode escape");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                }
+            }
+            throw new EventQueryException("Unterminated string at position " + start);
+        }
+
+        private Long number() {
+            int start = position;
+            if (text.charAt(position) == '-') {
+                position++;
+            }
+            while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                position++;
+            }
+            try {
+                Long value = Long.valueOf(text.substring(start, position));
+                skipIgnored();
+                return value;
+            } catch (NumberFormatException e) {
+                position = start;
+                throw error("Expected an integer");
+            }
+        }
+
+        private int nameEnd() {
+            int end = position;
+            while (end < text.length()) {
+                char c = text.charAt(end);
+                boolean letter = c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+                if (letter || (end > position && c >= '0' && c <= '9')) {
+                    end++;
+                } else {
+                    break;
+                }
+            }
+            return end;
+        }
+
+        private void skipIgnored() {
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if (c == '#') {
+                    while (position < text.length() && text.charAt(position) != '\n') {
+                        position++;
+                    }
+                } else if (Character.isWhitespace(c) || c == ',') {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        private EventQueryException error(String message) {
+            return new EventQueryException(message + " at position " + position);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.iamkyu.app;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventQueryRequest {
+    public static final int MAX_QUERY_LENGTH = 10_000;
+
+    @NotBlank
+    @Size(max = MAX_QUERY_LENGTH)
+    private String query;
+    private Map<String, Object> variables;
+}
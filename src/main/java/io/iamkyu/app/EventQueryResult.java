@@ -0,0 +1,17 @@
+package io.iamkyu.app;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 선택한 필드만 담은 이벤트와 전체 개수 없는 페이지 정보. 선택한 필드는 값이 null 이어도 담는다.
+ */
+@Getter
+@AllArgsConstructor
+public class EventQueryResult {
+    private final List<Map<String, Object>> events;
+    private final SliceResources.SliceMetadata page;
+}
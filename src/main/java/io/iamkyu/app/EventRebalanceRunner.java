@@ -0,0 +1,35 @@
+package io.iamkyu.app;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * CLI 로 테넌트의 이벤트를 지금 설정의 샤드로 옮긴다.
+ *
+ * 사용법: java -jar hello-rest-api.jar --app.sharding.rebalance=true (샤드 설정은 서비스와 같게)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.sharding", name = "rebalance", havingValue = "true")
+public class EventRebalanceRunner implements ApplicationRunner {
+    private final EventRebalancer rebalancer;
+    private final ConfigurableApplicationContext context;
+
+    public EventRebalanceRunner(EventRebalancer rebalancer, ConfigurableApplicationContext context) {
+        this.rebalancer = rebalancer;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        EventRebalancer.Result result = rebalancer.rebalance();
+        log.info("Rebalance finished: {} tenants, {} events, {} archived events moved",
+                result.getTenants().size(), result.getEvents(), result.getArchivedEvents());
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
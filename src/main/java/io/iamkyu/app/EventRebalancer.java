@@ -0,0 +1,155 @@
+package io.iamkyu.app;
+
+import io.iamkyu.config.ShardRoutingContext;
+import io.iamkyu.config.ShardRoutingDataSource;
+import io.iamkyu.config.ShardingProperties;
+import io.iamkyu.domain.ArchivedEventRepository;
+import io.iamkyu.domain.EventRepository;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 테넌트의 이벤트를 지금 설정(해시 링과 app.sharding.tenants)이 가리키는 샤드로 옮긴다.
+ * 샤드를 추가하거나 테넌트를 다른 샤드에 지정한 뒤, 쓰기를 멈춘 상태에서 실행한다.
+ *
+ * chunkSize 건씩 대상 샤드에 복사(이미 있는 아이디는 건너뜀)한 뒤 원래 샤드에서 지운다.
+ * 삭제 표시된 이벤트는 옮기지 않는다. 삭제 표시(event_tombstone)와 함께 원래 샤드에 남아 EventPurger 가 지운다.
+ * 집계는 각 샤드의 트랜잭션 안에서 함께 옮기며, 중간에 멈추면 다시 실행해 이어서 옮길 수 있다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.sharding.shards[0]", name = "url")
+public class EventRebalancer {
+    private static final String EVENT_TABLE = "event";
+    private static final String ARCHIVE_TABLE = "event_archive";
+
+    private final ShardRoutingDataSource shards;
+    private final EventRepository eventRepository;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final EventAggregator aggregator;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public EventRebalancer(ShardRoutingDataSource shards, EventRepository eventRepository,
+                           ArchivedEventRepository archivedEventRepository, EventAggregator aggregator,
+                           PlatformTransactionManager transactionManager, ShardingProperties properties) {
+        this.shards = shards;
+        this.eventRepository = eventRepository;
+        this.archivedEventRepository = archivedEventRepository;
+        this.aggregator = aggregator;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(shards);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = properties.getRebalanceChunkSize();
+    }
+
+    public Result rebalance() {
+        List<String> movedTenants = new ArrayList<>();
+        long movedEvents = 0;
+        long movedArchivedEvents = 0;
+        for (String source : shards.shardNames()) {
+            Set<String> tenants = ShardRoutingContext.call(source, () -> {
+                Set<String> ids = new LinkedHashSet<>(eventRepository.findTenantIds());
+                ids.addAll(archivedEventRepository.findTenantIds());
+                return ids;
+            });
+            for (String tenantId : tenants) {
+                String target = shards.shardFor(tenantId);
+                if (target.equals(source)) {
+                    continue;
+                }
+                long events = move(EVENT_TABLE, tenantId, source, target);
+                long archivedEvents = move(ARCHIVE_TABLE, tenantId, source, target);
+                log.info("Moved tenant {} from {} to {}: {} events, {} archived events",
+                        tenantId, source, target, events, archivedEvents);
+                movedTenants.add(tenantId);
+                movedEvents += events;
+                movedArchivedEvents += archivedEvents;
+            }
+        }
+        return new Result(movedTenants, movedEvents, movedArchivedEvents);
+    }
+
+    private long move(String table, String tenantId, String source, String target) {
+        boolean events = table.equals(EVENT_TABLE);
+        String live = events ? " and deleted_at is null" : "";
+        long moved = 0;
+        while (true) {
+            List<Map<String, Object>> rows = ShardRoutingContext.call(source, () -> jdbcTemplate.queryForList(
+                    "select * from " + table + " where tenant_id = :tenantId" + live + " order by id limit :limit",
+                    new MapSqlParameterSource("tenantId", tenantId).addValue("limit", chunkSize)));
+            if (rows.isEmpty()) {
+                return moved;
+            }
+            List<Integer> ids = rows.stream().map(row -> ((Number) row.get("id")).intValue()).collect(toList());
+
+            ShardRoutingContext.run(target, () -> transactionTemplate.execute(status -> {
+                List<Integer> inserted = insertMissing(table, rows, ids);
+                if (events && !inserted.isEmpty()) {
+                    aggregator.created(eventRepository.findAllById(inserted));
+                }
+                return null;
+            }));
+            ShardRoutingContext.run(source, () -> transactionTemplate.execute(status -> {
+                if (events) {
+                    aggregator.removing(ids);
+                    eventRepository.deleteByIds(ids);
+                } else {
+                    jdbcTemplate.update("delete from " + table + " where id in (:ids)",
+                            new MapSqlParameterSource("ids", ids));
+                }
+                return null;
+            }));
+            moved += ids.size();
+        }
+    }
+
+    // 이전 실행이 복사만 하고 멈췄으면 대상 샤드에 이미 있는 행은 건너뛴다.
+    private List<Integer> insertMissing(String table, List<Map<String, Object>> rows, List<Integer> ids) {
+        Set<Integer> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "select id from " + table + " where id in (:ids)", new MapSqlParameterSource("ids", ids),
+                Integer.class));
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + columns.stream().map(column -> ":" + column).collect(joining(", ")) + ")";
+
+        List<Integer> inserted = new ArrayList<>(rows.size());
+        List<MapSqlParameterSource> batch = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            if (!existing.contains(ids.get(i))) {
+                batch.add(new MapSqlParameterSource(rows.get(i)));
+                inserted.add(ids.get(i));
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch.toArray(new MapSqlParameterSource[0]));
+        }
+        return inserted;
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static class Result {
+        private final List<String> tenants;
+        private final long events;
+        private final long archivedEvents;
+    }
+}
@@ -0,0 +1,20 @@
+package io.iamkyu.app;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 가져오기 파일을 레코드 단위로 읽는다. next() 는 읽기 스레드에서 순서대로 불리고,
+ * 비용이 큰 parse() 는 워커 스레드에서 병렬로 불린다.
+ *
+ * @param <R> 아직 해석하지 않은 레코드
+ */
+interface EventRecordReader<R> extends Closeable {
+
+    /**
+     * @return 다음 레코드, 더 없으면 null
+     */
+    R next() throws IOException;
+
+    EventCreateRequest parse(R record) throws IOException;
+}
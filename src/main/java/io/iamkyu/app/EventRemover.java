@@ -0,0 +1,140 @@
+package io.iamkyu.app;
+
+import io.iamkyu.config.DeleteProperties;
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventCounter;
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.EventStatus;
+import io.iamkyu.domain.EventTombstone;
+import io.iamkyu.domain.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 이벤트 삭제. 행을 바로 지우지 않고 deleted_at 으로 삭제 표시(tombstone)만 하고 event_tombstone 에 기록하면
+ * EventPurger 가 나중에 chunkSize 만큼씩 지운다. 삭제 표시한 이벤트는 개수와 집계에서 바로 뺀다.
+ *
+ * 한 건 삭제는 엔티티를 수정하므로 2차 캐시의 그 이벤트만 갱신된다. 상태로 일괄 삭제할 때는 chunkSize 만큼씩
+ * 한 번의 UPDATE 로 표시하며, 이때 하이버네이트가 event 의 2차 캐시를 비운다.
+ */
+@Slf4j
+@Component
+public class EventRemover {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final EventRepository eventRepository;
+    private final EventAggregator aggregator;
+    private final EventCounter eventCounter;
+    private final TransactionTemplate transactionTemplate;
+    private final DeleteProperties properties;
+    private final Counter deletedEvents;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EventRemover(EventRepository eventRepository, EventAggregator aggregator, EventCounter eventCounter,
+                        PlatformTransactionManager transactionManager, DeleteProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.aggregator = aggregator;
+        this.eventCounter = eventCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.deletedEvents = meterRegistry.counter("events.deleted");
+    }
+
+    /**
+     * @return 삭제 표시했으면 true, 없거나 이미 삭제된 이벤트면 false
+     */
+    public boolean remove(Integer id) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                boolean removed = transactionTemplate.execute(status -> removeOne(id));
+                if (removed) {
+                    eventCounter.removed(1);
+                    deletedEvents.increment();
+                }
+                return removed;
+            } catch (ConcurrencyFailureException e) {
+                // 동시에 수정되었으면 다시 읽어 표시한다.
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * status 인 이벤트를 모두 삭제 표시한다.
+     *
+     * @return 삭제 표시한 이벤트 수
+     */
+    public int removeByStatus(EventStatus status) {
+        int total = 0;
+        int failures = 0;
+        while (true) {
+            List<Integer> ids;
+            try {
+                ids = transactionTemplate.execute(s -> removeChunk(status));
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                // 같은 이벤트를 동시에 삭제했으면 그 청크를 다시 읽는다.
+                if (++failures >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                continue;
+            }
+            total += ids.size();
+            if (ids.size() < properties.getChunkSize()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            eventCounter.removed(total);
+            deletedEvents.increment(total);
+            log.info("Deleted {} events in status {}", total, status);
+        }
+        return total;
+    }
+
+    private boolean removeOne(Integer id) {
+        Optional<Event> event = eventRepository.findById(id)
+                .filter(TenantContext::isVisible)
+                .filter(e -> !e.isDeleted());
+        if (!event.isPresent()) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        aggregator.removing(Collections.singletonList(id));
+        event.get().markDeleted(now);
+        eventRepository.saveAndFlush(event.get());
+        entityManager.persist(new EventTombstone(id, now));
+        return true;
+    }
+
+    private List<Integer> removeChunk(EventStatus status) {
+        List<Integer> ids = eventRepository.findIdsByStatus(status, PageRequest.of(0, properties.getChunkSize()));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        aggregator.removing(ids);
+        eventRepository.markDeleted(ids, now);
+        ids.forEach(id -> entityManager.persist(new EventTombstone(id, now)));
+        return ids;
+    }
+}
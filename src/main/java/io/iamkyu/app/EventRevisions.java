@@ -0,0 +1,50 @@
+package io.iamkyu.app;
+
+import io.iamkyu.config.EventUpdateProperties;
+import io.iamkyu.domain.Event;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * 수정 요청을 병합할 기준이 되도록 최근 버전의 이벤트 필드 값을 메모리에 보관한다.
+ * 최근에 수정된 revisionEvents 개의 이벤트에 대해 이벤트마다 revisionsPerEvent 개의 버전만 남기므로
+ * 오래된 버전이나 다른 인스턴스에서 읽은 버전은 찾지 못할 수 있다.
+ */
+@Component
+public class EventRevisions {
+    private final int revisionsPerEvent;
+    private final Map<Integer, NavigableMap<Long, Map<EventField, Object>>> revisions;
+
+    public EventRevisions(EventUpdateProperties properties) {
+        int revisionEvents = properties.getRevisionEvents();
+        this.revisionsPerEvent = properties.getRevisionsPerEvent();
+        this.revisions = new LinkedHashMap<Integer, NavigableMap<Long, Map<EventField, Object>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, NavigableMap<Long, Map<EventField, Object>>> eldest) {
+                return size() > revisionEvents;
+            }
+        };
+    }
+
+    public synchronized void record(Event event) {
+        if (event.getId() == null || event.getVersion() == null) {
+            return;
+        }
+        NavigableMap<Long, Map<EventField, Object>> versions =
+                revisions.computeIfAbsent(event.getId(), id -> new TreeMap<>());
+        versions.putIfAbsent(event.getVersion(), EventField.valuesOf(event));
+        while (versions.size() > revisionsPerEvent) {
+            versions.pollFirstEntry();
+        }
+    }
+
+    public synchronized Optional<Map<EventField, Object>> find(Integer id, long version) {
+        NavigableMap<Long, Map<EventField, Object>> versions = revisions.get(id);
+        return versions == null ? Optional.empty() : Optional.ofNullable(versions.get(version));
+    }
+}
@@ -0,0 +1,74 @@
+package io.iamkyu.app;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 이벤트 목록 조회에서 허용하는 정렬. 각 정렬은 Event 의 인덱스와 컬럼 순서가 같아서 전체 정렬 없이 인덱스 순서로 읽는다.
+ * 요청한 정렬이 허용 목록의 앞부분과 같으면 나머지 컬럼(마지막은 항상 id)을 같은 방향으로 채운다.
+ */
+@Component
+public class EventSortPolicy {
+    public static final List<List<String>> SUPPORTED_SORTS = Collections.unmodifiableList(Arrays.asList(
+            Collections.singletonList("id"),
+            Arrays.asList("name", "id"),
+            Arrays.asList("beginEventDateTime", "id"),
+            Arrays.asList("eventStatus", "beginEventDateTime", "id")
+    ));
+
+    private final boolean downgradeUnsupported;
+
+    public EventSortPolicy(@Value("${app.events.sort.downgrade-unsupported:false}") boolean downgradeUnsupported) {
+        this.downgradeUnsupported = downgradeUnsupported;
+    }
+
+    /**
+     * @return 허용된 정렬로 바꾼 Pageable. 허용되지 않은 정렬이면 downgrade 설정에 따라 id 정렬로 바꾸거나 empty.
+     */
+    public Optional<Pageable> apply(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.isUnsorted()) {
+            return Optional.of(pageable);
+        }
+
+        List<Sort.Order> orders = sort.stream().collect(toList());
+        Sort.Direction direction = orders.get(0).getDirection();
+        Optional<List<String>> supported = supportedSortOf(orders, direction);
+        if (supported.isPresent()) {
+            return Optional.of(withSort(pageable, Sort.by(direction, supported.get().toArray(new String[0]))));
+        }
+        if (downgradeUnsupported) {
+            return Optional.of(withSort(pageable, Sort.by(direction, "id")));
+        }
+        return Optional.empty();
+    }
+
+    private Optional<List<String>> supportedSortOf(List<Sort.Order> orders, Sort.Direction direction) {
+        List<String> properties = new ArrayList<>(orders.size());
+        for (Sort.Order order : orders) {
+            if (order.getDirection() != direction || order.isIgnoreCase()) {
+                return Optional.empty();
+            }
+            properties.add(order.getProperty());
+        }
+        return SUPPORTED_SORTS.stream()
+                .filter(columns -> columns.size() >= properties.size()
+                        && columns.subList(0, properties.size()).equals(properties))
+                .findFirst();
+    }
+
+    private Pageable withSort(Pageable pageable, Sort sort) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+}
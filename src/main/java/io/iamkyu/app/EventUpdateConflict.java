@@ -0,0 +1,30 @@
+package io.iamkyu.app;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 병합할 수 없는 수정 요청. version 은 충돌을 확인한 현재 이벤트 버전이다.
+ * 재시도 횟수를 넘겼거나 이벤트가 사라졌으면 conflicts 가 비어 있다.
+ */
+@Getter
+@AllArgsConstructor
+public class EventUpdateConflict {
+    private final Integer id;
+    private final Long version;
+    private final List<FieldConflict> conflicts;
+
+    /**
+     * base 는 요청이 기준으로 한 버전의 값으로, 그 버전을 더 이상 알 수 없으면 null 이다.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class FieldConflict {
+        private final String field;
+        private final Object base;
+        private final Object requested;
+        private final Object current;
+    }
+}
@@ -0,0 +1,13 @@
+package io.iamkyu.app;
+
+import lombok.Getter;
+
+@Getter
+public class EventUpdateConflictException extends RuntimeException {
+    private final EventUpdateConflict conflict;
+
+    public EventUpdateConflictException(EventUpdateConflict conflict) {
+        super("Conflicting update of event " + conflict.getId());
+        this.conflict = conflict;
+    }
+}
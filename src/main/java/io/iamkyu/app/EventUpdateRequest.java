@@ -36,4 +36,6 @@ public class EventUpdateRequest {
     private int maxPrice;
     @Min(0)
     private int limitOfEnrollment;
+    // 수정하기 전에 읽은 이벤트 버전. 없으면 서버가 읽은 버전을 기준으로 한다.
+    private Long version;
 }
@@ -0,0 +1,146 @@
+package io.iamkyu.app;
+
+import io.iamkyu.config.AdmissionControlProperties;
+import io.iamkyu.config.WarmupProperties;
+import io.iamkyu.domain.Event;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 기동 직후 첫 요청이 느리지 않도록 트래픽을 받기 전에 캐시와 코드 경로를 데운다.
+ * 1. 이전 실행에서 자주 조회된 이벤트(EventAccessTracker)와 허용된 정렬의 첫 페이지를 읽어 L2 캐시를 채운다.
+ * 2. 자기 자신에게 단건, 목록, 잘못된 생성 요청을 보내 직렬화, 검증, 필터 체인을 JIT 컴파일되게 한다.
+ *    생성 요청은 검증에서 거절되므로 이벤트가 저장되지 않고, 단건 조회는 조회 빈도에 기록하지 않는다.
+ *
+ * ApplicationRunner 가 끝나야 ApplicationReadyEvent 가 발행되고, 그 전까지 health 는 OUT_OF_SERVICE 다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EventWarmup implements ApplicationRunner, HealthIndicator {
+    private static final int FIRST_PAGE_SIZE = 20;
+    private static final int REQUESTS_PER_ITERATION = 3;
+    private static final ResponseErrorHandler IGNORE_ERRORS = new ResponseErrorHandler() {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public void handleError(ClientHttpResponse response) {
+        }
+    };
+
+    private final EventFinder eventFinder;
+    private final EventMultiGetter eventMultiGetter;
+    private final EventAccessTracker accessTracker;
+    private final WarmupProperties properties;
+    private final AdmissionControlProperties admissionProperties;
+    private final Environment environment;
+    private volatile boolean done;
+
+    public EventWarmup(EventFinder eventFinder, EventMultiGetter eventMultiGetter, EventAccessTracker accessTracker,
+                       WarmupProperties properties, AdmissionControlProperties admissionProperties,
+                       Environment environment) {
+        this.eventFinder = eventFinder;
+        this.eventMultiGetter = eventMultiGetter;
+        this.accessTracker = accessTracker;
+        this.properties = properties;
+        this.admissionProperties = admissionProperties;
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeBudget().toNanos();
+        try {
+            List<Integer> hottest = accessTracker.hottest(properties.getHotEvents());
+            int preloaded = eventMultiGetter.get(hottest).getEvents().size();
+            EventSortPolicy.SUPPORTED_SORTS.forEach(columns -> eventFinder.findSlice(
+                    PageRequest.of(0, FIRST_PAGE_SIZE, Sort.by(columns.toArray(new String[0])))));
+
+            Integer port = environment.getProperty("local.server.port", Integer.class);
+            int requests;
+            // warm-up 요청이 다음 기동 때 먼저 적재할 이벤트를 정하는 조회 빈도에 섞이지 않게 한다.
+            accessTracker.pause();
+            try {
+                requests = port == null ? 0 : exercise(port, hottest, deadline);
+            } finally {
+                accessTracker.resume();
+            }
+            log.info("Warm-up finished in {}ms: {} events preloaded, {} requests",
+                    (System.nanoTime() - start) / 1_000_000, preloaded, requests);
+        } catch (RuntimeException e) {
+            log.warn("Warm-up failed, serving cold", e);
+        } finally {
+            done = true;
+        }
+    }
+
+    @Override
+    public Health health() {
+        return done ? Health.up().build() : Health.outOfService().withDetail("warmup", "in progress").build();
+    }
+
+    private int exercise(int port, List<Integer> hottest, long deadline) {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setErrorHandler(IGNORE_ERRORS);
+        String baseUrl = "http://localhost:" + port + "/api/events";
+        Integer sampleId = hottest.isEmpty()
+                ? eventFinder.findSlice(PageRequest.of(0, 1)).stream().map(Event::getId).findFirst().orElse(1)
+                : hottest.get(0);
+
+        // 자기 자신에게 보내는 요청도 로컬 주소 하나로 속도 제한을 받으므로, burst 를 다 쓰면 허용 속도에 맞춰 쉰다.
+        long pauseMillis = admissionProperties.isEnabled()
+                ? (long) Math.ceil(REQUESTS_PER_ITERATION * 1000 / admissionProperties.getPermitsPerSecond())
+                : 0;
+        int requests = 0;
+        for (int i = 0; i < properties.getIterations() && System.nanoTime() < deadline; i++) {
+            if (pauseMillis > 0 && requests + REQUESTS_PER_ITERATION > admissionProperties.getBurst()) {
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            HttpHeaders headers = new HttpHeaders();
+            headers.setAccept(Collections.singletonList(MediaTypes.HAL_JSON));
+            Integer id = hottest.isEmpty() ? sampleId : hottest.get(i % hottest.size());
+            List<String> sort = EventSortPolicy.SUPPORTED_SORTS.get(i % EventSortPolicy.SUPPORTED_SORTS.size());
+            try {
+                restTemplate.exchange(baseUrl + "/" + id, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+                restTemplate.exchange(baseUrl + "?page=0&size=" + FIRST_PAGE_SIZE + "&sort=" + String.join(",", sort),
+                        HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+                headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+                restTemplate.exchange(baseUrl, HttpMethod.POST, new HttpEntity<>("{}", headers), byte[].class);
+                requests += REQUESTS_PER_ITERATION;
+            } catch (RestClientException e) {
+                log.debug("Warm-up request failed", e);
+                break;
+            }
+        }
+        return requests;
+    }
+}
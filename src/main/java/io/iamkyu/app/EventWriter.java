@@ -0,0 +1,193 @@
+package io.iamkyu.app;
+
+import io.iamkyu.config.EventUpdateProperties;
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventAggregateDelta;
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 이벤트 생성, 수정. 집계 테이블도 같은 트랜잭션에서 갱신한다. 새 이벤트는 현재 테넌트에 속한다.
+ *
+ * 수정은 잠금 없이 버전으로 충돌을 확인한다. 요청이 기준으로 한 버전 이후에 다른 요청이 이벤트를 바꿨으면
+ * 필드 단위로 3-way 병합해서 요청이 바꾼 필드만 적용하고, 같은 필드(그룹)를 서로 바꿨으면 충돌로 거절한다.
+ * 저장할 때 버전이 맞지 않거나 잠금을 얻지 못하면 다시 읽어 병합하고 maxAttempts 까지 재시도한다.
+ */
+@Component
+public class EventWriter {
+    private static final long MAX_BACKOFF_MILLIS = 50;
+
+    private final EventRepository eventRepository;
+    private final EventAggregator aggregator;
+    private final EventRevisions revisions;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Counter appliedUpdates;
+    private final Counter mergedUpdates;
+    private final Counter conflictingUpdates;
+    private final Counter retries;
+    private final DistributionSummary attempts;
+
+    public EventWriter(EventRepository eventRepository, EventAggregator aggregator, EventRevisions revisions,
+                       PlatformTransactionManager transactionManager, EventUpdateProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.aggregator = aggregator;
+        this.revisions = revisions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = properties.getMaxAttempts();
+        this.appliedUpdates = updates(meterRegistry, "applied");
+        this.mergedUpdates = updates(meterRegistry, "merged");
+        this.conflictingUpdates = updates(meterRegistry, "conflict");
+        this.retries = meterRegistry.counter("events.update.retries");
+        this.attempts = DistributionSummary.builder("events.update.attempts")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public Event create(Event event) {
+        event.setTenantId(TenantContext.current());
+        Event saved = eventRepository.save(event);
+        aggregator.created(Collections.singletonList(saved));
+        return saved;
+    }
+
+    /**
+     * source 는 요청 처리 중에 읽은 이벤트다. 요청에 version 이 없으면 source 의 버전을 기준으로 한다.
+     *
+     * @throws EventUpdateConflictException 병합할 수 없거나 재시도 횟수를 넘긴 경우
+     */
+    public Event update(Event source, EventUpdateRequest updateRequest) {
+        revisions.record(source);
+        Long baseVersion = updateRequest.getVersion() != null ? updateRequest.getVersion() : source.getVersion();
+        Map<EventField, Object> base = baseVersion == null || baseVersion.equals(source.getVersion())
+                ? EventField.valuesOf(source)
+                : revisions.find(source.getId(), baseVersion).orElse(null);
+        Map<EventField, Object> requested = EventField.valuesOf(updateRequest);
+
+        Event current = source;
+        for (int attempt = 1; ; attempt++) {
+            Map<EventField, Object> changes = new EnumMap<>(EventField.class);
+            List<EventUpdateConflict.FieldConflict> conflicts = merge(base, requested, current, changes);
+            if (!conflicts.isEmpty()) {
+                conflictingUpdates.increment();
+                throw conflict(current, conflicts);
+            }
+            if (changes.isEmpty()) {
+                return current;
+            }
+
+            boolean merged = attempt > 1 || !Objects.equals(baseVersion, current.getVersion());
+            try {
+                Event saved = apply(current, changes);
+                revisions.record(saved);
+                attempts.record(attempt);
+                (merged ? mergedUpdates : appliedUpdates).increment();
+                return saved;
+            } catch (ConcurrencyFailureException e) {
+                retries.increment();
+                if (attempt >= maxAttempts) {
+                    conflictingUpdates.increment();
+                    throw conflict(current, Collections.emptyList());
+                }
+                backoff(attempt);
+                Optional<Event> reloaded = reload(source.getId());
+                if (!reloaded.isPresent()) {
+                    conflictingUpdates.increment();
+                    throw new EventUpdateConflictException(
+                            new EventUpdateConflict(source.getId(), null, Collections.emptyList()));
+                }
+                current = reloaded.get();
+                revisions.record(current);
+            }
+        }
+    }
+
+    /**
+     * 요청이 바꾼 필드를 changes 에 담고, 현재 이벤트도 같은 그룹을 바꿔 병합할 수 없는 필드를 돌려준다.
+     * 기준 버전을 모르면(base 가 null) 현재 값과 다른 필드는 모두 충돌이다.
+     */
+    private static List<EventUpdateConflict.FieldConflict> merge(Map<EventField, Object> base,
+                                                                 Map<EventField, Object> requested,
+                                                                 Event current,
+                                                                 Map<EventField, Object> changes) {
+        Map<EventField, Object> currentValues = EventField.valuesOf(current);
+        Set<String> changedByOthers = new HashSet<>();
+        for (EventField field : EventField.values()) {
+            if (base == null || !Objects.equals(base.get(field), currentValues.get(field))) {
+                changedByOthers.add(field.group());
+            }
+        }
+
+        List<EventUpdateConflict.FieldConflict> conflicts = new ArrayList<>();
+        for (EventField field : EventField.values()) {
+            Object ours = requested.get(field);
+            Object theirs = currentValues.get(field);
+            Object original = base == null ? null : base.get(field);
+            if (Objects.equals(ours, theirs) || (base != null && Objects.equals(ours, original))) {
+                continue;
+            }
+            if (changedByOthers.contains(field.group())) {
+                conflicts.add(new EventUpdateConflict.FieldConflict(field.property(), original, ours, theirs));
+            } else {
+                changes.put(field, ours);
+            }
+        }
+        return conflicts;
+    }
+
+    private Event apply(Event current, Map<EventField, Object> changes) {
+        return transactionTemplate.execute(status -> {
+            EventAggregateDelta before = EventAggregateDelta.of(current);
+            changes.forEach((field, value) -> field.set(current, value));
+            Event saved = eventRepository.saveAndFlush(current);
+            aggregator.updated(before, saved);
+            return saved;
+        });
+    }
+
+    // 읽기 전용 트랜잭션은 레플리카로 갈 수 있으므로 쓰기 트랜잭션에서 최신 버전을 읽는다.
+    private Optional<Event> reload(Integer id) {
+        return transactionTemplate.execute(status -> eventRepository.findById(id))
+                .filter(TenantContext::isVisible)
+                .filter(event -> !event.isDeleted());
+    }
+
+    private static void backoff(int attempt) {
+        long maxMillis = Math.min(MAX_BACKOFF_MILLIS, 1L << attempt);
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(maxMillis + 1)));
+    }
+
+    private static EventUpdateConflictException conflict(Event current,
+                                                         List<EventUpdateConflict.FieldConflict> conflicts) {
+        return new EventUpdateConflictException(
+                new EventUpdateConflict(current.getId(), current.getVersion(), conflicts));
+    }
+
+    private static Counter updates(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("events.updates")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
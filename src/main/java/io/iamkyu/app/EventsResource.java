@@ -0,0 +1,21 @@
+package io.iamkyu.app;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Resources;
+
+import java.util.List;
+
+public class EventsResource extends Resources<EventResource> {
+    private final List<Integer> missingIds;
+
+    public EventsResource(List<EventResource> content, List<Integer> missingIds, Link... links) {
+        super(content, links);
+        this.missingIds = missingIds;
+    }
+
+    @JsonInclude(JsonInclude.Include.ALWAYS)
+    public List<Integer> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,164 @@
+package io.iamkyu.app;
+
+import io.iamkyu.config.IdempotencyProperties;
+import io.iamkyu.config.ShardRoutingContext;
+import io.iamkyu.config.ShardRoutingDataSource;
+import io.iamkyu.domain.IdempotencyRecord;
+import io.iamkyu.domain.IdempotencyRecordRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Idempotency-Key 로 처리한 응답을 보관한다.
+ * 최근 응답은 크기가 제한된 LRU 메모리 저장소에서 찾고, 없으면 idempotency_record 테이블에서 찾는다.
+ * 샤딩을 켜면 기록은 요청한 테넌트의 샤드에 있으므로 만료된 기록은 모든 샤드에서 지운다.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyProperties properties;
+    private final ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource;
+    private final Map<String, StoredResponse> recent;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository, PlatformTransactionManager transactionManager,
+                            IdempotencyProperties properties,
+                            ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.shardRoutingDataSource = shardRoutingDataSource;
+        this.recent = new LinkedHashMap<String, StoredResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+    }
+
+    /**
+     * @return 처리가 끝난 응답. 처리 중이거나 없으면 empty
+     */
+    public Optional<StoredResponse> find(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        StoredResponse response;
+        synchronized (recent) {
+            response = recent.get(key);
+            if (response != null && response.getExpiresAt().isBefore(now)) {
+                recent.remove(key);
+                response = null;
+            }
+        }
+        if (response != null) {
+            return Optional.of(response);
+        }
+
+        return repository.findById(key)
+                .filter(record -> record.isCompleted() && !record.isExpired(now))
+                .map(this::toResponse)
+                .map(found -> remember(key, found));
+    }
+
+    /**
+     * 키를 처리 중으로 기록한다. 다른 요청(다른 인스턴스 포함)이 먼저 기록했으면 false 를 반환한다.
+     * 만료된 기록은 지우고 다시 넣지 않고 조건부 update 로 가져가므로, 동시에 가져가려는 요청 중 하나만 성공한다.
+     */
+    public boolean begin(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(properties.getPendingTimeout());
+        try {
+            return transactionTemplate.execute(status -> {
+                if (repository.existsById(key)) {
+                    return repository.takeOverExpired(key, fingerprint, expiresAt, now) == 1;
+                }
+                repository.saveAndFlush(new IdempotencyRecord(key, fingerprint, expiresAt));
+                return true;
+            });
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            return false;
+        }
+    }
+
+    public StoredResponse complete(String key, String fingerprint, int status, String contentType,
+                                   String location, byte[] body) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(properties.getTtl());
+        transactionTemplate.execute(s -> {
+            IdempotencyRecord record = repository.findById(key)
+                    .orElseGet(() -> new IdempotencyRecord(key, fingerprint, expiresAt));
+            record.complete(status, contentType, location, body, expiresAt);
+            return repository.save(record);
+        });
+        return remember(key, new StoredResponse(fingerprint, status, contentType, location, body, expiresAt));
+    }
+
+    /**
+     * 처리에 실패한 키의 처리 중 기록을 지워 다시 시도할 수 있게 한다.
+     */
+    public void abandon(String key) {
+        transactionTemplate.execute(status -> {
+            repository.findById(key)
+                    .filter(record -> !record.isCompleted())
+                    .ifPresent(repository::delete);
+            return null;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-millis:600000}")
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        ShardRoutingDataSource shards = shardRoutingDataSource.getIfAvailable();
+        int purged = 0;
+        if (shards == null) {
+            purged = purgeExpired(now);
+        } else {
+            for (String shard : shards.shardNames()) {
+                purged += ShardRoutingContext.call(shard, () -> purgeExpired(now));
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+        return purged;
+    }
+
+    private int purgeExpired(LocalDateTime now) {
+        return transactionTemplate.execute(status -> repository.deleteExpired(now));
+    }
+
+    private StoredResponse remember(String key, StoredResponse response) {
+        synchronized (recent) {
+            recent.put(key, response);
+        }
+        return response;
+    }
+
+    private StoredResponse toResponse(IdempotencyRecord record) {
+        return new StoredResponse(record.getFingerprint(), record.getStatus(), record.getContentType(),
+                record.getLocation(), record.getBody(), record.getExpiresAt());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StoredResponse {
+        private final String fingerprint;
+        private final int status;
+        private final String contentType;
+        private final String location;
+        private final byte[] body;
+        private final LocalDateTime expiresAt;
+    }
+}
@@ -0,0 +1,50 @@
+package io.iamkyu.app;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 이벤트 객체의 JSON 배열, 또는 한 줄에 객체 하나씩인 NDJSON 을 스트리밍으로 읽는다.
+ * 읽기 스레드는 객체 하나를 트리로만 읽고, 요청 객체로의 변환은 워커에서 한다.
+ */
+class JsonEventRecordReader implements EventRecordReader<JsonNode> {
+    private final JsonParser parser;
+    private final ObjectMapper objectMapper;
+    private final boolean array;
+
+    JsonEventRecordReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(in);
+        this.objectMapper = objectMapper;
+        this.array = parser.nextToken() == JsonToken.START_ARRAY;
+    }
+
+    @Override
+    public JsonNode next() throws IOException {
+        JsonToken token = array ? parser.nextToken() : currentOrNext();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        JsonNode node = parser.readValueAsTree();
+        parser.clearCurrentToken();
+        return node;
+    }
+
+    @Override
+    public EventCreateRequest parse(JsonNode record) throws IOException {
+        return objectMapper.treeToValue(record, EventCreateRequest.class);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private JsonToken currentOrNext() throws IOException {
+        return parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+    }
+}
@@ -0,0 +1,16 @@
+package io.iamkyu.app;
+
+import io.iamkyu.domain.Event;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+/**
+ * 링크 없는 표현으로 응답할 이벤트 목록. LeanEventMessageConverter 는 Slice 대신 이 타입만 목록으로 쓰므로
+ * 다른 내용을 담은 Slice 를 Event 로 변환하려다 실패하는 일이 없다.
+ */
+@Getter
+@AllArgsConstructor
+public class LeanEventSlice {
+    private final Slice<Event> slice;
+}
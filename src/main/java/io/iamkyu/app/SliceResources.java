@@ -0,0 +1,29 @@
+package io.iamkyu.app;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.hateoas.Resources;
+
+/**
+ * 전체 개수 없이 페이지를 표현한다. page 에는 size, number 와 다음 페이지 존재 여부만 담긴다.
+ */
+public class SliceResources<T> extends Resources<T> {
+    private final SliceMetadata page;
+
+    public SliceResources(Iterable<T> content, SliceMetadata page) {
+        super(content);
+        this.page = page;
+    }
+
+    public SliceMetadata getPage() {
+        return page;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SliceMetadata {
+        private final int size;
+        private final int number;
+        private final boolean hasNext;
+    }
+}
@@ -0,0 +1,68 @@
+package io.iamkyu.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 요청 하나를 처리하는 동안 필요한 키를 모았다가 한 번에 읽는다(DataLoader 방식).
+ * load 는 값을 받을 곳만 기억하고, dispatch 가 모은 키를 중복 없이 batchSize 개씩 batchFunction 에 넘긴 뒤 값을 전달한다.
+ * 이미 읽은 키는 다시 읽지 않는다. 요청마다 새로 만들어 쓰며 스레드 안전하지 않다.
+ */
+public class BatchLoader<K, V> {
+    private final Function<Collection<K>, Map<K, V>> batchFunction;
+    private final int batchSize;
+    private final Map<K, List<Consumer<V>>> pending = new LinkedHashMap<>();
+    private final Map<K, V> loaded = new HashMap<>();
+    private int batches;
+
+    /**
+     * @param batchFunction 키에 해당하는 값을 돌려준다. 없는 키는 빼도 되며 그 키의 값은 null 로 전달한다.
+     */
+    public BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.batchFunction = batchFunction;
+        this.batchSize = batchSize;
+    }
+
+    public void load(K key, Consumer<V> callback) {
+        if (loaded.containsKey(key)) {
+            callback.accept(loaded.get(key));
+            return;
+        }
+        pending.computeIfAbsent(key, k -> new ArrayList<>()).add(callback);
+    }
+
+    /**
+     * 모아 둔 키를 읽고 값을 전달한다. 전달받은 쪽에서 다시 load 한 키도 이어서 읽는다.
+     */
+    public void dispatch() {
+        while (!pending.isEmpty()) {
+            Map<K, List<Consumer<V>>> current = new LinkedHashMap<>(pending);
+            pending.clear();
+
+            List<K> keys = new ArrayList<>(current.keySet());
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<K> chunk = keys.subList(from, Math.min(from + batchSize, keys.size()));
+                Map<K, V> values = batchFunction.apply(chunk);
+                batches++;
+                chunk.forEach(key -> loaded.put(key, values.get(key)));
+            }
+            current.forEach((key, callbacks) -> callbacks.forEach(callback -> callback.accept(loaded.get(key))));
+        }
+    }
+
+    /**
+     * @return 지금까지 batchFunction 을 호출한 횟수
+     */
+    public int batches() {
+        return batches;
+    }
+}
@@ -0,0 +1,91 @@
+package io.iamkyu.common;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 고정된 메모리로 키별 빈도를 근사하는 Count-Min sketch. 추정값은 실제 빈도보다 작지 않다.
+ * 해시 시드가 고정되어 있어 저장했다가 다시 읽어도 같은 키는 같은 칸에 대응한다.
+ */
+public class CountMinSketch {
+    private static final int FORMAT_VERSION = 1;
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("depth and width must be positive: " + depth + ", " + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    public void add(long item) {
+        for (int row = 0; row < depth; row++) {
+            counters.incrementAndGet(index(row, item));
+        }
+    }
+
+    public long estimate(long item) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(index(row, item)));
+        }
+        return min;
+    }
+
+    /**
+     * 모든 칸을 반으로 줄여 오래된 접근의 비중을 낮춘다.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.updateAndGet(i, count -> count >>> 1);
+        }
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(depth);
+        out.writeInt(width);
+        for (int i = 0; i < counters.length(); i++) {
+            out.writeLong(counters.get(i));
+        }
+    }
+
+    public static CountMinSketch readFrom(DataInput in) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported sketch format: " + version);
+        }
+        CountMinSketch sketch = new CountMinSketch(in.readInt(), in.readInt());
+        for (int i = 0; i < sketch.counters.length(); i++) {
+            sketch.counters.set(i, in.readLong());
+        }
+        return sketch;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    private int index(int row, long item) {
+        long hash = mix(item + (row + 1) * 0x9E3779B97F4A7C15L);
+        return row * width + (int) ((hash >>> 1) % width);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
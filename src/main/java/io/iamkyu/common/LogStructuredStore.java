@@ -0,0 +1,327 @@
+package io.iamkyu.common;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 맵 파일에 쓰는 로그 구조 키-값 저장소(Bitcask 방식). 쓰기는 파일 끝에 레코드를 덧붙이고,
+ * 메모리의 해시 인덱스가 키마다 마지막 레코드의 위치를 가리키므로 읽기는 잠금 없이 매핑된 메모리를 한 번 읽는다.
+ *
+ * 파일은 regionSize 단위로 매핑하며 레코드는 영역 경계에 걸치지 않는다. 열 때 로그를 처음부터 읽어 인덱스를
+ * 다시 만들고, 체크섬이 맞지 않는 꼬리(쓰다가 멈춘 레코드)부터는 버린다. 덮어쓰거나 지운 레코드가 차지한 공간은
+ * compact 가 살아 있는 레코드만 새 파일에 옮겨 회수한다.
+ *
+ * 레코드: [전체 길이 int][CRC32 int][키 long][값 길이 int, 삭제면 -1][값]
+ * 길이 0 은 로그의 끝, -1 은 영역의 나머지가 비어 있음을 뜻한다.
+ */
+public class LogStructuredStore implements Closeable {
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+    private static final int END = 0;
+    private static final int PADDING = -1;
+    private static final int DELETED = -1;
+
+    private final Path path;
+    private final int regionSize;
+    private final boolean syncWrites;
+    private final Object writeLock = new Object();
+    // 로그와 인덱스는 compact 에서 함께 바뀐다. 읽기는 한 번 읽은 State 만 사용한다.
+    private volatile State state;
+    private long liveBytes;
+
+    /**
+     * @param syncWrites true 면 쓸 때마다 디스크에 내린다. false 면 운영체제가 내리므로 전원이 꺼지면 마지막 쓰기를 잃을 수 있다.
+     */
+    public LogStructuredStore(Path path, int regionSize, boolean syncWrites) throws IOException {
+        if (regionSize < HEADER_SIZE * 2) {
+            throw new IllegalArgumentException("regionSize is too small: " + regionSize);
+        }
+        this.path = path;
+        this.regionSize = regionSize;
+        this.syncWrites = syncWrites;
+        this.state = recover(new Log(path, regionSize));
+    }
+
+    /**
+     * @return 키가 없으면 null. reader 에 넘기는 값은 매핑된 파일을 직접 가리키는 읽기 전용 버퍼이며 호출 중에만 유효하다.
+     */
+    public <T> T get(long key, Function<ByteBuffer, T> reader) {
+        State current = state;
+        Long offset = current.index.get(key);
+        return offset == null ? null : reader.apply(current.log.value(offset));
+    }
+
+    public boolean contains(long key) {
+        return state.index.containsKey(key);
+    }
+
+    public int size() {
+        return state.index.size();
+    }
+
+    public void put(long key, byte[] value) {
+        append(key, value);
+    }
+
+    /**
+     * @return 키가 있었으면 true
+     */
+    public boolean delete(long key) {
+        if (!contains(key)) {
+            return false;
+        }
+        return append(key, null);
+    }
+
+    /**
+     * 살아 있는 모든 키와 값을 순서 없이 넘긴다. 값 버퍼는 호출 중에만 유효하다.
+     */
+    public void forEach(BiConsumer<Long, ByteBuffer> consumer) {
+        State current = state;
+        current.index.forEach((key, offset) -> consumer.accept(key, current.log.value(offset)));
+    }
+
+    /**
+     * @return 로그에서 덮어쓰거나 지운 레코드와 빈 공간이 차지하는 비율
+     */
+    public double garbageRatio() {
+        synchronized (writeLock) {
+            long total = state.log.position;
+            return total == 0 ? 0 : 1 - (double) liveBytes / total;
+        }
+    }
+
+    /**
+     * 살아 있는 레코드만 새 파일에 옮겨 적고 원래 파일과 바꾼다. 그동안 쓰기는 기다리고 읽기는 이전 파일을 읽는다.
+     */
+    public void compact() throws IOException {
+        synchronized (writeLock) {
+            State current = state;
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            Files.deleteIfExists(compacted);
+            Log target = new Log(compacted, regionSize);
+            Map<Long, Long> index = new ConcurrentHashMap<>(Math.max(16, current.index.size() * 4 / 3 + 1));
+            long live = 0;
+            for (Map.Entry<Long, Long> entry : current.index.entrySet()) {
+                ByteBuffer record = current.log.record(entry.getValue());
+                live += record.remaining();
+                index.put(entry.getKey(), target.append(record));
+            }
+            target.force();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // 파일을 옮겨도 열린 채널과 매핑은 같은 파일을 가리킨다. 이전 매핑은 읽던 쪽이 끝나면 GC 가 해제한다.
+            state = new State(target, index);
+            liveBytes = live;
+            current.log.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            state.log.force();
+            state.log.close();
+        }
+    }
+
+    private boolean append(long key, byte[] value) {
+        int length = HEADER_SIZE + (value == null ? 0 : value.length);
+        if (length > regionSize) {
+            throw new IllegalArgumentException("Record is too large: " + length + " bytes");
+        }
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putInt(length).putInt(0).putLong(key).putInt(value == null ? DELETED : value.length);
+        if (value != null) {
+            record.put(value);
+        }
+        record.putInt(4, checksum(record, 0, length));
+        record.flip();
+
+        synchronized (writeLock) {
+            State current = state;
+            long offset = current.log.append(record);
+            Long previous = value == null ? current.index.remove(key) : current.index.put(key, offset);
+            if (value != null) {
+                liveBytes += length;
+            }
+            if (previous != null) {
+                liveBytes -= current.log.lengthAt(previous);
+            }
+            if (syncWrites) {
+                current.log.force(offset);
+            }
+            return previous != null;
+        }
+    }
+
+    // 로그를 처음부터 읽어 키마다 마지막 레코드의 위치를 모은다. 깨진 레코드를 만나면 그 앞까지만 쓴다.
+    private State recover(Log log) {
+        Map<Long, Long> index = new ConcurrentHashMap<>();
+        long live = 0;
+        long end = 0;
+        scan:
+        for (int region = 0; region < log.regions.length; region++) {
+            ByteBuffer buffer = log.regions[region];
+            long regionStart = (long) region * regionSize;
+            int position = 0;
+            while (position + 4 <= regionSize) {
+                int length = buffer.getInt(position);
+                if (length == PADDING) {
+                    break;
+                }
+                if (length == END) {
+                    end = regionStart + position;
+                    break scan;
+                }
+                if (length < HEADER_SIZE || position + length > regionSize
+                        || buffer.getInt(position + 4) != checksum(buffer, position, length)) {
+                    end = regionStart + position;
+                    clear(buffer, position);
+                    break scan;
+                }
+                long key = buffer.getLong(position + 8);
+                boolean deleted = buffer.getInt(position + 16) == DELETED;
+                Long previous = deleted ? index.remove(key) : index.put(key, regionStart + position);
+                if (!deleted) {
+                    live += length;
+                }
+                if (previous != null) {
+                    live -= log.lengthAt(previous);
+                }
+                position += length;
+                end = regionStart + position;
+            }
+            end = Math.max(end, regionStart + regionSize);
+        }
+        log.position = end;
+        liveBytes = live;
+        return new State(log, index);
+    }
+
+    // 키, 값 길이, 값의 체크섬
+    private static int checksum(ByteBuffer buffer, int position, int length) {
+        ByteBuffer content = buffer.duplicate();
+        content.limit(position + length).position(position + 8);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return (int) crc.getValue();
+    }
+
+    // 깨진 꼬리를 지워 두어야 이후에 덧붙인 레코드 뒤에서 다시 읽히지 않는다.
+    private static void clear(ByteBuffer buffer, int from) {
+        for (int position = from; position < buffer.capacity(); position++) {
+            buffer.put(position, (byte) 0);
+        }
+    }
+
+    private static final class State {
+        private final Log log;
+        private final Map<Long, Long> index;
+
+        State(Log log, Map<Long, Long> index) {
+            this.log = log;
+            this.index = index;
+        }
+    }
+
+    private static final class Log implements Closeable {
+        private final FileChannel channel;
+        private final int regionSize;
+        // 읽기는 잠금 없이 하므로 영역을 늘릴 때는 배열을 새로 만들어 바꾼다.
+        private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+        private long position;
+
+        Log(Path path, int regionSize) throws IOException {
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.regionSize = regionSize;
+            grow((int) ((channel.size() + regionSize - 1) / regionSize));
+        }
+
+        long append(ByteBuffer record) {
+            int length = record.remaining();
+            int offsetInRegion = (int) (position % regionSize);
+            if (offsetInRegion + length > regionSize) {
+                if (offsetInRegion + 4 <= regionSize) {
+                    region(position).putInt(offsetInRegion, PADDING);
+                }
+                position += regionSize - offsetInRegion;
+                offsetInRegion = 0;
+            }
+            long offset = position;
+            ByteBuffer target = region(offset).duplicate();
+            target.position(offsetInRegion);
+            target.put(record.duplicate());
+            position += length;
+            return offset;
+        }
+
+        ByteBuffer record(long offset) {
+            ByteBuffer buffer = region(offset).duplicate();
+            int start = (int) (offset % regionSize);
+            buffer.limit(start + buffer.getInt(start)).position(start);
+            return buffer.slice();
+        }
+
+        ByteBuffer value(long offset) {
+            ByteBuffer buffer = region(offset).duplicate();
+            int start = (int) (offset % regionSize);
+            int valueStart = start + HEADER_SIZE;
+            buffer.limit(valueStart + buffer.getInt(start + 16)).position(valueStart);
+            return buffer.slice().asReadOnlyBuffer();
+        }
+
+        int lengthAt(long offset) {
+            return region(offset).getInt((int) (offset % regionSize));
+        }
+
+        void force(long offset) {
+            region(offset).force();
+        }
+
+        void force() {
+            for (MappedByteBuffer region : regions) {
+                region.force();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private MappedByteBuffer region(long offset) {
+            int index = (int) (offset / regionSize);
+            MappedByteBuffer[] current = regions;
+            if (index < current.length) {
+                return current[index];
+            }
+            try {
+                grow(index + 1);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to extend the store", e);
+            }
+            return regions[index];
+        }
+
+        private void grow(int count) throws IOException {
+            MappedByteBuffer[] grown = Arrays.copyOf(regions, count);
+            for (int i = regions.length; i < count; i++) {
+                grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * regionSize, regionSize);
+            }
+            regions = grown;
+        }
+    }
+}
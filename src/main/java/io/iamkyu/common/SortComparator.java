@@ -0,0 +1,44 @@
+package io.iamkyu.common;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+
+/**
+ * Spring Data 의 Sort 를 메모리 정렬용 Comparator 로 바꾼다. 여러 곳에서 정렬된 페이지를 합칠 때 사용한다.
+ * 합치는 페이지는 데이터베이스가 정렬한 것이므로 H2 와 같은 순서로 비교한다.
+ * enum 은 이름으로 저장하므로(@Enumerated(STRING)) 이름 순이고, null 은 가장 작은 값(오름차순에서 맨 앞)이다.
+ */
+public final class SortComparator {
+
+    private SortComparator() {
+    }
+
+    public static <T> Comparator<T> of(Sort sort, String defaultProperty) {
+        Sort effective = sort.isSorted() ? sort : Sort.by(defaultProperty);
+        Comparator<T> comparator = null;
+        for (Sort.Order order : effective) {
+            Comparator<T> next = Comparator.comparing(
+                    (T item) -> valueOf(item, order),
+                    Comparator.nullsFirst(Comparator.<Comparable<Object>>naturalOrder()));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> valueOf(Object item, Sort.Order order) {
+        Object value = new BeanWrapperImpl(item).getPropertyValue(order.getProperty());
+        if (value instanceof Enum) {
+            value = ((Enum<?>) value).name();
+        }
+        if (value instanceof String && order.isIgnoreCase()) {
+            value = ((String) value).toLowerCase();
+        }
+        return (Comparable<Object>) value;
+    }
+}
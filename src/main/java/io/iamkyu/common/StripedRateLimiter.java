@@ -0,0 +1,58 @@
+package io.iamkyu.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * 클라이언트별 토큰 버킷. 클라이언트 키를 고정된 수의 버킷(stripe)에 나누어 담아 메모리 사용량을 제한한다.
+ * 각 버킷은 GCRA(Generic Cell Rate Algorithm) 로 구현되어 다음 허용 시각 하나만 CAS 로 갱신한다.
+ */
+public class StripedRateLimiter {
+    private final AtomicLongArray theoreticalArrivals;
+    private final int mask;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier clock;
+    private final long origin;
+
+    public StripedRateLimiter(int stripes, double permitsPerSecond, int burst) {
+        this(stripes, permitsPerSecond, burst, System::nanoTime);
+    }
+
+    StripedRateLimiter(int stripes, double permitsPerSecond, int burst, LongSupplier clock) {
+        if (stripes <= 0 || permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("stripes, permitsPerSecond and burst must be positive.");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.theoreticalArrivals = new AtomicLongArray(Math.max(size, 1));
+        this.mask = theoreticalArrivals.length() - 1;
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+    }
+
+    /**
+     * @return 허용되면 0, 거절되면 다시 시도할 수 있을 때까지 남은 나노초
+     */
+    public long tryAcquire(Object client) {
+        int stripe = spread(client.hashCode()) & mask;
+        long now = clock.getAsLong() - origin;
+        while (true) {
+            long arrival = theoreticalArrivals.get(stripe);
+            long next = Math.max(arrival, now) + emissionIntervalNanos;
+            long wait = next - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrivals.compareAndSet(stripe, arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,22 @@
+package io.iamkyu.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(AdminProperties.class)
+public class AdminConfig {
+    public static final String ADMIN_PATH = "/api/admin";
+
+    @Bean
+    public FilterRegistrationBean<AdminTokenFilter> adminTokenFilter(AdminProperties properties) {
+        FilterRegistrationBean<AdminTokenFilter> registration =
+                new FilterRegistrationBean<>(new AdminTokenFilter(properties));
+        registration.addUrlPatterns(ADMIN_PATH + "/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 12);
+        return registration;
+    }
+}
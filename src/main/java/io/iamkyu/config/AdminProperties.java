@@ -0,0 +1,12 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("app.admin")
+public class AdminProperties {
+    /** /api/admin 요청이 헤더로 보내야 하는 토큰. 설정하지 않으면 관리자 API 를 쓸 수 없다. */
+    private String token;
+    private String header = "X-Admin-Token";
+}
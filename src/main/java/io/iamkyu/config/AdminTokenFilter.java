@@ -0,0 +1,39 @@
+package io.iamkyu.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 관리자 API 는 설정한 토큰을 헤더로 보낸 요청만 처리한다. 토큰을 설정하지 않았으면 모두 거절한다.
+ */
+public class AdminTokenFilter extends OncePerRequestFilter {
+    private final String header;
+    private final byte[] token;
+
+    public AdminTokenFilter(AdminProperties properties) {
+        this.header = properties.getHeader();
+        String token = properties.getToken();
+        this.token = token == null || token.isEmpty() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String given = request.getHeader(header);
+        // 길이 외에는 비교 시간으로 토큰을 알아낼 수 없도록 MessageDigest.isEqual 로 비교한다.
+        if (token == null || given == null
+                || !MessageDigest.isEqual(token, given.getBytes(StandardCharsets.UTF_8))) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
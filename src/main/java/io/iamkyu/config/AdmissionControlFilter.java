@@ -0,0 +1,112 @@
+package io.iamkyu.config;
+
+import io.iamkyu.common.AdaptiveConcurrencyLimiter;
+import io.iamkyu.common.StripedRateLimiter;
+import io.iamkyu.controller.EventQueryController;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final long SHED_RETRY_AFTER_SECONDS = 1;
+
+    private final String clientIdHeader;
+    private final boolean trustClientIdHeader;
+    private final StripedRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final Counter rateLimitedReads;
+    private final Counter rateLimitedWrites;
+    private final Counter shedReads;
+    private final Counter shedWrites;
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        long targetLatencyNanos = properties.getTargetLatency().toNanos();
+        this.clientIdHeader = properties.getClientIdHeader();
+        this.trustClientIdHeader = properties.isTrustClientIdHeader();
+        this.rateLimiter = new StripedRateLimiter(
+                properties.getStripes(), properties.getPermitsPerSecond(), properties.getBurst());
+        this.readLimiter = new AdaptiveConcurrencyLimiter(
+                properties.getMinConcurrency(), properties.getReadConcurrency(), targetLatencyNanos);
+        this.writeLimiter = new AdaptiveConcurrencyLimiter(
+                properties.getMinConcurrency(), properties.getWriteConcurrency(), targetLatencyNanos);
+
+        this.rateLimitedReads = rejections(meterRegistry, "rate-limit", "read");
+        this.rateLimitedWrites = rejections(meterRegistry, "rate-limit", "write");
+        this.shedReads = rejections(meterRegistry, "load-shed", "read");
+        this.shedWrites = rejections(meterRegistry, "load-shed", "write");
+        Gauge.builder("api.admission.concurrency.limit", readLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("kind", "read")
+                .register(meterRegistry);
+        Gauge.builder("api.admission.concurrency.limit", writeLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("kind", "write")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean read = isRead(request);
+
+        long waitNanos = rateLimiter.tryAcquire(clientId(request));
+        if (waitNanos > 0) {
+            (read ? rateLimitedReads : rateLimitedWrites).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, toRetryAfterSeconds(waitNanos));
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            (read ? shedReads : shedWrites).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, SHED_RETRY_AFTER_SECONDS);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    // 클라이언트가 정하는 헤더를 믿으면 요청마다 다른 값을 보내 제한을 피할 수 있으므로 믿도록 설정한 경우에만 쓴다.
+    private String clientId(HttpServletRequest request) {
+        String clientId = trustClientIdHeader ? request.getHeader(clientIdHeader) : null;
+        return clientId != null ? "client:" + clientId : ClientIdentity.of(request);
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+                || request.getRequestURI().equals(request.getContextPath() + EventQueryController.PATH);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    }
+
+    private long toRetryAfterSeconds(long waitNanos) {
+        long nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+        return (waitNanos + nanosPerSecond - 1) / nanosPerSecond;
+    }
+
+    private Counter rejections(MeterRegistry meterRegistry, String reason, String kind) {
+        return Counter.builder("api.admission.rejections")
+                .tag("reason", reason)
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
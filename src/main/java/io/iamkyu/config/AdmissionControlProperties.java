@@ -0,0 +1,25 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("app.admission")
+public class AdmissionControlProperties {
+    private boolean enabled = true;
+    private String clientIdHeader = "X-Client-Id";
+    /**
+     * true 면 clientIdHeader 값으로 클라이언트를 구분한다. 앞단 게이트웨이가 인증한 뒤 이 헤더를 덮어쓸 때만 켠다.
+     * false 면 인증된 사용자, 없으면 원격 주소로 구분한다.
+     */
+    private boolean trustClientIdHeader = false;
+    private double permitsPerSecond = 100;
+    private int burst = 200;
+    private int stripes = 4096;
+    private int minConcurrency = 4;
+    private int readConcurrency = 64;
+    private int writeConcurrency = 16;
+    private Duration targetLatency = Duration.ofMillis(500);
+}
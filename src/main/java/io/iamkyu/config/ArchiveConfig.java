@@ -0,0 +1,32 @@
+package io.iamkyu.config;
+
+import io.iamkyu.app.EventArchiver;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfig {
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.archive", name = "enabled", matchIfMissing = true)
+    static class ArchiveSchedulingConfig implements SchedulingConfigurer {
+        private final EventArchiver archiver;
+        private final ArchiveProperties properties;
+
+        ArchiveSchedulingConfig(EventArchiver archiver, ArchiveProperties properties) {
+            this.archiver = archiver;
+            this.properties = properties;
+        }
+
+        @Override
+        public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+            long interval = properties.getInterval().toMillis();
+            taskRegistrar.addFixedDelayTask(new IntervalTask(archiver::archive, interval, interval));
+        }
+    }
+}
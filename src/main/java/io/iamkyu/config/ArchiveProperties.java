@@ -0,0 +1,15 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("app.archive")
+public class ArchiveProperties {
+    private boolean enabled = true;
+    private Duration retention = Duration.ofDays(365);
+    private int chunkSize = 500;
+    private Duration interval = Duration.ofHours(1);
+}
@@ -0,0 +1,19 @@
+package io.iamkyu.config;
+
+import javax.servlet.http.HttpServletRequest;
+import java.security.Principal;
+
+/**
+ * 요청한 클라이언트. 인증된 사용자가 있으면 그 이름, 없으면 원격 주소이다.
+ * 클라이언트가 마음대로 정하는 헤더는 쓰지 않는다. 프록시 뒤에서는 server.use-forward-headers 로 원격 주소를 복원한다.
+ */
+final class ClientIdentity {
+
+    private ClientIdentity() {
+    }
+
+    static String of(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "addr:" + request.getRemoteAddr();
+    }
+}
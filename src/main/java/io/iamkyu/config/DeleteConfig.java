@@ -0,0 +1,32 @@
+package io.iamkyu.config;
+
+import io.iamkyu.app.EventPurger;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration
+@EnableConfigurationProperties(DeleteProperties.class)
+public class DeleteConfig {
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "app.delete", name = "purge-enabled", matchIfMissing = true)
+    static class PurgeSchedulingConfig implements SchedulingConfigurer {
+        private final EventPurger purger;
+        private final DeleteProperties properties;
+
+        PurgeSchedulingConfig(EventPurger purger, DeleteProperties properties) {
+            this.purger = purger;
+            this.properties = properties;
+        }
+
+        @Override
+        public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+            long interval = properties.getPurgeInterval().toMillis();
+            taskRegistrar.addFixedDelayTask(new IntervalTask(purger::purge, interval, interval));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("app.delete")
+public class DeleteProperties {
+    private boolean purgeEnabled = true;
+    private int chunkSize = 500;
+    private Duration purgeInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,27 @@
+package io.iamkyu.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(DiagnosticsProperties.class)
+public class DiagnosticsConfig {
+
+    @Bean
+    public DiagnosticsRegistry diagnosticsRegistry() {
+        return new DiagnosticsRegistry();
+    }
+
+    @Bean
+    public FilterRegistrationBean<DiagnosticsFilter> diagnosticsFilter(DiagnosticsProperties properties,
+                                                                       DiagnosticsRegistry registry) {
+        FilterRegistrationBean<DiagnosticsFilter> registration =
+                new FilterRegistrationBean<>(new DiagnosticsFilter(properties, registry));
+        registration.addUrlPatterns("/api/events", "/api/events/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
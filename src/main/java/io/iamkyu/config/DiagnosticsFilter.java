@@ -0,0 +1,95 @@
+package io.iamkyu.config;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 진단 모드 요청(app.diagnostics.header-enabled 일 때 헤더, 또는 app.diagnostics.enabled)의 SQL 개수와 문장, JDBC 시간, 할당 바이트, 직렬화 시간을
+ * 응답 헤더와 Server-Timing 으로 돌려주고 DiagnosticsRegistry 에 누적한다.
+ * 직렬화가 끝난 뒤에 헤더를 붙여야 하므로 진단 모드일 때만 응답 본문을 버퍼링한다.
+ */
+public class DiagnosticsFilter extends OncePerRequestFilter {
+    public static final String SQL_COUNT_HEADER = "X-Diagnostics-Sql-Count";
+    public static final String SQL_HEADER = "X-Diagnostics-Sql";
+    public static final String ALLOCATED_BYTES_HEADER = "X-Diagnostics-Allocated-Bytes";
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final DiagnosticsProperties properties;
+    private final DiagnosticsRegistry registry;
+
+    public DiagnosticsFilter(DiagnosticsProperties properties, DiagnosticsRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                && !(properties.isHeaderEnabled() && Boolean.parseBoolean(request.getHeader(properties.getHeader())));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper bufferedResponse = new ContentCachingResponseWrapper(response);
+        RequestDiagnostics diagnostics = RequestDiagnostics.begin();
+        try {
+            filterChain.doFilter(request, bufferedResponse);
+        } finally {
+            RequestDiagnostics.end();
+        }
+
+        RequestDiagnostics.Result result = diagnostics.finish();
+        writeHeaders(bufferedResponse, result);
+        registry.record(endpoint(request), result);
+        bufferedResponse.copyBodyToResponse();
+    }
+
+    private void writeHeaders(HttpServletResponse response, RequestDiagnostics.Result result) {
+        List<String> statements = result.getStatements();
+        response.setHeader(SQL_COUNT_HEADER, String.valueOf(statements.size()));
+        statements.stream()
+                .limit(properties.getMaxSqlHeaders())
+                .map(this::headerSafe)
+                .forEach(sql -> response.addHeader(SQL_HEADER, sql));
+        if (result.getAllocatedBytes() >= 0) {
+            response.setHeader(ALLOCATED_BYTES_HEADER, String.valueOf(result.getAllocatedBytes()));
+        }
+        response.setHeader(SERVER_TIMING_HEADER, String.join(", ",
+                timing("db", result.getJdbcNanos()),
+                timing("ser", result.getSerializationNanos()),
+                timing("total", result.getTotalNanos())));
+    }
+
+    private String headerSafe(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").trim();
+        return singleLine.length() > properties.getMaxSqlLength()
+                ? singleLine.substring(0, properties.getMaxSqlLength())
+                : singleLine;
+    }
+
+    private static String timing(String name, long nanos) {
+        return String.format(Locale.ROOT, "%s;dur=%.3f", name, (double) nanos / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    // 컨트롤러 메서드가 처리하지 않은 요청(없는 경로는 정적 리소스 핸들러의 /** 로 잡힌다)은
+    // 경로마다 항목이 늘어나지 않게 한 곳에 모은다.
+    private static String endpoint(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return handler instanceof HandlerMethod && pattern != null
+                ? request.getMethod() + " " + pattern
+                : DiagnosticsRegistry.UNMATCHED;
+    }
+}
@@ -0,0 +1,16 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("app.diagnostics")
+public class DiagnosticsProperties {
+    /** true 면 헤더와 관계없이 모든 요청을 진단한다. */
+    private boolean enabled = false;
+    /** true 면 헤더를 보낸 요청을 진단한다. 실행한 SQL 이 응답 헤더로 나가므로 운영에서는 켜지 않는다. */
+    private boolean headerEnabled = false;
+    private String header = "X-Diagnostics";
+    private int maxSqlHeaders = 20;
+    private int maxSqlLength = 500;
+}
@@ -0,0 +1,93 @@
+package io.iamkyu.config;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 진단 모드 요청 결과를 "메서드 + 핸들러 경로" 별로 누적한다. 핸들러가 없는 요청은 UNMATCHED 로 모은다.
+ */
+public class DiagnosticsRegistry {
+    public static final String UNMATCHED = "UNMATCHED";
+
+    private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, RequestDiagnostics.Result result) {
+        stats.computeIfAbsent(endpoint, key -> new Stats()).record(result);
+    }
+
+    public Map<String, Summary> summaries() {
+        Map<String, Summary> summaries = new TreeMap<>();
+        stats.forEach((endpoint, s) -> summaries.put(endpoint, s.summary()));
+        return summaries;
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private static class Stats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder sqlStatements = new LongAdder();
+        private final LongAccumulator maxSqlStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder jdbcNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder serializationNanos = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        void record(RequestDiagnostics.Result result) {
+            int statements = result.getStatements().size();
+            sqlStatements.add(statements);
+            maxSqlStatements.accumulate(statements);
+            jdbcNanos.add(result.getJdbcNanos());
+            allocatedBytes.add(Math.max(0, result.getAllocatedBytes()));
+            serializationNanos.add(result.getSerializationNanos());
+            totalNanos.add(result.getTotalNanos());
+            requests.increment();
+        }
+
+        Summary summary() {
+            long count = Math.max(1, requests.sum());
+            return new Summary(
+                    requests.sum(),
+                    (double) sqlStatements.sum() / count,
+                    maxSqlStatements.get(),
+                    toMillis(jdbcNanos.sum()) / count,
+                    allocatedBytes.sum() / count,
+                    toMillis(serializationNanos.sum()) / count,
+                    toMillis(totalNanos.sum()) / count);
+        }
+
+        private static double toMillis(long nanos) {
+            return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    @Getter
+    public static class Summary {
+        private final long requests;
+        private final double avgSqlStatements;
+        private final long maxSqlStatements;
+        private final double avgJdbcMillis;
+        private final long avgAllocatedBytes;
+        private final double avgSerializationMillis;
+        private final double avgTotalMillis;
+
+        Summary(long requests, double avgSqlStatements, long maxSqlStatements, double avgJdbcMillis,
+                long avgAllocatedBytes, double avgSerializationMillis, double avgTotalMillis) {
+            this.requests = requests;
+            this.avgSqlStatements = avgSqlStatements;
+            this.maxSqlStatements = maxSqlStatements;
+            this.avgJdbcMillis = avgJdbcMillis;
+            this.avgAllocatedBytes = avgAllocatedBytes;
+            this.avgSerializationMillis = avgSerializationMillis;
+            this.avgTotalMillis = avgTotalMillis;
+        }
+    }
+}
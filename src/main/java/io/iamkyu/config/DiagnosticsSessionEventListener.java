@@ -0,0 +1,43 @@
+package io.iamkyu.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * hibernate.session.events.auto 로 등록된다. 진단 모드 요청의 JDBC 실행 시간을 잰다.
+ */
+public class DiagnosticsSessionEventListener extends BaseSessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        finished();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        finished();
+    }
+
+    private void started() {
+        RequestDiagnostics diagnostics = RequestDiagnostics.current();
+        if (diagnostics != null) {
+            diagnostics.jdbcStarted();
+        }
+    }
+
+    private void finished() {
+        RequestDiagnostics diagnostics = RequestDiagnostics.current();
+        if (diagnostics != null) {
+            diagnostics.jdbcFinished();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.iamkyu.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * hibernate.session_factory.statement_inspector 로 등록된다.
+ */
+public class DiagnosticsStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestDiagnostics diagnostics = RequestDiagnostics.current();
+        if (diagnostics != null) {
+            diagnostics.statement(sql);
+        }
+        return sql;
+    }
+}
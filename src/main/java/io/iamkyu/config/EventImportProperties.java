@@ -0,0 +1,19 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties("app.import")
+public class EventImportProperties {
+    /** 지정하면 기동 시 이 파일을 가져온다(CLI 모드). */
+    private String file;
+    private boolean exitOnComplete = true;
+    private int chunkSize = 500;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 4;
+    private int maxReportedErrors = 1000;
+    /** 본문으로 보낸 가져오기 파일의 최대 크기. multipart 로 올린 파일은 spring.servlet.multipart 의 제한을 따른다. */
+    private DataSize maxRequestSize = DataSize.ofGigabytes(1);
+}
@@ -0,0 +1,11 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("app.query")
+public class EventQueryProperties {
+    private int maxPlans = 1000;
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,9 @@
+package io.iamkyu.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(EventUpdateProperties.class)
+public class EventUpdateConfig {
+}
@@ -0,0 +1,12 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("app.update")
+public class EventUpdateProperties {
+    private int maxAttempts = 10;
+    private int revisionEvents = 10000;
+    private int revisionsPerEvent = 8;
+}
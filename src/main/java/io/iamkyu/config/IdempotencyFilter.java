@@ -0,0 +1,236 @@
+package io.iamkyu.config;
+
+import io.iamkyu.app.IdempotencyStore;
+import io.iamkyu.app.IdempotencyStore.StoredResponse;
+import io.iamkyu.common.SingleFlight;
+import io.iamkyu.controller.EventImportController;
+import io.iamkyu.domain.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Idempotency-Key 헤더가 있는 생성, 수정 요청은 한 번만 처리하고, 같은 키로 다시 오면 처음 응답을 그대로 돌려준다.
+ * 다시 온 요청은 역직렬화, 검증, 저장을 하지 않는다. 같은 키로 동시에 온 요청은 먼저 온 요청의 처리 결과를 함께 받는다.
+ * 같은 키에 본문이 다르면 422, 다른 인스턴스가 처리 중이면 409 로 응답한다. 키는 테넌트와 클라이언트마다 따로 관리한다.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyStore store;
+    private final SingleFlight<String, StoredResponse> inFlight = new SingleFlight<>();
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter conflicts;
+
+    public IdempotencyFilter(IdempotencyProperties properties, IdempotencyStore store, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        this.executed = requests(meterRegistry, "executed");
+        this.replayed = requests(meterRegistry, "replayed");
+        this.conflicts = requests(meterRegistry, "conflict");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        String contentType = request.getContentType();
+        return request.getHeader(properties.getHeader()) == null
+                || !(HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method))
+                || (contentType != null && contentType.startsWith("multipart/"))
+                || request.getRequestURI().equals(request.getContextPath() + EventImportController.PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(properties.getHeader());
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > properties.getMaxKeyLength()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    properties.getHeader() + " must be 1 to " + properties.getMaxKeyLength() + " characters.");
+            return;
+        }
+
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        String fingerprint = DigestUtils.md5DigestAsHex(body);
+        String key = keyOf(request, idempotencyKey);
+
+        StoredResponse stored = store.find(key).orElse(null);
+        if (stored != null) {
+            replay(stored, fingerprint, response);
+            return;
+        }
+
+        AtomicBoolean handled = new AtomicBoolean();
+        try {
+            stored = inFlight.execute(key, () -> execute(
+                    key, fingerprint, new CachedBodyRequest(request, body), response, filterChain, handled));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (ServletRuntimeException e) {
+            throw e.getCause();
+        }
+
+        if (handled.get()) {
+            return;
+        }
+        if (stored == null) {
+            conflicts.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.CONFLICT.value(), "A request with the same idempotency key is in progress.");
+        } else {
+            replay(stored, fingerprint, response);
+        }
+    }
+
+    // 처리 중 기록을 남기고 요청을 처리한다. 다른 요청이 먼저 기록했으면 그 결과를, 처리 중이면 null 을 반환한다.
+    private StoredResponse execute(String key, String fingerprint, HttpServletRequest request,
+                                   HttpServletResponse response, FilterChain filterChain, AtomicBoolean handled) {
+        if (!store.begin(key, fingerprint)) {
+            return store.find(key).orElse(null);
+        }
+        handled.set(true);
+
+        ContentCachingResponseWrapper bufferedResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, bufferedResponse);
+            StoredResponse stored = null;
+            if (bufferedResponse.getStatus() < 500) {
+                stored = store.complete(key, fingerprint, bufferedResponse.getStatus(),
+                        bufferedResponse.getContentType(), bufferedResponse.getHeader(HttpHeaders.LOCATION),
+                        bufferedResponse.getContentAsByteArray());
+                completed = true;
+                executed.increment();
+            }
+            bufferedResponse.copyBodyToResponse();
+            return stored;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ServletException e) {
+            throw new ServletRuntimeException(e);
+        } finally {
+            if (!completed) {
+                store.abandon(key);
+            }
+        }
+    }
+
+    // 다른 테넌트나 클라이언트가 같은 키를 써도 서로의 응답을 받지 않게 테넌트와 클라이언트로 나눈다.
+    // TenantFilter 가 먼저 실행된다. 헤더 값에는 줄바꿈이 없으므로 줄바꿈으로 이어 붙이고, 아이디 길이를 넘지 않게 해시한다.
+    private String keyOf(HttpServletRequest request, String idempotencyKey) {
+        String scope = TenantContext.current() + "\n" + ClientIdentity.of(request) + "\n" + idempotencyKey;
+        return request.getMethod() + " " + request.getRequestURI() + " "
+                + DigestUtils.md5DigestAsHex(scope.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void replay(StoredResponse stored, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            conflicts.increment();
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                    "The idempotency key was already used with a different request body.");
+            return;
+        }
+
+        replayed.increment();
+        response.setStatus(stored.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        if (stored.getLocation() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.getLocation());
+        }
+        byte[] body = stored.getBody() == null ? new byte[0] : stored.getBody();
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("api.idempotency.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static class ServletRuntimeException extends RuntimeException {
+        ServletRuntimeException(ServletException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized ServletException getCause() {
+            return (ServletException) super.getCause();
+        }
+    }
+
+    // 지문을 계산하느라 읽은 본문을 컨트롤러가 다시 읽을 수 있게 한다.
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
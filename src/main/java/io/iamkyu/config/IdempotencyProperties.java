@@ -0,0 +1,20 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("app.idempotency")
+public class IdempotencyProperties {
+    private boolean enabled = true;
+    private String header = "Idempotency-Key";
+    private int maxKeyLength = 255;
+    /** 처리한 응답을 재사용하는 기간 */
+    private Duration ttl = Duration.ofHours(24);
+    /** 처리 중 기록의 유효 기간. 처리하던 인스턴스가 죽으면 이 시간이 지난 뒤 다시 처리할 수 있다. */
+    private Duration pendingTimeout = Duration.ofMinutes(1);
+    /** 메모리에 유지하는 응답 수. 넘치면 DB 기록에서 읽는다. */
+    private int maxEntries = 10_000;
+}
@@ -0,0 +1,78 @@
+package io.iamkyu.config;
+
+import io.iamkyu.common.LogStructuredStore;
+import io.iamkyu.domain.ArchivedEventRepository;
+import io.iamkyu.domain.EventCounter;
+import io.iamkyu.domain.KeyValueEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * kv-store 프로파일: 이벤트를 SQL 데이터베이스 대신 내장 키-값 저장소에 둔다.
+ * 집계, 보관, 멱등성 기록처럼 이벤트가 아닌 테이블은 그대로 spring.datasource(기본은 메모리 H2)를 쓴다.
+ */
+@Slf4j
+@Configuration
+@Profile("kv-store")
+@EnableConfigurationProperties(KeyValueStoreProperties.class)
+public class KeyValueStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public LogStructuredStore eventStore(KeyValueStoreProperties properties) throws IOException {
+        Path path = Paths.get(properties.getPath()).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        return new LogStructuredStore(path, (int) properties.getRegionSize().toBytes(), properties.isSyncWrites());
+    }
+
+    @Bean
+    @Primary
+    public KeyValueEventRepository keyValueEventRepository(LogStructuredStore eventStore,
+                                                           ArchivedEventRepository archivedEventRepository,
+                                                           ObjectProvider<EventCounter> eventCounter) {
+        return new KeyValueEventRepository(eventStore, archivedEventRepository, eventCounter);
+    }
+
+    @Configuration
+    @Profile("kv-store")
+    static class CompactionSchedulingConfig implements SchedulingConfigurer {
+        private final LogStructuredStore eventStore;
+        private final KeyValueStoreProperties properties;
+
+        CompactionSchedulingConfig(LogStructuredStore eventStore, KeyValueStoreProperties properties) {
+            this.eventStore = eventStore;
+            this.properties = properties;
+        }
+
+        @Override
+        public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+            long interval = properties.getCompactionInterval().toMillis();
+            taskRegistrar.addFixedDelayTask(new IntervalTask(this::compactIfNeeded, interval, interval));
+        }
+
+        private void compactIfNeeded() {
+            double garbageRatio = eventStore.garbageRatio();
+            if (garbageRatio < properties.getCompactionGarbageRatio()) {
+                return;
+            }
+            try {
+                eventStore.compact();
+                log.info("Compacted event store, garbage ratio was {}", garbageRatio);
+            } catch (IOException e) {
+                log.warn("Failed to compact event store", e);
+            }
+        }
+    }
+}
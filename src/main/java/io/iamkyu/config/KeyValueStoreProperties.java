@@ -0,0 +1,21 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("app.kv-store")
+public class KeyValueStoreProperties {
+    /** 이벤트를 저장하는 로그 파일. */
+    private String path = "var/events.kv";
+    /** 한 번에 매핑하는 파일 영역의 크기. 이벤트 하나가 이보다 클 수 없다. */
+    private DataSize regionSize = DataSize.ofMegabytes(64);
+    /** 쓸 때마다 디스크에 내린다. 끄면 전원이 꺼질 때 마지막 쓰기를 잃을 수 있다. */
+    private boolean syncWrites = false;
+    /** 덮어쓰거나 지운 레코드가 로그에서 이 비율을 넘으면 compact 한다. */
+    private double compactionGarbageRatio = 0.5;
+    private Duration compactionInterval = Duration.ofMinutes(10);
+}
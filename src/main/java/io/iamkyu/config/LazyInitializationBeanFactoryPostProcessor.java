@@ -0,0 +1,73 @@
+package io.iamkyu.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 애플리케이션 빈을 처음 사용할 때 생성하도록 바꾼다. 인프라 빈은 기동 시점에 필요하므로 그대로 둔다.
+ * 아무도 주입받지 않아도 스스로 동작해야 하는 빈(@Scheduled 메서드, 러너, 리스너, 라이프사이클)은
+ * 생성되지 않으면 요청이 없는 인스턴스에서 영영 실행되지 않으므로 미리 생성한다.
+ */
+public class LazyInitializationBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+    private static final List<Class<?>> EAGER_TYPES = Arrays.asList(SchedulingConfigurer.class,
+            ApplicationRunner.class, CommandLineRunner.class, ApplicationListener.class, SmartLifecycle.class);
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.getRole() == BeanDefinition.ROLE_APPLICATION
+                    && !mustStartEagerly(beanClass(definition, beanFactory.getBeanClassLoader()))) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    private static boolean mustStartEagerly(Class<?> type) {
+        if (type == null) {
+            return false;
+        }
+        if (EAGER_TYPES.stream().anyMatch(eager -> eager.isAssignableFrom(type))) {
+            return true;
+        }
+        AtomicBoolean scheduled = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(type, method -> scheduled.set(true),
+                method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                        || AnnotatedElementUtils.hasAnnotation(method, Schedules.class));
+        return scheduled.get();
+    }
+
+    // @Bean 메서드로 등록한 빈은 클래스 이름이 없으므로 팩터리 메서드의 반환 타입을 본다.
+    private static Class<?> beanClass(BeanDefinition definition, ClassLoader classLoader) {
+        String className = definition.getBeanClassName();
+        if (className == null && definition instanceof AnnotatedBeanDefinition) {
+            MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+            className = factoryMethod == null ? null : factoryMethod.getReturnTypeName();
+        }
+        if (className == null) {
+            return null;
+        }
+        try {
+            return ClassUtils.forName(className, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.iamkyu.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 링크 없는 이벤트 표현. Accept: application/json 이나 ?links=none 으로 요청하면
+ * EventController 가 Resource 래퍼 없이 Event 를 반환하고 LeanEventMessageConverter 가 쓴다.
+ * links=none 은 LinksNoneFilter 가 이벤트 API 요청의 Accept 를 바꿔 처리하므로 전역 협상 설정은 그대로 둔다.
+ */
+@Configuration
+public class LeanEventConfig implements WebMvcConfigurer {
+    public static final String LINKS_PARAMETER = "links";
+    public static final String LINKS_NONE = "none";
+
+    private final ObjectMapper objectMapper;
+
+    public LeanEventConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Bean
+    public FilterRegistrationBean<LinksNoneFilter> linksNoneFilter() {
+        FilterRegistrationBean<LinksNoneFilter> registration = new FilterRegistrationBean<>(new LinksNoneFilter());
+        registration.addUrlPatterns("/api/events", "/api/events/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 25);
+        return registration;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new LeanEventMessageConverter(objectMapper.getFactory()));
+    }
+}
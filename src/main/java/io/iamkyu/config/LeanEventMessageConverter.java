@@ -0,0 +1,62 @@
+package io.iamkyu.config;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.iamkyu.app.EventJsonWriter;
+import io.iamkyu.app.EventMultiGetter;
+import io.iamkyu.app.LeanEventSlice;
+import io.iamkyu.domain.Event;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * EventController 가 링크 없는 표현으로 반환한 Event, LeanEventSlice, EventMultiGetter.Result 를
+ * application/json 으로 쓴다. 읽기는 지원하지 않는다.
+ */
+public class LeanEventMessageConverter extends AbstractHttpMessageConverter<Object> {
+    private final JsonFactory jsonFactory;
+    private final EventJsonWriter writer = new EventJsonWriter();
+
+    public LeanEventMessageConverter(JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON_UTF8, MediaType.APPLICATION_JSON);
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Event.class.isAssignableFrom(clazz)
+                || LeanEventSlice.class.isAssignableFrom(clazz)
+                || EventMultiGetter.Result.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Lean event representation is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+            // 응답 스트림은 컨테이너와 앞선 필터가 닫는다.
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (body instanceof Event) {
+                writer.write((Event) body, generator);
+            } else if (body instanceof LeanEventSlice) {
+                writer.write(((LeanEventSlice) body).getSlice(), generator);
+            } else {
+                writer.write((EventMultiGetter.Result) body, generator);
+            }
+        }
+    }
+}
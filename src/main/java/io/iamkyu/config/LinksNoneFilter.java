@@ -0,0 +1,52 @@
+package io.iamkyu.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * ?links=none 요청의 Accept 를 application/json 으로 바꿔 링크 없는 표현으로 협상되게 한다.
+ * 전역 ContentNegotiationStrategy 를 바꾸지 않도록 이벤트 API 에만 건다.
+ */
+public class LinksNoneFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !LeanEventConfig.LINKS_NONE.equals(request.getParameter(LeanEventConfig.LINKS_PARAMETER));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(new JsonAcceptRequest(request), response);
+    }
+
+    private static class JsonAcceptRequest extends HttpServletRequestWrapper {
+        private static final String ACCEPT = MediaType.APPLICATION_JSON_VALUE;
+
+        JsonAcceptRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return HttpHeaders.ACCEPT.equalsIgnoreCase(name) ? ACCEPT : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return HttpHeaders.ACCEPT.equalsIgnoreCase(name)
+                    ? Collections.enumeration(Collections.singletonList(ACCEPT))
+                    : super.getHeaders(name);
+        }
+    }
+}
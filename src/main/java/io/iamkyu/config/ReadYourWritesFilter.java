@@ -0,0 +1,71 @@
+package io.iamkyu.config;
+
+import io.iamkyu.controller.EventController;
+import io.iamkyu.controller.EventQueryController;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 쓰기 요청에 성공한 클라이언트의 읽기 요청을 일정 시간 동안 프라이머리로 보낸다.
+ * 레플리카의 복제 지연 때문에 방금 쓴 데이터가 보이지 않는 것을 막는다.
+ * 본문으로 조건을 받는 POST 조회(다건 조회, 쿼리)는 읽기로 본다.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final int MAX_TRACKED_CLIENTS = 100_000;
+
+    private final long windowNanos;
+    private final ConcurrentMap<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientId = ClientIdentity.of(request);
+        if (isRead(request)) {
+            Long until = stickyUntil.get(clientId);
+            if (until != null && until - System.nanoTime() > 0) {
+                ReplicaRoutingContext.forcePrimary();
+            }
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                ReplicaRoutingContext.clear();
+            }
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+        if (response.getStatus() < 400) {
+            stick(clientId);
+        }
+    }
+
+    private void stick(String clientId) {
+        long now = System.nanoTime();
+        if (stickyUntil.size() >= MAX_TRACKED_CLIENTS) {
+            stickyUntil.values().removeIf(until -> until - now <= 0);
+        }
+        stickyUntil.put(clientId, now + windowNanos);
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals(EventQueryController.PATH) || path.equals(EventController.MULTI_GET_PATH);
+    }
+}
@@ -0,0 +1,23 @@
+package io.iamkyu.config;
+
+/**
+ * 현재 스레드의 읽기 요청을 레플리카 대신 프라이머리로 보내도록 표시한다. (read-your-writes)
+ */
+public final class ReplicaRoutingContext {
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = ThreadLocal.withInitial(() -> false);
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static void forcePrimary() {
+        PRIMARY_FORCED.set(true);
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get();
+    }
+
+    public static void clear() {
+        PRIMARY_FORCED.remove();
+    }
+}
@@ -0,0 +1,148 @@
+package io.iamkyu.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 읽기 전용 트랜잭션은 레플리카로, 나머지는 프라이머리로 보낸다.
+ * 커넥션을 얻을 때 트랜잭션이 읽기 전용인지 알아야 하므로 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ * 커넥션을 얻지 못하거나 헬스 체크에 실패한 레플리카는 다음 헬스 체크를 통과할 때까지 제외한다.
+ * 프라이머리와 레플리카의 커넥션 풀은 이 데이터 소스가 만든 것이므로 종료할 때 함께 닫는다.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaProperties.Selection selection;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    ReplicaProperties.Selection selection, Duration healthCheckInterval) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).collect(toList());
+        this.selection = selection;
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = healthCheckInterval.toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            return primary.getConnection();
+        }
+        Replica replica = select();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            replica.eject(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public void destroy() {
+        healthChecker.shutdownNow();
+        close(primary);
+        replicas.forEach(replica -> close(replica.dataSource));
+    }
+
+    private static void close(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            ((HikariDataSource) dataSource).close();
+        }
+    }
+
+    private boolean routeToReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReplicaRoutingContext.isPrimaryForced();
+    }
+
+    private Replica select() {
+        List<Replica> healthy = replicas.stream().filter(replica -> replica.healthy).collect(toList());
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        if (selection == ReplicaProperties.Selection.LEAST_LOADED) {
+            return healthy.stream().min(Comparator.comparingInt(Replica::activeConnections)).get();
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+    }
+
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    replica.restore();
+                } else {
+                    replica.eject(null);
+                }
+            } catch (SQLException e) {
+                replica.eject(e);
+            }
+        }
+    }
+
+    private static class Replica {
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        int activeConnections() {
+            if (dataSource instanceof HikariDataSource) {
+                HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+                return pool == null ? 0 : pool.getActiveConnections();
+            }
+            return 0;
+        }
+
+        void eject(SQLException cause) {
+            if (healthy) {
+                log.warn("Ejecting read replica {}", dataSource, cause);
+            }
+            healthy = false;
+        }
+
+        void restore() {
+            if (!healthy) {
+                log.info("Restoring read replica {}", dataSource);
+            }
+            healthy = true;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.iamkyu.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 진단 모드 요청 하나가 실행한 SQL, JDBC 시간, 스레드 할당량, 직렬화 시간을 모은다.
+ * 요청을 처리하는 스레드에 묶여 있으며 DiagnosticsFilter 가 시작과 끝을 관리한다.
+ */
+public class RequestDiagnostics {
+    private static final ThreadLocal<RequestDiagnostics> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long startAllocatedBytes = allocatedBytes();
+    private final List<String> statements = new ArrayList<>();
+    private long jdbcNanos;
+    private long jdbcStartNanos;
+    private long serializationStartNanos;
+
+    public static RequestDiagnostics begin() {
+        RequestDiagnostics diagnostics = new RequestDiagnostics();
+        CURRENT.set(diagnostics);
+        return diagnostics;
+    }
+
+    public static RequestDiagnostics current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void statement(String sql) {
+        statements.add(sql);
+    }
+
+    void jdbcStarted() {
+        jdbcStartNanos = System.nanoTime();
+    }
+
+    void jdbcFinished() {
+        if (jdbcStartNanos != 0) {
+            jdbcNanos += System.nanoTime() - jdbcStartNanos;
+            jdbcStartNanos = 0;
+        }
+    }
+
+    void serializationStarted() {
+        serializationStartNanos = System.nanoTime();
+    }
+
+    public Result finish() {
+        long now = System.nanoTime();
+        long allocated = allocatedBytes();
+        return new Result(
+                Collections.unmodifiableList(new ArrayList<>(statements)),
+                jdbcNanos,
+                allocated < 0 ? -1 : allocated - startAllocatedBytes,
+                serializationStartNanos == 0 ? 0 : now - serializationStartNanos,
+                now - startNanos);
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final List<String> statements;
+        private final long jdbcNanos;
+        private final long allocatedBytes;
+        private final long serializationNanos;
+        private final long totalNanos;
+    }
+}
@@ -0,0 +1,105 @@
+package io.iamkyu.config;
+
+import io.undertow.UndertowOptions;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.ServerConnector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.jetty.JettyServletWebServerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.xnio.Options;
+
+/**
+ * high-throughput 프로파일의 커넥터 설정. 빌드에 포함된 내장 서버(build.gradle 의 servletContainer)에 맞는 설정만 적용된다.
+ */
+@Configuration
+@Profile("high-throughput")
+@EnableConfigurationProperties(ServerTuningProperties.class)
+public class ServerTuningConfig {
+
+    @Configuration
+    @ConditionalOnClass(name = "org.apache.catalina.startup.Tomcat")
+    static class TomcatTuningConfig {
+
+        @Bean
+        public WebServerFactoryCustomizer<TomcatServletWebServerFactory> tomcatTuning(
+                ServerTuningProperties properties) {
+            return factory -> factory.addConnectorCustomizers(connector -> {
+                ProtocolHandler handler = connector.getProtocolHandler();
+                if (handler instanceof AbstractHttp11Protocol) {
+                    AbstractHttp11Protocol<?> protocol = (AbstractHttp11Protocol<?>) handler;
+                    protocol.setTcpNoDelay(true);
+                    if (properties.getKeepAliveTimeout() != null) {
+                        protocol.setKeepAliveTimeout((int) properties.getKeepAliveTimeout().toMillis());
+                    }
+                    if (properties.getMaxKeepAliveRequests() != null) {
+                        protocol.setMaxKeepAliveRequests(properties.getMaxKeepAliveRequests());
+                    }
+                    if (properties.getAcceptorThreads() != null) {
+                        protocol.setAcceptorThreadCount(properties.getAcceptorThreads());
+                    }
+                }
+                if (handler instanceof Http11NioProtocol && properties.getPollerThreads() != null) {
+                    ((Http11NioProtocol) handler).setPollerThreadCount(properties.getPollerThreads());
+                }
+            });
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.undertow.Undertow")
+    static class UndertowTuningConfig {
+
+        @Bean
+        public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowTuning(
+                ServerTuningProperties properties) {
+            return factory -> factory.addBuilderCustomizers(builder -> {
+                builder.setSocketOption(Options.TCP_NODELAY, true);
+                builder.setServerOption(UndertowOptions.ALWAYS_SET_KEEP_ALIVE, true);
+                if (properties.getKeepAliveTimeout() != null) {
+                    builder.setServerOption(UndertowOptions.NO_REQUEST_TIMEOUT,
+                            (int) properties.getKeepAliveTimeout().toMillis());
+                }
+            });
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.eclipse.jetty.server.Server")
+    static class JettyTuningConfig {
+
+        // Spring Boot 2.1 의 Jetty 는 TLS 에서만 HTTP/2 를 켜므로 평문 커넥터에 h2c 를 직접 추가한다.
+        @Bean
+        public WebServerFactoryCustomizer<JettyServletWebServerFactory> jettyTuning(
+                ServerTuningProperties properties, ServerProperties serverProperties) {
+            boolean http2 = serverProperties.getHttp2() != null && serverProperties.getHttp2().isEnabled();
+            return factory -> factory.addServerCustomizers(server -> {
+                for (Connector connector : server.getConnectors()) {
+                    if (!(connector instanceof ServerConnector)) {
+                        continue;
+                    }
+                    ServerConnector serverConnector = (ServerConnector) connector;
+                    if (properties.getKeepAliveTimeout() != null) {
+                        serverConnector.setIdleTimeout(properties.getKeepAliveTimeout().toMillis());
+                    }
+                    HttpConnectionFactory http = serverConnector.getConnectionFactory(HttpConnectionFactory.class);
+                    if (http2 && http != null) {
+                        serverConnector.addConnectionFactory(
+                                new HTTP2CServerConnectionFactory(http.getHttpConfiguration()));
+                    }
+                }
+            });
+        }
+    }
+}
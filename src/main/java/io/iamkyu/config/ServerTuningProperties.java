@@ -0,0 +1,22 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * server.* 로 설정할 수 없는 커넥터 설정. 값이 없으면 내장 서버의 기본값을 쓴다.
+ */
+@Data
+@ConfigurationProperties("app.server")
+public class ServerTuningProperties {
+    /** Tomcat NIO 커넥터의 acceptor 스레드 수 */
+    private Integer acceptorThreads;
+    /** Tomcat NIO 커넥터의 poller 스레드 수 */
+    private Integer pollerThreads;
+    /** 요청 없이 유지하는 keep-alive 커넥션의 유휴 시간 */
+    private Duration keepAliveTimeout;
+    /** 커넥션 하나로 처리하는 최대 요청 수 (Tomcat) */
+    private Integer maxKeepAliveRequests;
+}
@@ -0,0 +1,38 @@
+package io.iamkyu.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 테넌트와 관계없이 현재 스레드의 커넥션을 지정한 샤드에서 얻도록 한다. 샤드를 모두 도는 조회와 재배치에 쓴다.
+ */
+public final class ShardRoutingContext {
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+
+    private ShardRoutingContext() {
+    }
+
+    public static String currentShard() {
+        return SHARD.get();
+    }
+
+    public static <T> T call(String shard, Supplier<T> task) {
+        String previous = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                SHARD.remove();
+            } else {
+                SHARD.set(previous);
+            }
+        }
+    }
+
+    public static void run(String shard, Runnable task) {
+        call(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+}
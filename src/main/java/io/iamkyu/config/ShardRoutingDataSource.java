@@ -0,0 +1,86 @@
+package io.iamkyu.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.iamkyu.common.ConsistentHashRing;
+import io.iamkyu.domain.TenantContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 테넌트의 샤드에서 커넥션을 얻는다. 테넌트는 consistent hash 로 샤드에 나누고, 지정한(pin) 테넌트는 그 샤드로 보낸다.
+ * ShardRoutingContext 로 샤드를 지정하면 그 샤드를, 테넌트가 없으면 기본 샤드를 사용한다.
+ */
+public class ShardRoutingDataSource extends AbstractDataSource implements DisposableBean {
+    private final Map<String, DataSource> shards;
+    private final String defaultShard;
+    private final ConsistentHashRing<String> ring;
+    private final Map<String, String> pinnedTenants = new ConcurrentHashMap<>();
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards, String defaultShard, int virtualNodes,
+                                  Map<String, String> pinnedTenants) {
+        this.shards = shards;
+        this.defaultShard = defaultShard;
+        this.ring = new ConsistentHashRing<>(shards.keySet(), virtualNodes);
+        pinnedTenants.forEach(this::pin);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return shard(currentShard()).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return shard(currentShard()).getConnection(username, password);
+    }
+
+    public String currentShard() {
+        String shard = ShardRoutingContext.currentShard();
+        if (shard != null) {
+            return shard;
+        }
+        String tenantId = TenantContext.current();
+        return tenantId == null ? defaultShard : shardFor(tenantId);
+    }
+
+    public String shardFor(String tenantId) {
+        String pinned = pinnedTenants.get(tenantId);
+        return pinned != null ? pinned : ring.nodeFor(tenantId);
+    }
+
+    /**
+     * 테넌트를 해시와 관계없이 지정한 샤드로 보낸다. 데이터는 EventRebalancer 로 옮긴다.
+     */
+    public void pin(String tenantId, String shard) {
+        shard(shard);
+        pinnedTenants.put(tenantId, shard);
+    }
+
+    public List<String> shardNames() {
+        return Collections.unmodifiableList(new ArrayList<>(shards.keySet()));
+    }
+
+    public DataSource shard(String name) {
+        DataSource dataSource = shards.get(name);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + name);
+        }
+        return dataSource;
+    }
+
+    @Override
+    public void destroy() {
+        shards.values().stream()
+                .filter(HikariDataSource.class::isInstance)
+                .forEach(dataSource -> ((HikariDataSource) dataSource).close());
+    }
+}
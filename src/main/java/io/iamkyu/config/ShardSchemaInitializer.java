@@ -0,0 +1,98 @@
+package io.iamkyu.config;
+
+import io.iamkyu.domain.EventIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Hibernate 는 스키마를 기본 샤드에만 만들므로 나머지 샤드에도 같은 설정(hbm2ddl)으로 스키마를 만든다.
+ * 기동이 끝나면 샤드마다 아이디 시퀀스를 (allocationSize * maxShards) 간격으로 엇갈리게 맞춰
+ * 샤드 간에 아이디가 겹치지 않게 한다. 아이디가 전역에서 유일해야 L2 캐시와 재배치가 안전하다.
+ * 여러 인스턴스가 함께 기동해도 시퀀스를 되돌리지 않도록 샤드의 잠금 행(LOCK_TABLE)을 잡고 읽고 맞춘다.
+ */
+@Slf4j
+public class ShardSchemaInitializer implements Integrator, SmartInitializingSingleton {
+    static final String LOCK_TABLE = "event_seq_lock";
+
+    private final ShardRoutingDataSource shards;
+    private final String defaultShard;
+    private final int allocationSize;
+    private final int maxShards;
+
+    public ShardSchemaInitializer(ShardRoutingDataSource shards, String defaultShard, int allocationSize,
+                                  int maxShards) {
+        this.shards = shards;
+        this.defaultShard = defaultShard;
+        this.allocationSize = allocationSize;
+        this.maxShards = maxShards;
+        if (shards.shardNames().size() > maxShards) {
+            throw new IllegalStateException("At most " + maxShards + " shards are supported: " + shards.shardNames());
+        }
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        for (String shard : shards.shardNames()) {
+            if (shard.equals(defaultShard)) {
+                continue;
+            }
+            ShardRoutingContext.run(shard, () -> SchemaManagementToolCoordinator.process(metadata, serviceRegistry,
+                    serviceRegistry.getService(ConfigurationService.class).getSettings(), action -> {
+                    }));
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long stride = (long) allocationSize * maxShards;
+        List<String> names = shards.shardNames();
+        for (int index = 0; index < names.size(); index++) {
+            long start = alignSequence(shards.shard(names.get(index)), index, stride);
+            log.info("Shard {} allocates event ids from {} every {}", names.get(index), start, stride);
+        }
+    }
+
+    private long alignSequence(DataSource dataSource, int index, long stride) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists " + LOCK_TABLE + " (id int primary key)");
+        try {
+            jdbcTemplate.update("insert into " + LOCK_TABLE + " (id) select 1 where not exists"
+                    + " (select id from " + LOCK_TABLE + " where id = 1)");
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lock row of {} was created concurrently", LOCK_TABLE);
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("select id from " + LOCK_TABLE + " where id = 1 for update", Integer.class);
+            // 다른 인스턴스가 이미 받아 간 블록과 겹치지 않도록 시퀀스의 현재 값보다 뒤에서 시작한다.
+            long used = Math.max(
+                    jdbcTemplate.queryForObject("select next value for " + EventIdGenerator.SEQUENCE_NAME, Long.class),
+                    Math.max(
+                            jdbcTemplate.queryForObject("select coalesce(max(id), 0) from event", Long.class),
+                            jdbcTemplate.queryForObject("select coalesce(max(id), 0) from event_archive", Long.class)));
+            long start = (used / stride + 1) * stride + (long) index * allocationSize + 1;
+            jdbcTemplate.execute("alter sequence " + EventIdGenerator.SEQUENCE_NAME
+                    + " restart with " + start + " increment by " + stride);
+            return start;
+        });
+    }
+}
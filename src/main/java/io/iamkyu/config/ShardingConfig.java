@@ -0,0 +1,104 @@
+package io.iamkyu.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.iamkyu.controller.EventQueryController;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.JpaVendorAdapter;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * app.sharding.shards 가 설정되면 테넌트 헤더로 이벤트를 저장할 샤드를 고른다.
+ * 기본 샤드(shard0)는 spring.datasource 설정(spring.datasource.hikari 포함)을 그대로 사용한다.
+ * 이벤트 API 는 테넌트 헤더가 있어야 한다.
+ * 레플리카 설정(app.datasource.replicas)과 함께 쓸 수 없다.
+ */
+@Configuration
+@EnableConfigurationProperties({DataSourceProperties.class, ShardingProperties.class})
+@ConditionalOnProperty(prefix = "app.sharding.shards[0]", name = "url")
+public class ShardingConfig {
+    public static final String DEFAULT_SHARD = "shard0";
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                         ShardingProperties shardingProperties,
+                                                         Environment environment) {
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        HikariDataSource defaultShard = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(defaultShard));
+        shards.put(DEFAULT_SHARD, defaultShard);
+        List<ShardingProperties.Shard> configured = shardingProperties.getShards();
+        for (int i = 0; i < configured.size(); i++) {
+            ShardingProperties.Shard shard = configured.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            shards.put(shard.getName() != null ? shard.getName() : "shard" + (i + 1), dataSource);
+        }
+        return new ShardRoutingDataSource(shards, DEFAULT_SHARD, shardingProperties.getVirtualNodes(),
+                shardingProperties.getTenants());
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRoutingDataSource shardRoutingDataSource,
+                                                         ShardingProperties shardingProperties,
+                                                         Environment environment) {
+        int allocationSize = environment.getProperty(
+                "spring.jpa.properties.app.event-id.allocation-size", Integer.class, 50);
+        return new ShardSchemaInitializer(shardRoutingDataSource, DEFAULT_SHARD, allocationSize,
+                shardingProperties.getMaxShards());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaCustomizer(ShardSchemaInitializer shardSchemaInitializer) {
+        IntegratorProvider integrators = () -> Collections.singletonList(shardSchemaInitializer);
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER, integrators);
+    }
+
+    // JpaBaseConfiguration 의 기본 설정과 같고, EntityManager 마다 테넌트 필터를 켠다.
+    @Bean
+    public JpaVendorAdapter jpaVendorAdapter(JpaProperties jpaProperties, DataSource dataSource) {
+        HibernateJpaVendorAdapter adapter = new TenantFilteringJpaVendorAdapter();
+        adapter.setShowSql(jpaProperties.isShowSql());
+        adapter.setDatabase(jpaProperties.determineDatabase(dataSource));
+        adapter.setDatabasePlatform(jpaProperties.getDatabasePlatform());
+        adapter.setGenerateDdl(jpaProperties.isGenerateDdl());
+        return adapter;
+    }
+
+    @Bean
+    public FilterRegistrationBean<TenantFilter> tenantFilter(ShardingProperties shardingProperties) {
+        FilterRegistrationBean<TenantFilter> registration =
+                new FilterRegistrationBean<>(new TenantFilter(shardingProperties.getTenantHeader()));
+        registration.addUrlPatterns("/api/events", "/api/events/*", EventQueryController.PATH);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 15);
+        return registration;
+    }
+}
@@ -0,0 +1,34 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties("app.sharding")
+public class ShardingProperties {
+    /** spring.datasource(shard0) 외의 샤드. */
+    private List<Shard> shards = new ArrayList<>();
+    private String tenantHeader = "X-Tenant-Id";
+    private int virtualNodes = 160;
+    /** 아이디 시퀀스의 간격. 샤드를 이 수까지 늘려도 샤드 간 아이디가 겹치지 않는다. */
+    private int maxShards = 16;
+    /** 해시 대신 지정한 샤드에 두는 테넌트. 큰 테넌트를 따로 두거나 다른 샤드로 옮길 때 쓴다. */
+    private Map<String, String> tenants = new LinkedHashMap<>();
+    /** true 면 기동 시 테넌트를 지금 설정의 샤드로 옮기고 종료한다(CLI 모드). */
+    private boolean rebalance;
+    private int rebalanceChunkSize = 500;
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,111 @@
+package io.iamkyu.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationContextInitializedEvent;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.context.event.SpringApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기동 단계별 소요 시간과 생성에 오래 걸린 빈을 기동 완료 시점에 로그로 남긴다.
+ * 빈 시간은 의존하는 빈의 생성 시간을 포함한다.
+ *
+ * app.startup.lazy-initialization=true 이면 애플리케이션 빈을 지연 생성하고,
+ * app.startup.exit-on-ready=true 이면 기동이 끝난 뒤 종료한다(CDS 아카이브 생성용).
+ */
+@Slf4j
+public class StartupReport implements ApplicationListener<SpringApplicationEvent> {
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final Map<String, Long> beanStartNanos = new ConcurrentHashMap<>();
+    private final Map<String, Long> beanNanos = new ConcurrentHashMap<>();
+    private long lastPhaseNanos = startNanos;
+
+    @Override
+    public void onApplicationEvent(SpringApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) {
+            return;
+        }
+        if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            phase("environment-prepared");
+        } else if (event instanceof ApplicationContextInitializedEvent) {
+            phase("context-initialized");
+        } else if (event instanceof ApplicationPreparedEvent) {
+            phase("context-prepared");
+            prepare(((ApplicationPreparedEvent) event).getApplicationContext());
+        } else if (event instanceof ApplicationStartedEvent) {
+            phase("context-refreshed");
+        } else if (event instanceof ApplicationReadyEvent) {
+            phase("ready");
+            ConfigurableApplicationContext context = ((ApplicationReadyEvent) event).getApplicationContext();
+            report(context.getEnvironment());
+            if (context.getEnvironment().getProperty("app.startup.exit-on-ready", Boolean.class, false)) {
+                System.exit(SpringApplication.exit(context));
+            }
+        }
+    }
+
+    private void prepare(ConfigurableApplicationContext context) {
+        Environment environment = context.getEnvironment();
+        if (environment.getProperty("app.startup.lazy-initialization", Boolean.class, false)) {
+            context.addBeanFactoryPostProcessor(new LazyInitializationBeanFactoryPostProcessor());
+        }
+        context.getBeanFactory().addBeanPostProcessor(new BeanTimingPostProcessor());
+    }
+
+    private void phase(String name) {
+        long now = System.nanoTime();
+        phases.put(name, now - lastPhaseNanos);
+        lastPhaseNanos = now;
+    }
+
+    private void report(Environment environment) {
+        int top = environment.getProperty("app.startup.report-top-beans", Integer.class, 10);
+        StringBuilder report = new StringBuilder("Startup report")
+                .append(String.format("%n  time-to-ready: %d ms (JVM uptime %d ms)",
+                        millis(System.nanoTime() - startNanos),
+                        ManagementFactory.getRuntimeMXBean().getUptime()));
+        phases.forEach((name, nanos) -> report.append(String.format("%n  phase %-22s %6d ms", name, millis(nanos))));
+        beanNanos.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(top)
+                .forEach(e -> report.append(String.format("%n  bean  %-60s %6d ms", e.getKey(), millis(e.getValue()))));
+        log.info(report.toString());
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private class BeanTimingPostProcessor implements InstantiationAwareBeanPostProcessor {
+        @Override
+        public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+            beanStartNanos.putIfAbsent(beanName, System.nanoTime());
+            return null;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            Long start = beanStartNanos.remove(beanName);
+            if (start != null) {
+                beanNanos.put(beanName, System.nanoTime() - start);
+            }
+            return bean;
+        }
+    }
+}
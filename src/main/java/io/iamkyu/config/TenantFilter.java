@@ -0,0 +1,47 @@
+package io.iamkyu.config;
+
+import io.iamkyu.domain.TenantContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 테넌트 헤더를 TenantContext 에 담는다. 테넌트가 없는 요청은 테넌트 필터 없이 모든 테넌트의 이벤트를 보게 되므로
+ * 이벤트 API 에서는 헤더가 없는 요청을 거절한다. 모든 테넌트의 조회는 관리자 API(/api/admin)로 한다.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+    static final int MAX_TENANT_ID_LENGTH = 255;
+
+    private final String tenantHeader;
+
+    public TenantFilter(String tenantHeader) {
+        this.tenantHeader = tenantHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String tenantId = request.getHeader(tenantHeader);
+        if (tenantId == null || tenantId.isEmpty()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), tenantHeader + " is required.");
+            return;
+        }
+        if (tenantId.length() > MAX_TENANT_ID_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(),
+                    tenantHeader + " must be at most " + MAX_TENANT_ID_LENGTH + " characters.");
+            return;
+        }
+
+        TenantContext.set(tenantId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.iamkyu.config;
+
+import io.iamkyu.domain.TenantContext;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 테넌트가 있는 요청의 EntityManager 에 테넌트 필터를 켠다. 한 샤드에 있는 여러 테넌트의 이벤트를 서로 보이지 않게 한다.
+ */
+public class TenantFilteringJpaVendorAdapter extends HibernateJpaVendorAdapter {
+
+    @Override
+    public void postProcessEntityManager(EntityManager entityManager) {
+        super.postProcessEntityManager(entityManager);
+        String tenantId = TenantContext.current();
+        if (tenantId != null) {
+            entityManager.unwrap(Session.class)
+                    .enableFilter(TenantContext.FILTER)
+                    .setParameter(TenantContext.FILTER_PARAMETER, tenantId);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.iamkyu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("app.warmup")
+public class WarmupProperties {
+    private boolean enabled = true;
+    /** 이벤트별 조회 빈도 sketch 를 저장하는 파일. 재시작 후에도 자주 조회되던 이벤트를 먼저 적재한다. */
+    private String sketchFile = "var/event-access.cms";
+    private int sketchDepth = 4;
+    private int sketchWidth = 8192;
+    /** 기동 시 L2 캐시에 미리 적재할 이벤트 수. */
+    private int hotEvents = 1000;
+    /** 실제 HTTP 경로를 호출해 JIT 과 커넥션 풀을 데우는 반복 횟수. */
+    private int iterations = 200;
+    private Duration timeBudget = Duration.ofSeconds(30);
+}
@@ -0,0 +1,67 @@
+package io.iamkyu.controller;
+
+import io.iamkyu.app.CrossTenantEventFinder;
+import io.iamkyu.app.ErrorsResource;
+import io.iamkyu.app.EventResource;
+import io.iamkyu.app.EventSortPolicy;
+import io.iamkyu.config.AdminConfig;
+import io.iamkyu.domain.Event;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.PagedResources;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Optional;
+
+/**
+ * 테넌트와 관계없는 관리자용 이벤트 API. AdminTokenFilter 가 관리자 토큰을 확인한다.
+ */
+@RestController
+@RequestMapping(value = AdminConfig.ADMIN_PATH + "/events", produces = MediaTypes.HAL_JSON_UTF8_VALUE)
+public class AdminEventController {
+    private final CrossTenantEventFinder crossTenantFinder;
+    private final EventSortPolicy sortPolicy;
+
+    public AdminEventController(CrossTenantEventFinder crossTenantFinder, EventSortPolicy sortPolicy) {
+        this.crossTenantFinder = crossTenantFinder;
+        this.sortPolicy = sortPolicy;
+    }
+
+    /**
+     * 모든 테넌트의 이벤트 목록. 샤딩이 켜져 있으면 모든 샤드에서 읽어 합친다.
+     */
+    @GetMapping
+    public ResponseEntity getEventsAcrossTenants(Pageable pageable, PagedResourcesAssembler<Event> assembler) {
+        Optional<Pageable> supported = sortPolicy.apply(pageable);
+        if (!supported.isPresent()) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "pageable");
+            errors.reject("unsupportedSort",
+                    "Sort is not supported. Supported sorts: " + EventSortPolicy.SUPPORTED_SORTS);
+            return badRequest(errors);
+        }
+        if (pageable.getOffset() + pageable.getPageSize() > CrossTenantEventFinder.MAX_MERGE_WINDOW) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "pageable");
+            errors.reject("pageTooDeep", "Pages across tenants are limited to the first "
+                    + CrossTenantEventFinder.MAX_MERGE_WINDOW + " events.");
+            return badRequest(errors);
+        }
+
+        Page<Event> pages = crossTenantFinder.findAll(supported.get());
+        PagedResources resource = assembler.toResource(pages, event -> new EventResource(event));
+        resource.add(new Link("/docs/index.html#resources-events-tenants").withRel("profile"));
+        return ResponseEntity.ok(resource);
+    }
+
+    private ResponseEntity badRequest(Errors errors) {
+        return ResponseEntity.badRequest().body(new ErrorsResource(errors));
+    }
+}
@@ -0,0 +1,36 @@
+package io.iamkyu.controller;
+
+import io.iamkyu.config.AdminConfig;
+import io.iamkyu.config.DiagnosticsRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 누적한 진단 결과. 관리자 API 이므로 AdminTokenFilter 를 거친다.
+ */
+@RestController
+@RequestMapping(value = AdminConfig.ADMIN_PATH + "/diagnostics", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+public class DiagnosticsController {
+    private final DiagnosticsRegistry registry;
+
+    public DiagnosticsController(DiagnosticsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @GetMapping
+    public Map<String, DiagnosticsRegistry.Summary> summaries() {
+        return registry.summaries();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> reset() {
+        registry.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,30 @@
+package io.iamkyu.controller;
+
+import io.iamkyu.app.EventAggregatesResource;
+import io.iamkyu.app.EventAggregator;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+
+@RestController
+@RequestMapping(value = "/api/events/aggregates", produces = MediaTypes.HAL_JSON_UTF8_VALUE)
+public class EventAggregateController {
+    private final EventAggregator aggregator;
+
+    public EventAggregateController(EventAggregator aggregator) {
+        this.aggregator = aggregator;
+    }
+
+    @GetMapping
+    public ResponseEntity<EventAggregatesResource> getAggregates() {
+        EventAggregatesResource resource = new EventAggregatesResource(aggregator.aggregates());
+        resource.add(linkTo(EventAggregateController.class).withSelfRel());
+        resource.add(new Link("/docs/index.html#resources-events-aggregates").withRel("profile"));
+        return ResponseEntity.ok(resource);
+    }
+}
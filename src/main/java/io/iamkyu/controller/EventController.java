@@ -1,53 +1,117 @@
 package io.iamkyu.controller;
 
 import io.iamkyu.app.ErrorsResource;
+import io.iamkyu.app.EventConflictResource;
 import io.iamkyu.app.EventCreateRequest;
 import io.iamkyu.app.EventCreateRequestValidator;
+import io.iamkyu.app.EventDeleteReport;
+import io.iamkyu.app.EventFinder;
+import io.iamkyu.app.EventMultiGetRequest;
+import io.iamkyu.app.EventMultiGetter;
+import io.iamkyu.app.EventRemover;
 import io.iamkyu.app.EventResource;
+import io.iamkyu.app.EventSortPolicy;
+import io.iamkyu.app.EventUpdateConflictException;
 import io.iamkyu.app.EventUpdateRequest;
 import io.iamkyu.app.EventUpdateRequestValidator;
+import io.iamkyu.app.EventWriter;
+import io.iamkyu.app.EventsResource;
+import io.iamkyu.app.LeanEventSlice;
+import io.iamkyu.app.SliceResources;
 import io.iamkyu.domain.Event;
 import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.EventStatus;
+import io.iamkyu.domain.TenantContext;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.mvc.ControllerLinkBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 
+import static io.iamkyu.config.BinaryMessageConverterConfig.APPLICATION_CBOR_VALUE;
+import static io.iamkyu.config.BinaryMessageConverterConfig.APPLICATION_SMILE_VALUE;
+import static java.util.stream.Collectors.toList;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 
 @Controller
-@RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_UTF8_VALUE)
+@RequestMapping(value = EventController.PATH, produces = {
+        MediaTypes.HAL_JSON_UTF8_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE,
+        MediaType.APPLICATION_JSON_UTF8_VALUE})
 public class EventController {
+    public static final String PATH = "/api/events";
+    private static final String MULTI_GET = "/multi-get";
+    public static final String MULTI_GET_PATH = PATH + MULTI_GET;
+
+    private static final List<MediaType> HAL_MEDIA_TYPES = Arrays.asList(MediaTypes.HAL_JSON,
+            MediaType.parseMediaType(APPLICATION_CBOR_VALUE), MediaType.parseMediaType(APPLICATION_SMILE_VALUE));
+    // 목록을 거르는 파라미터. 함께 줄 수 없으므로 매핑마다 나머지가 없을 때만 선택되고, 둘 이상이면 getEvents 에서 거절한다.
+    private static final List<String> FILTER_PARAMS = Arrays.asList("overlaps", "enrollmentOpenAt", "ids");
 
     private final EventRepository eventRepository;
     private final ModelMapper modelMapper;
     private final EventCreateRequestValidator createRequestValidator;
     private final EventUpdateRequestValidator updateRequestValidator;
+    private final EventMultiGetter multiGetter;
+    private final EventFinder eventFinder;
+    private final EventSortPolicy sortPolicy;
+    private final EventWriter eventWriter;
+    private final ContentNegotiationManager contentNegotiationManager;
+    private final EventRemover eventRemover;
 
     public EventController(EventRepository eventRepository, ModelMapper modelMapper,
                            EventCreateRequestValidator createRequestValidator,
-                           EventUpdateRequestValidator updateRequestValidator) {
+                           EventUpdateRequestValidator updateRequestValidator,
+                           EventMultiGetter multiGetter,
+                           EventFinder eventFinder,
+                           EventSortPolicy sortPolicy,
+                           EventWriter eventWriter,
+                           ContentNegotiationManager contentNegotiationManager,
+                           EventRemover eventRemover) {
         this.eventRepository = eventRepository;
         this.modelMapper = modelMapper;
         this.createRequestValidator = createRequestValidator;
         this.updateRequestValidator = updateRequestValidator;
+        this.multiGetter = multiGetter;
+        this.eventFinder = eventFinder;
+        this.sortPolicy = sortPolicy;
+        this.eventWriter = eventWriter;
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.eventRemover = eventRemover;
     }
 
     @PostMapping
@@ -64,10 +128,13 @@ public class EventController {
 
         Event event = modelMapper.map(createRequest, Event.class);
         event.adjust();
-        Event savedEvent = eventRepository.save(event);
+        Event savedEvent = eventWriter.create(event);
 
         ControllerLinkBuilder selfLinkBuilder = linkTo(EventController.class).slash(savedEvent.getId());
         URI uri = selfLinkBuilder.toUri();
+        if (lean()) {
+            return ResponseEntity.created(uri).body(savedEvent);
+        }
 
         EventResource resource = new EventResource(event);
         resource.add(new Link("/docs/index.html#resources-events-create").withRel("profile"));
@@ -78,19 +145,103 @@ public class EventController {
     }
 
     @GetMapping
-    public ResponseEntity getEvents(Pageable pageable, PagedResourcesAssembler<Event> assembler) {
-        Page<Event> pages = eventRepository.findAll(pageable);
+    public ResponseEntity getEvents(Pageable pageable, PagedResourcesAssembler<Event> assembler,
+                                    @RequestParam(defaultValue = "false") boolean includeArchived,
+                                    @RequestParam(defaultValue = "true") boolean totals,
+                                    HttpServletRequest request) {
+        if (FILTER_PARAMS.stream().anyMatch(name -> request.getParameter(name) != null)) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "events");
+            errors.reject("conflictingFilters", "Only one of " + String.join(", ", FILTER_PARAMS) + " can be given.");
+            return badRequest(errors);
+        }
+        Optional<Pageable> supported = sortPolicy.apply(pageable);
+        if (!supported.isPresent()) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "pageable");
+            errors.reject("unsupportedSort",
+                    "Sort is not supported. Supported sorts: " + EventSortPolicy.SUPPORTED_SORTS);
+            return badRequest(errors);
+        }
+        if (includeArchived && pageable.getOffset() + pageable.getPageSize() > EventFinder.MAX_ARCHIVE_MERGE_WINDOW) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "pageable");
+            errors.reject("pageTooDeep", "Pages including archived events are limited to the first "
+                    + EventFinder.MAX_ARCHIVE_MERGE_WINDOW + " events.");
+            return badRequest(errors);
+        }
+
+        if (!totals && !includeArchived) {
+            Slice<Event> slice = eventFinder.findSlice(supported.get());
+            return ResponseEntity.ok(lean() ? new LeanEventSlice(slice) : sliceResource(slice));
+        }
+
+        Page<Event> pages = eventFinder.findAll(supported.get(), includeArchived);
+        if (lean()) {
+            return ResponseEntity.ok(new LeanEventSlice(pages));
+        }
         PagedResources resource = assembler.toResource(pages, event -> new EventResource(event));
         resource.add(new Link("/docs/index.html#resources-events-list").withRel("profile"));
         return ResponseEntity.ok(resource);
     }
 
+    @GetMapping(params = {"overlaps", "!enrollmentOpenAt", "!ids"})
+    public ResponseEntity getOverlappingEvents(@RequestParam String overlaps, Pageable pageable,
+                                               PagedResourcesAssembler<Event> assembler,
+                                               @RequestParam(defaultValue = "false") boolean totals) {
+        String[] range = overlaps.split(",", -1);
+        Optional<LocalDateTime> from = range.length == 2 ? parseDateTime(range[0]) : Optional.empty();
+        Optional<LocalDateTime> to = range.length == 2 ? parseDateTime(range[1]) : Optional.empty();
+        if (!from.isPresent() || !to.isPresent() || !from.get().isBefore(to.get())) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "overlaps");
+            errors.reject("wrongRange", "overlaps must be 'from,to' ISO date-times with from before to.");
+            return badRequest(errors);
+        }
+        return ResponseEntity.ok(calendarResource(
+                eventFinder.findOverlapping(from.get(), to.get(), pageable, totals), assembler));
+    }
+
+    @GetMapping(params = {"enrollmentOpenAt", "!overlaps", "!ids"})
+    public ResponseEntity getEnrollmentOpenEvents(@RequestParam String enrollmentOpenAt, Pageable pageable,
+                                                  PagedResourcesAssembler<Event> assembler,
+                                                  @RequestParam(defaultValue = "false") boolean totals) {
+        Optional<LocalDateTime> at = parseDateTime(enrollmentOpenAt);
+        if (!at.isPresent()) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "enrollmentOpenAt");
+            errors.reject("wrongDateTime", "enrollmentOpenAt must be an ISO date-time.");
+            return badRequest(errors);
+        }
+        return ResponseEntity.ok(calendarResource(
+                eventFinder.findEnrollmentOpenAt(at.get(), pageable, totals), assembler));
+    }
+
+    @GetMapping(params = {"ids", "!overlaps", "!enrollmentOpenAt"})
+    public ResponseEntity getEventsByIds(@RequestParam String ids) {
+        Optional<List<Integer>> parsed = parseIds(ids);
+        if (!parsed.isPresent() || parsed.get().isEmpty() || parsed.get().size() > EventMultiGetter.MAX_IDS) {
+            Errors errors = new MapBindingResult(new HashMap<>(), "ids");
+            errors.reject("wrongIds", "ids must be 1 to " + EventMultiGetter.MAX_IDS + " comma-separated event ids.");
+            return badRequest(errors);
+        }
+        return multiGet(parsed.get());
+    }
+
+    @PostMapping(MULTI_GET)
+    public ResponseEntity multiGetEvents(@RequestBody @Valid EventMultiGetRequest multiGetRequest,
+                                        Errors errors) {
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+        return multiGet(multiGetRequest.getIds());
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity getEvent(@PathVariable Integer id) {
-        Optional<Event> optional = eventRepository.findById(id);
+    public ResponseEntity getEvent(@PathVariable Integer id,
+                                   @RequestParam(defaultValue = "false") boolean includeArchived) {
+        Optional<Event> optional = eventFinder.findById(id, includeArchived);
         if (!optional.isPresent()) {
             return ResponseEntity.notFound().build();
         }
+        if (lean()) {
+            return ResponseEntity.ok(optional.get());
+        }
         EventResource resource = new EventResource(optional.get());
         resource.add(new Link("/docs/index.html#resources-events-get").withRel("profile"));
         return ResponseEntity.ok(resource);
@@ -100,7 +251,9 @@ public class EventController {
     public ResponseEntity updateEvent(@PathVariable Integer id,
                                       @RequestBody @Valid EventUpdateRequest updateRequest,
                                       Errors errors) {
-        Optional<Event> optional = eventRepository.findById(id);
+        Optional<Event> optional = eventRepository.findById(id)
+                .filter(TenantContext::isVisible)
+                .filter(event -> !event.isDeleted());
         if (!optional.isPresent()) {
             return ResponseEntity.notFound().build();
         }
@@ -114,15 +267,135 @@ public class EventController {
             return badRequest(errors);
         }
 
-        Event source = optional.get();
-        modelMapper.map(updateRequest, source);
-        eventRepository.save(source);
+        Event source;
+        try {
+            source = eventWriter.update(optional.get(), updateRequest);
+        } catch (EventUpdateConflictException e) {
+            EventConflictResource resource = new EventConflictResource(e.getConflict());
+            resource.add(new Link("/docs/index.html#resources-events-update").withRel("profile"));
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(resource);
+        }
+        if (lean()) {
+            return ResponseEntity.ok(source);
+        }
 
         EventResource resource = new EventResource(source);
         resource.add(new Link("/docs/index.html#resources-events-update").withRel("profile"));
         return ResponseEntity.ok(resource);
     }
 
+    /**
+     * 삭제 표시만 하고 실제로는 백그라운드에서 지운다.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity deleteEvent(@PathVariable Integer id) {
+        if (!eventRemover.remove(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping(params = "status")
+    public ResponseEntity deleteEvents(@RequestParam EventStatus status) {
+        return ResponseEntity.ok(new EventDeleteReport(status, eventRemover.removeByStatus(status)));
+    }
+
+    private SliceResources<EventResource> sliceResource(Slice<Event> slice) {
+        List<EventResource> resources = slice.getContent().stream()
+                .map(event -> new EventResource(event))
+                .collect(toList());
+        SliceResources<EventResource> resource = new SliceResources<>(resources, new SliceResources.SliceMetadata(
+                slice.getSize(), slice.getNumber(), slice.hasNext()));
+
+        resource.add(new Link(pageUri(slice.getNumber())).withSelfRel());
+        if (slice.hasPrevious()) {
+            resource.add(new Link(pageUri(slice.getNumber() - 1)).withRel("prev"));
+        }
+        if (slice.hasNext()) {
+            resource.add(new Link(pageUri(slice.getNumber() + 1)).withRel("next"));
+        }
+        resource.add(new Link("/docs/index.html#resources-events-list").withRel("profile"));
+        return resource;
+    }
+
+    private Object calendarResource(Slice<Event> events, PagedResourcesAssembler<Event> assembler) {
+        if (lean()) {
+            return new LeanEventSlice(events);
+        }
+        if (!(events instanceof Page)) {
+            return sliceResource(events);
+        }
+        PagedResources resource = assembler.toResource((Page<Event>) events, event -> new EventResource(event));
+        resource.add(new Link("/docs/index.html#resources-events-calendar").withRel("profile"));
+        return resource;
+    }
+
+    private static Optional<LocalDateTime> parseDateTime(String value) {
+        try {
+            return Optional.of(LocalDateTime.parse(value.trim()));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<List<Integer>> parseIds(String value) {
+        if (value.trim().isEmpty()) {
+            return Optional.of(new ArrayList<>());
+        }
+        try {
+            return Optional.of(Arrays.stream(value.split(","))
+                    .map(id -> Integer.valueOf(id.trim()))
+                    .collect(toList()));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Accept 나 links=none 으로 협상한 표현이 application/json 이면 링크 없이 Event 를 그대로 반환한다.
+     */
+    private boolean lean() {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+                .getRequest();
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request)));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return false;
+        }
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (HAL_MEDIA_TYPES.stream().anyMatch(mediaType::isCompatibleWith)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private String pageUri(int page) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page", page)
+                .build()
+                .toUriString();
+    }
+
+    private ResponseEntity multiGet(List<Integer> ids) {
+        EventMultiGetter.Result result = multiGetter.get(ids);
+        if (lean()) {
+            return ResponseEntity.ok(result);
+        }
+        List<EventResource> resources = result.getEvents().stream()
+                .map(event -> new EventResource(event))
+                .collect(toList());
+
+        EventsResource resource = new EventsResource(resources, result.getMissingIds());
+        resource.add(new Link("/docs/index.html#resources-events-multi-get").withRel("profile"));
+        return ResponseEntity.ok(resource);
+    }
+
     private ResponseEntity badRequest(Errors errors) {
         return ResponseEntity.badRequest().body(new ErrorsResource(errors));
     }
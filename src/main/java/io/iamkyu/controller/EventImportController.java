@@ -0,0 +1,76 @@
+package io.iamkyu.controller;
+
+import io.iamkyu.app.EventImportFormat;
+import io.iamkyu.app.EventImportReport;
+import io.iamkyu.app.EventImporter;
+import io.iamkyu.config.EventImportProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * 작은 파일은 multipart 로 올리고(spring.servlet.multipart 의 크기 제한을 받는다), 큰 파일은 본문에 파일 내용을 그대로 보낸다.
+ * 본문으로 보낸 파일은 임시 파일 없이 스트리밍으로 읽으며 app.import.max-request-size 까지 받는다.
+ */
+@RestController
+@RequestMapping(value = EventImportController.PATH, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+public class EventImportController {
+    public static final String PATH = "/api/events/import";
+
+    private final EventImporter importer;
+    private final EventImportProperties properties;
+
+    public EventImportController(EventImporter importer, EventImportProperties properties) {
+        this.importer = importer;
+        this.properties = properties;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<EventImportReport> importEvents(@RequestParam("file") MultipartFile file,
+                                                          @RequestParam(required = false) EventImportFormat format)
+            throws IOException {
+        Optional<EventImportFormat> detected = format != null
+                ? Optional.of(format)
+                : EventImportFormat.detect(file.getOriginalFilename(), file.getContentType());
+        if (!detected.isPresent()) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(importer.importEvents(in, detected.get()));
+        }
+    }
+
+    @PostMapping(consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<EventImportReport> importEventsFromBody(HttpServletRequest request,
+                                                                  @RequestParam(required = false) EventImportFormat format)
+            throws IOException {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED).build();
+        }
+        if (contentLength > properties.getMaxRequestSize().toBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        Optional<EventImportFormat> detected = format != null
+                ? Optional.of(format)
+                : EventImportFormat.detect(null, request.getContentType());
+        if (!detected.isPresent()) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(importer.importEvents(in, detected.get()));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.iamkyu.controller;
+
+import io.iamkyu.app.ErrorsResource;
+import io.iamkyu.app.EventQuery;
+import io.iamkyu.app.EventQueryCache;
+import io.iamkyu.app.EventQueryException;
+import io.iamkyu.app.EventQueryExecutor;
+import io.iamkyu.app.EventQueryRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+/**
+ * 필요한 필드와 조건만 골라 이벤트를 조회한다. 쿼리는 JPA 로 실행하므로 이벤트를 키-값 저장소에 두는 kv-store 프로필에서는 쓸 수 없다.
+ */
+@RestController
+@Profile("!kv-store")
+@RequestMapping(value = EventQueryController.PATH, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+public class EventQueryController {
+    /**
+     * POST 지만 읽기 요청이다.
+     */
+    public static final String PATH = "/api/query";
+
+    private final EventQueryCache queryCache;
+    private final EventQueryExecutor queryExecutor;
+
+    public EventQueryController(EventQueryCache queryCache, EventQueryExecutor queryExecutor) {
+        this.queryCache = queryCache;
+        this.queryExecutor = queryExecutor;
+    }
+
+    @PostMapping
+    public ResponseEntity query(@RequestBody @Valid EventQueryRequest queryRequest, Errors errors) {
+        if (errors.hasErrors()) {
+            return badRequest(errors);
+        }
+
+        try {
+            EventQuery query = queryCache.get(queryRequest.getQuery());
+            return ResponseEntity.ok(queryExecutor.execute(query, queryRequest.getVariables()));
+        } catch (EventQueryException e) {
+            errors.reject("wrongQuery", e.getMessage());
+            return badRequest(errors);
+        }
+    }
+
+    private ResponseEntity badRequest(Errors errors) {
+        return ResponseEntity.badRequest().body(new ErrorsResource(errors));
+    }
+}
@@ -0,0 +1,89 @@
+package io.iamkyu.domain;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * 종료된 지 보존 기간이 지나 event 테이블에서 옮겨진 이벤트. 아이디는 옮기기 전과 같다.
+ */
+@NoArgsConstructor
+@Getter
+@EqualsAndHashCode(of = "id")
+@Entity
+@Immutable
+@Table(name = "event_archive", indexes = {
+        @Index(name = "idx_event_archive_name", columnList = "name, id"),
+        @Index(name = "idx_event_archive_begin_event", columnList = "beginEventDateTime, id"),
+        @Index(name = "idx_event_archive_status_begin_event", columnList = "eventStatus, beginEventDateTime, id")
+})
+@Filter(name = TenantContext.FILTER, condition = "tenant_id = :" + TenantContext.FILTER_PARAMETER)
+public class ArchivedEvent {
+    @Id
+    private Integer id;
+    private String name;
+    private String description;
+    private LocalDateTime beginEnrollmentDateTime;
+    private LocalDateTime closeEnrollmentDateTime;
+    private LocalDateTime beginEventDateTime;
+    private LocalDateTime endEventDateTime;
+    private String location;
+    private int basePrice;
+    private int maxPrice;
+    private int limitOfEnrollment;
+    private boolean offline;
+    private boolean free;
+    @Enumerated(EnumType.STRING)
+    private EventStatus eventStatus;
+    private String tenantId;
+
+    public static ArchivedEvent of(Event event) {
+        ArchivedEvent archived = new ArchivedEvent();
+        archived.id = event.getId();
+        archived.name = event.getName();
+        archived.description = event.getDescription();
+        archived.beginEnrollmentDateTime = event.getBeginEnrollmentDateTime();
+        archived.closeEnrollmentDateTime = event.getCloseEnrollmentDateTime();
+        archived.beginEventDateTime = event.getBeginEventDateTime();
+        archived.endEventDateTime = event.getEndEventDateTime();
+        archived.location = event.getLocation();
+        archived.basePrice = event.getBasePrice();
+        archived.maxPrice = event.getMaxPrice();
+        archived.limitOfEnrollment = event.getLimitOfEnrollment();
+        archived.offline = event.isOffline();
+        archived.free = event.isFree();
+        archived.eventStatus = event.getEventStatus();
+        archived.tenantId = event.getTenantId();
+        return archived;
+    }
+
+    public Event toEvent() {
+        return Event.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .beginEnrollmentDateTime(beginEnrollmentDateTime)
+                .closeEnrollmentDateTime(closeEnrollmentDateTime)
+                .beginEventDateTime(beginEventDateTime)
+                .endEventDateTime(endEventDateTime)
+                .location(location)
+                .basePrice(basePrice)
+                .maxPrice(maxPrice)
+                .limitOfEnrollment(limitOfEnrollment)
+                .offline(offline)
+                .free(free)
+                .eventStatus(eventStatus)
+                .tenantId(tenantId)
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package io.iamkyu.domain;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+public interface ArchivedEventRepository extends JpaRepository<ArchivedEvent, Integer> {
+
+    /**
+     * count 쿼리 없이 한 페이지를 읽는다. 전체 개수는 EventCounter 를 사용한다.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select e from ArchivedEvent e")
+    Slice<ArchivedEvent> findSlice(Pageable pageable);
+
+    @Query("select distinct e.tenantId from ArchivedEvent e where e.tenantId is not null")
+    List<String> findTenantIds();
+}
@@ -1,16 +1,28 @@
 package io.iamkyu.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.ParamDef;
+
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 @Builder
@@ -19,9 +31,23 @@ import java.time.LocalDateTime;
 @Getter
 @EqualsAndHashCode(of = "id")
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_event_name", columnList = "name, id"),
+        @Index(name = "idx_event_begin_event", columnList = "beginEventDateTime, id"),
+        @Index(name = "idx_event_status_begin_event", columnList = "eventStatus, beginEventDateTime, id"),
+        @Index(name = "idx_event_end_event", columnList = "endEventDateTime, id, beginEventDateTime"),
+        @Index(name = "idx_event_close_enrollment", columnList = "closeEnrollmentDateTime, id, beginEnrollmentDateTime"),
+        @Index(name = "idx_event_tenant", columnList = "tenantId, id")
+})
+@FilterDef(name = TenantContext.FILTER, parameters = @ParamDef(name = TenantContext.FILTER_PARAMETER, type = "string"))
+@Filter(name = TenantContext.FILTER, condition = "tenant_id = :" + TenantContext.FILTER_PARAMETER)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(EventCountListener.class)
 public class Event {
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "event_id")
+    @GenericGenerator(name = "event_id", strategy = "io.iamkyu.domain.EventIdGenerator")
     private Integer id;
     private String name;
     private String description;
@@ -37,6 +63,13 @@ public class Event {
     private boolean free;
     @Enumerated(EnumType.STRING)
     private EventStatus eventStatus = EventStatus.DRAFT;
+    @Version
+    private Long version;
+    @JsonIgnore
+    private String tenantId;
+    // 삭제 표시(tombstone). 표시된 이벤트는 조회에서 빠지고 EventPurger 가 나중에 지운다.
+    @JsonIgnore
+    private LocalDateTime deletedAt;
 
     public void setId(Integer id) {
         if (this.id != null) {
@@ -94,10 +127,28 @@ public class Event {
         this.free = free;
     }
 
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public void setEventStatus(EventStatus eventStatus) {
         this.eventStatus = eventStatus;
     }
 
+    // JPA 가 관리하지 않는 저장소(KeyValueEventRepository)가 저장할 때 버전을 올린다.
+    void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public void markDeleted(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @JsonIgnore
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
+
     public void adjust() {
         setFree(getBasePrice() == 0 && getMaxPrice() == 0);
         setOffline(location != null && !location.trim().isEmpty());
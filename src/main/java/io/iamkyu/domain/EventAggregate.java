@@ -0,0 +1,28 @@
+package io.iamkyu.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+/**
+ * (테넌트, 상태, 장소, 무료 여부) 별 이벤트 수와 합계. 이벤트를 쓰는 트랜잭션에서 증감분으로 갱신한다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "event_aggregate")
+public class EventAggregate {
+    @EmbeddedId
+    private EventAggregateKey key;
+    private long eventCount;
+    private long basePriceSum;
+    /** sum(maxPrice * limitOfEnrollment) */
+    private long capacityValue;
+
+    public EventAggregate(EventAggregateKey key) {
+        this.key = key;
+    }
+}
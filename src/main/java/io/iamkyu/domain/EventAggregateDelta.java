@@ -0,0 +1,66 @@
+package io.iamkyu.domain;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 한 집계 단위에 더할 증감분. 집계 쿼리의 결과로도 쓴다.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public class EventAggregateDelta {
+    private final EventAggregateKey key;
+    private final long eventCount;
+    private final long basePriceSum;
+    private final long capacityValue;
+
+    public EventAggregateDelta(EventAggregateKey key, long eventCount, long basePriceSum, long capacityValue) {
+        this.key = key;
+        this.eventCount = eventCount;
+        this.basePriceSum = basePriceSum;
+        this.capacityValue = capacityValue;
+    }
+
+    // JPQL 생성자 표현식용
+    public EventAggregateDelta(String tenantId, EventStatus eventStatus, String location, Boolean free,
+                               Long eventCount, Long basePriceSum, Long capacityValue) {
+        this(keyOf(tenantId, eventStatus, location, free), eventCount, orZero(basePriceSum), orZero(capacityValue));
+    }
+
+    public static EventAggregateDelta of(Event event) {
+        return new EventAggregateDelta(
+                keyOf(event.getTenantId(), event.getEventStatus(), event.getLocation(), event.isFree()),
+                1, event.getBasePrice(), (long) event.getMaxPrice() * event.getLimitOfEnrollment());
+    }
+
+    public EventAggregateDelta negate() {
+        return new EventAggregateDelta(key, -eventCount, -basePriceSum, -capacityValue);
+    }
+
+    public EventAggregateDelta minus(EventAggregateDelta other) {
+        return new EventAggregateDelta(key, eventCount - other.eventCount,
+                basePriceSum - other.basePriceSum, capacityValue - other.capacityValue);
+    }
+
+    public boolean isZero() {
+        return eventCount == 0 && basePriceSum == 0 && capacityValue == 0;
+    }
+
+    public static EventAggregateKey keyOf(String tenantId, EventStatus eventStatus, String location, Boolean free) {
+        return new EventAggregateKey(tenantIdOf(tenantId), eventStatus, location == null ? "" : location,
+                Boolean.TRUE.equals(free));
+    }
+
+    /**
+     * @return 집계 단위의 테넌트. 테넌트가 없으면 빈 문자열이다.
+     */
+    public static String tenantIdOf(String tenantId) {
+        return tenantId == null ? "" : tenantId;
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
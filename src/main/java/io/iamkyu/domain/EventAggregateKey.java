@@ -0,0 +1,28 @@
+package io.iamkyu.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import java.io.Serializable;
+
+/**
+ * 집계 단위. 한 샤드에 여러 테넌트가 있으므로 테넌트마다 따로 센다.
+ * 테넌트가 없는 이벤트의 tenantId, 장소가 없는 이벤트의 location 은 빈 문자열이다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class EventAggregateKey implements Serializable {
+    private String tenantId;
+    @Enumerated(EnumType.STRING)
+    private EventStatus eventStatus;
+    private String location;
+    private boolean free;
+}
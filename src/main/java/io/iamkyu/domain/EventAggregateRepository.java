@@ -0,0 +1,35 @@
+package io.iamkyu.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EventAggregateRepository extends JpaRepository<EventAggregate, EventAggregateKey> {
+
+    @Modifying
+    @Query("update EventAggregate a set a.eventCount = a.eventCount + :eventCount,"
+            + " a.basePriceSum = a.basePriceSum + :basePriceSum,"
+            + " a.capacityValue = a.capacityValue + :capacityValue"
+            + " where a.key.tenantId = :tenantId and a.key.eventStatus = :eventStatus"
+            + " and a.key.location = :location and a.key.free = :free")
+    int add(@Param("tenantId") String tenantId, @Param("eventStatus") EventStatus eventStatus,
+            @Param("location") String location,
+            @Param("free") boolean free, @Param("eventCount") long eventCount,
+            @Param("basePriceSum") long basePriceSum, @Param("capacityValue") long capacityValue);
+
+    @Query("select a from EventAggregate a where a.key.tenantId = :tenantId")
+    List<EventAggregate> findByTenantId(@Param("tenantId") String tenantId);
+
+    /**
+     * 한 테넌트의 여러 집계 단위를 한 번에 읽는다. 상태와 장소의 조합으로 찾으므로 요청하지 않은 단위가 함께 올 수 있다.
+     */
+    @Query("select a from EventAggregate a where a.key.tenantId = :tenantId"
+            + " and a.key.eventStatus in :eventStatuses and a.key.location in :locations")
+    List<EventAggregate> findByStatusesAndLocations(@Param("tenantId") String tenantId,
+                                                    @Param("eventStatuses") Collection<EventStatus> eventStatuses,
+                                                    @Param("locations") Collection<String> locations);
+}
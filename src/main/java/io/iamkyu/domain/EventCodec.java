@@ -0,0 +1,178 @@
+package io.iamkyu.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * 키-값 저장소에 넣는 Event 의 바이너리 형식. 아이디는 키이므로 넣지 않는다.
+ *
+ * [형식 byte][필드 비트 varint][값...]. 비트는 null 이 아닌 필드와 boolean 값을 나타내고, 값은 비트 순서대로 쓴다.
+ * 정수는 zigzag varint, 문자열은 길이(varint) + UTF-8, 날짜는 UTC 기준 epoch 초(varint) + 나노초(varint)다.
+ * EventStatus 는 이름 대신 순서값으로 쓰므로 상수는 끝에만 추가하고, 필드를 추가하면 FORMAT 을 올린다.
+ */
+final class EventCodec {
+    private static final byte FORMAT = 1;
+
+    private static final int VERSION = 1;
+    private static final int NAME = 1 << 1;
+    private static final int DESCRIPTION = 1 << 2;
+    private static final int BEGIN_ENROLLMENT = 1 << 3;
+    private static final int CLOSE_ENROLLMENT = 1 << 4;
+    private static final int BEGIN_EVENT = 1 << 5;
+    private static final int END_EVENT = 1 << 6;
+    private static final int LOCATION = 1 << 7;
+    private static final int STATUS = 1 << 8;
+    private static final int TENANT = 1 << 9;
+    private static final int OFFLINE = 1 << 10;
+    private static final int FREE = 1 << 11;
+
+    private static final EventStatus[] STATUSES = EventStatus.values();
+
+    private EventCodec() {
+    }
+
+    static byte[] encode(Event event) {
+        int fields = (event.getVersion() != null ? VERSION : 0)
+                | (event.getName() != null ? NAME : 0)
+                | (event.getDescription() != null ? DESCRIPTION : 0)
+                | (event.getBeginEnrollmentDateTime() != null ? BEGIN_ENROLLMENT : 0)
+                | (event.getCloseEnrollmentDateTime() != null ? CLOSE_ENROLLMENT : 0)
+                | (event.getBeginEventDateTime() != null ? BEGIN_EVENT : 0)
+                | (event.getEndEventDateTime() != null ? END_EVENT : 0)
+                | (event.getLocation() != null ? LOCATION : 0)
+                | (event.getEventStatus() != null ? STATUS : 0)
+                | (event.getTenantId() != null ? TENANT : 0)
+                | (event.isOffline() ? OFFLINE : 0)
+                | (event.isFree() ? FREE : 0);
+
+        Writer out = new Writer();
+        out.writeByte(FORMAT);
+        out.writeVarLong(fields);
+        if (event.getVersion() != null) {
+            out.writeVarLong(event.getVersion());
+        }
+        out.writeString(event.getName());
+        out.writeString(event.getDescription());
+        out.writeDateTime(event.getBeginEnrollmentDateTime());
+        out.writeDateTime(event.getCloseEnrollmentDateTime());
+        out.writeDateTime(event.getBeginEventDateTime());
+        out.writeDateTime(event.getEndEventDateTime());
+        out.writeString(event.getLocation());
+        if (event.getEventStatus() != null) {
+            out.writeVarLong(event.getEventStatus().ordinal());
+        }
+        out.writeString(event.getTenantId());
+        out.writeVarLong(zigzag(event.getBasePrice()));
+        out.writeVarLong(zigzag(event.getMaxPrice()));
+        out.writeVarLong(zigzag(event.getLimitOfEnrollment()));
+        return out.toByteArray();
+    }
+
+    static Event decode(int id, ByteBuffer in) {
+        byte format = in.get();
+        if (format != FORMAT) {
+            throw new IllegalStateException("Unsupported event format " + format + " for event " + id);
+        }
+        int fields = (int) readVarLong(in);
+        return Event.builder()
+                .id(id)
+                .version((fields & VERSION) != 0 ? readVarLong(in) : null)
+                .name((fields & NAME) != 0 ? readString(in) : null)
+                .description((fields & DESCRIPTION) != 0 ? readString(in) : null)
+                .beginEnrollmentDateTime((fields & BEGIN_ENROLLMENT) != 0 ? readDateTime(in) : null)
+                .closeEnrollmentDateTime((fields & CLOSE_ENROLLMENT) != 0 ? readDateTime(in) : null)
+                .beginEventDateTime((fields & BEGIN_EVENT) != 0 ? readDateTime(in) : null)
+                .endEventDateTime((fields & END_EVENT) != 0 ? readDateTime(in) : null)
+                .location((fields & LOCATION) != 0 ? readString(in) : null)
+                .eventStatus((fields & STATUS) != 0 ? STATUSES[(int) readVarLong(in)] : null)
+                .tenantId((fields & TENANT) != 0 ? readString(in) : null)
+                .basePrice(unzigzag(readVarLong(in)))
+                .maxPrice(unzigzag(readVarLong(in)))
+                .limitOfEnrollment(unzigzag(readVarLong(in)))
+                .offline((fields & OFFLINE) != 0)
+                .free((fields & FREE) != 0)
+                .build();
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        long seconds = readVarLong(in);
+        int nanos = (int) readVarLong(in);
+        return LocalDateTime.ofEpochSecond((seconds >>> 1) ^ -(seconds & 1), nanos, ZoneOffset.UTC);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int unzigzag(long value) {
+        return (int) ((value >>> 1) ^ -(value & 1));
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[64];
+        private int size;
+
+        void writeByte(int b) {
+            ensure(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeDateTime(LocalDateTime value) {
+            if (value == null) {
+                return;
+            }
+            writeVarLong(zigzag(value.toEpochSecond(ZoneOffset.UTC)));
+            writeVarLong(value.getNano());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.iamkyu.domain;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+
+/**
+ * Event 엔티티 리스너. 하이버네이트가 스프링 빈으로 가져다 쓴다.
+ * EventCounter 는 EntityManagerFactory 가 만들어진 뒤에 만들 수 있으므로 지연해서 가져온다.
+ * 롤백된 생성, 삭제가 개수에 남지 않도록 트랜잭션의 증감을 모아 커밋된 뒤에 반영한다.
+ */
+@Component
+public class EventCountListener {
+    private final ObjectProvider<EventCounter> eventCounter;
+
+    public EventCountListener(ObjectProvider<EventCounter> eventCounter) {
+        this.eventCounter = eventCounter;
+    }
+
+    @PostPersist
+    public void created(Event event) {
+        afterCommit(1);
+    }
+
+    // 삭제 표시할 때 이미 뺐으므로 삭제 표시된 이벤트를 지울 때는 세지 않는다.
+    @PostRemove
+    public void removed(Event event) {
+        if (!event.isDeleted()) {
+            afterCommit(-1);
+        }
+    }
+
+    private void afterCommit(int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(delta);
+            return;
+        }
+        PendingDelta pending = (PendingDelta) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDelta();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.delta += delta;
+    }
+
+    private void apply(int delta) {
+        if (delta > 0) {
+            eventCounter.getObject().created(delta);
+        } else if (delta < 0) {
+            eventCounter.getObject().removed(-delta);
+        }
+    }
+
+    private class PendingDelta extends TransactionSynchronizationAdapter {
+        private int delta;
+
+        @Override
+        public void afterCommit() {
+            apply(delta);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EventCountListener.this);
+        }
+    }
+}
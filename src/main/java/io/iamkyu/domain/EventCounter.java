@@ -0,0 +1,74 @@
+package io.iamkyu.domain;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 목록 조회의 전체 개수를 매번 count 쿼리로 세지 않도록 메모리에 유지한다.
+ * 생성, 삭제, 보관 시 증감하고 주기적으로 정확한 값으로 맞춘다.
+ * 다른 인스턴스의 변경은 다음 맞춤 때까지 반영되지 않으므로 근사값이다.
+ */
+@Component
+public class EventCounter {
+    private static final long UNKNOWN = -1;
+
+    private final EventRepository eventRepository;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final AtomicLong events = new AtomicLong(UNKNOWN);
+    private final AtomicLong archivedEvents = new AtomicLong(UNKNOWN);
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    public EventCounter(EventRepository eventRepository, ArchivedEventRepository archivedEventRepository,
+                        MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.archivedEventRepository = archivedEventRepository;
+        Gauge.builder("events.count.drift", lastDrift, AtomicLong::get)
+                .description("Difference between the maintained and the exact event count at the last reconciliation")
+                .register(meterRegistry);
+    }
+
+    public long countEvents() {
+        if (events.get() == UNKNOWN) {
+            reconcile();
+        }
+        return Math.max(events.get(), 0);
+    }
+
+    public long countArchivedEvents() {
+        if (archivedEvents.get() == UNKNOWN) {
+            reconcile();
+        }
+        return Math.max(archivedEvents.get(), 0);
+    }
+
+    public void created(int count) {
+        add(events, count);
+    }
+
+    public void removed(int count) {
+        add(events, -count);
+    }
+
+    public void archived(int count) {
+        add(events, -count);
+        add(archivedEvents, count);
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.count.reconcile-interval-millis:60000}")
+    public void reconcile() {
+        long exact = eventRepository.count();
+        long previous = events.getAndSet(exact);
+        if (previous != UNKNOWN) {
+            lastDrift.set(previous - exact);
+        }
+        archivedEvents.set(archivedEventRepository.count());
+    }
+
+    private void add(AtomicLong counter, int delta) {
+        counter.updateAndGet(current -> current == UNKNOWN ? UNKNOWN : current + delta);
+    }
+}
@@ -0,0 +1,35 @@
+package io.iamkyu.domain;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Event 아이디를 DB 시퀀스에서 블록 단위로 가져와 메모리에서 나누어 준다.
+ * 시퀀스가 블록 시작값을 나누어 주므로 여러 인스턴스가 같은 아이디를 받지 않는다.
+ *
+ * spring.jpa.properties 로 설정한다.
+ * - app.event-id.allocation-size: 한 번에 가져오는 아이디 수 (기본 50, 시퀀스의 increment by 와 같아야 한다)
+ * - app.event-id.optimizer: pooled-lo(기본), pooled, none
+ */
+public class EventIdGenerator extends SequenceStyleGenerator {
+    public static final String SEQUENCE_NAME = "event_seq";
+    static final String ALLOCATION_SIZE_SETTING = "app.event-id.allocation-size";
+    static final String OPTIMIZER_SETTING = "app.event-id.optimizer";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        ConfigurationService settings = serviceRegistry.getService(ConfigurationService.class);
+        params.setProperty(SEQUENCE_PARAM, SEQUENCE_NAME);
+        params.setProperty(INCREMENT_PARAM, String.valueOf(
+                settings.getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, 50)));
+        params.setProperty(OPT_PARAM,
+                settings.getSetting(OPTIMIZER_SETTING, StandardConverters.STRING, "pooled-lo"));
+        super.configure(type, params, serviceRegistry);
+    }
+}
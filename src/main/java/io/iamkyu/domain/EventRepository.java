@@ -1,6 +1,139 @@
 package io.iamkyu.domain;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 
-public interface EventRepository extends JpaRepository<Event, Integer> {
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+/**
+ * 모든 쿼리는 삭제 표시된 이벤트를 거른다(deletedAt is null). 삭제 표시는 곧 지워지므로 적고,
+ * 인덱스로 범위를 좁히거나 정렬한 결과에서 거르므로 쿼리 계획은 바뀌지 않는다.
+ * findById 는 2차 캐시를 쓰므로 거르지 않는다. 호출하는 쪽에서 Event#isDeleted 로 확인한다.
+ * JPA 가 아닌 구현(KeyValueEventRepository)도 있으므로 JpaRepository 대신 애플리케이션이 쓰는 메서드만 선언한다.
+ */
+public interface EventRepository extends PagingAndSortingRepository<Event, Integer> {
+    String LIVE = "e.deletedAt is null";
+    String OVERLAPPING = "select e from Event e"
+            + " where e.endEventDateTime > :from and e.beginEventDateTime < :to and " + LIVE
+            + " order by e.endEventDateTime, e.id";
+    String ENROLLMENT_OPEN_AT = "select e from Event e"
+            + " where e.closeEnrollmentDateTime > :at and e.beginEnrollmentDateTime <= :at and " + LIVE
+            + " order by e.closeEnrollmentDateTime, e.id";
+    String AGGREGATE = "select new io.iamkyu.domain.EventAggregateDelta(e.tenantId, e.eventStatus, e.location, e.free,"
+            + " count(e), sum(cast(e.basePrice as long)),"
+            + " sum(cast(e.maxPrice as long) * cast(e.limitOfEnrollment as long)))"
+            + " from Event e where " + LIVE;
+    String AGGREGATE_GROUP = " group by e.tenantId, e.eventStatus, e.location, e.free";
+
+    @Override
+    List<Event> findAll();
+
+    @Override
+    List<Event> findAll(Sort sort);
+
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query(value = "select e from Event e where " + LIVE, countQuery = "select count(e) from Event e where " + LIVE)
+    Page<Event> findAll(Pageable pageable);
+
+    @Override
+    @Query("select count(e) from Event e where " + LIVE)
+    long count();
+
+    @Override
+    @Query("select e from Event e where e.id in :ids and " + LIVE)
+    List<Event> findAllById(@Param("ids") Iterable<Integer> ids);
+
+    @Override
+    <S extends Event> List<S> saveAll(Iterable<S> events);
+
+    <S extends Event> S saveAndFlush(S event);
+
+    void flush();
+
+    /**
+     * count 쿼리 없이 한 페이지를 읽는다. 전체 개수는 EventCounter 를 사용한다.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select e from Event e where " + LIVE)
+    Slice<Event> findSlice(Pageable pageable);
+
+    /**
+     * 샤드마다 읽어 합칠 때 쓴다. 쿼리 캐시 키에는 샤드가 없으므로 캐시하지 않는다.
+     */
+    @Query("select e from Event e where " + LIVE)
+    Slice<Event> findUncachedSlice(Pageable pageable);
+
+    @Query("select distinct e.tenantId from Event e where e.tenantId is not null and " + LIVE)
+    List<String> findTenantIds();
+
+    /**
+     * [from, to) 와 겹치는 이벤트를 종료일 순으로 읽는다. idx_event_end_event 를 from 부터 읽으며
+     * 시작일은 인덱스에 포함된 값으로 거르므로 페이지가 차면 바로 멈춘다.
+     */
+    @Query(OVERLAPPING)
+    Page<Event> findOverlapping(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                Pageable pageable);
+
+    @Query(OVERLAPPING)
+    Slice<Event> findSliceOverlapping(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                      Pageable pageable);
+
+    /**
+     * at 시점에 등록 기간인 이벤트를 등록 마감일 순으로 읽는다(idx_event_close_enrollment).
+     */
+    @Query(ENROLLMENT_OPEN_AT)
+    Page<Event> findEnrollmentOpenAt(@Param("at") LocalDateTime at, Pageable pageable);
+
+    @Query(ENROLLMENT_OPEN_AT)
+    Slice<Event> findSliceEnrollmentOpenAt(@Param("at") LocalDateTime at, Pageable pageable);
+
+    @Query("select e.id from Event e where e.endEventDateTime < :threshold and " + LIVE
+            + " order by e.endEventDateTime, e.id")
+    List<Integer> findIdsEndedBefore(@Param("threshold") LocalDateTime threshold, Pageable pageable);
+
+    /**
+     * 상태로 일괄 삭제할 이벤트. idx_event_status_begin_event 를 읽는다.
+     */
+    @Query("select e.id from Event e where e.eventStatus = :status and " + LIVE
+            + " order by e.beginEventDateTime, e.id")
+    List<Integer> findIdsByStatus(@Param("status") EventStatus status, Pageable pageable);
+
+    @Query(AGGREGATE + AGGREGATE_GROUP)
+    List<EventAggregateDelta> aggregate();
+
+    @Query(AGGREGATE + " and e.id in :ids" + AGGREGATE_GROUP)
+    List<EventAggregateDelta> aggregateByIds(@Param("ids") List<Integer> ids);
+
+    @Modifying
+    @Query("insert into ArchivedEvent (id, name, description, beginEnrollmentDateTime, closeEnrollmentDateTime,"
+            + " beginEventDateTime, endEventDateTime, location, basePrice, maxPrice, limitOfEnrollment,"
+            + " offline, free, eventStatus, tenantId)"
+            + " select e.id, e.name, e.description, e.beginEnrollmentDateTime, e.closeEnrollmentDateTime,"
+            + " e.beginEventDateTime, e.endEventDateTime, e.location, e.basePrice, e.maxPrice, e.limitOfEnrollment,"
+            + " e.offline, e.free, e.eventStatus, e.tenantId"
+            + " from Event e where e.id in :ids and " + LIVE)
+    int copyToArchive(@Param("ids") List<Integer> ids);
+
+    @Modifying
+    @Query("delete from Event e where e.id in :ids")
+    int deleteByIds(@Param("ids") List<Integer> ids);
+
+    /**
+     * 버전을 올려 삭제 표시한다. 수정과 겹치면 수정 쪽이 버전 충돌로 알게 된다.
+     */
+    @Modifying
+    @Query("update Event e set e.deletedAt = :deletedAt, e.version = e.version + 1 where e.id in :ids and " + LIVE)
+    int markDeleted(@Param("ids") List<Integer> ids, @Param("deletedAt") LocalDateTime deletedAt);
 }
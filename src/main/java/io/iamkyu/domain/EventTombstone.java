@@ -0,0 +1,28 @@
+package io.iamkyu.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * 삭제 표시된 이벤트 아이디. event 테이블에는 deleted_at 인덱스가 없으므로
+ * 지울 이벤트는 이 테이블의 기본 키 순서로 찾는다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "event_tombstone")
+public class EventTombstone {
+    @Id
+    private Integer id;
+    private LocalDateTime deletedAt;
+
+    public EventTombstone(Integer id, LocalDateTime deletedAt) {
+        this.id = id;
+        this.deletedAt = deletedAt;
+    }
+}
@@ -0,0 +1,18 @@
+package io.iamkyu.domain;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EventTombstoneRepository extends JpaRepository<EventTombstone, Integer> {
+    @Query("select t.id from EventTombstone t order by t.id")
+    List<Integer> findIds(Pageable pageable);
+
+    @Modifying
+    @Query("delete from EventTombstone t where t.id in :ids")
+    int deleteByIds(@Param("ids") List<Integer> ids);
+}
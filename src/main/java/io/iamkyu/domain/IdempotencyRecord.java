@@ -0,0 +1,71 @@
+package io.iamkyu.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Lob;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key 로 처리한 쓰기 요청의 응답. 처리 중이면 completed 가 false 이다.
+ * 인스턴스 사이에서 같은 키를 한 번만 처리하도록 아이디(메서드, 경로, 테넌트와 클라이언트와 키의 해시)에 기본 키 제약을 건다.
+ * 새 기록은 merge 하지 않고 insert 해서, 다른 요청이 먼저 넣은 기록을 덮어쓰지 않고 기본 키 위반으로 실패한다.
+ */
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "idempotency_record", indexes = @Index(name = "idx_idempotency_expires", columnList = "expiresAt"))
+public class IdempotencyRecord implements Persistable<String> {
+    @Id
+    @Column(length = 512)
+    private String id;
+    private String fingerprint;
+    private boolean completed;
+    private int status;
+    private String contentType;
+    private String location;
+    @Lob
+    private byte[] body;
+    private LocalDateTime expiresAt;
+    @Transient
+    private boolean persisted;
+
+    public IdempotencyRecord(String id, String fingerprint, LocalDateTime expiresAt) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.expiresAt = expiresAt;
+    }
+
+    public void complete(int status, String contentType, String location, byte[] body, LocalDateTime expiresAt) {
+        this.completed = true;
+        this.status = status;
+        this.contentType = contentType;
+        this.location = location;
+        this.body = body;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return expiresAt.isBefore(now);
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
@@ -0,0 +1,25 @@
+package io.iamkyu.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * 만료된 기록을 새 처리 중 기록으로 바꾼다. 동시에 가져가려는 요청 중 하나만 1을 받는다.
+     */
+    @Modifying
+    @Query("update IdempotencyRecord r set r.fingerprint = :fingerprint, r.completed = false, r.status = 0, "
+            + "r.contentType = null, r.location = null, r.body = null, r.expiresAt = :expiresAt "
+            + "where r.id = :id and r.expiresAt < :now")
+    int takeOverExpired(@Param("id") String id, @Param("fingerprint") String fingerprint,
+                        @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
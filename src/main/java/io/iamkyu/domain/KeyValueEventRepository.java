@@ -0,0 +1,519 @@
+package io.iamkyu.domain;
+
+import io.iamkyu.common.LogStructuredStore;
+import io.iamkyu.common.SortComparator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * 내장 키-값 저장소(LogStructuredStore)에 이벤트를 두는 EventRepository. kv-store 프로파일에서 JPA 구현 대신 쓴다.
+ *
+ * 값은 EventCodec 으로 인코딩하고, 아이디 순서와 두 보조 인덱스(beginEventDateTime, id 와
+ * eventStatus, beginEventDateTime, id)는 메모리에 두고 저장소를 열 때 다시 만든다. 목록 조회의 허용된 정렬
+ * (EventSortPolicy)은 이 인덱스 순서로 읽고, 그 밖의 정렬과 기간 조회는 전체를 읽어 거른다.
+ *
+ * 쓰기는 바로 저장소에 반영되며 JPA 트랜잭션과 함께 롤백되지 않는다. 삭제 표시한 이벤트는 표시하는 대신
+ * 지우고(로그의 삭제 레코드가 tombstone 이다), 공간은 저장소의 compact 가 회수한다.
+ */
+public class KeyValueEventRepository implements EventRepository {
+    private static final long SEQUENCE_KEY = -1;
+    private static final int ID_BLOCK = 1000;
+    private static final int LOCK_STRIPES = 64;
+
+    private static final Comparator<IndexKey> BEGIN_EVENT_ORDER =
+            Comparator.comparing((IndexKey key) -> key.beginEventDateTime,
+                    Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                    .thenComparingInt(key -> key.id);
+    // SQL 은 eventStatus 를 문자열로 저장하므로 이름 순으로 정렬한다.
+    private static final Comparator<IndexKey> STATUS_ORDER =
+            Comparator.comparing((IndexKey key) -> key.status == null ? null : key.status.name(),
+                    Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                    .thenComparing(BEGIN_EVENT_ORDER);
+    private static final Comparator<Event> END_EVENT_ORDER =
+            Comparator.comparing(Event::getEndEventDateTime).thenComparing(Event::getId);
+    private static final Comparator<Event> CLOSE_ENROLLMENT_ORDER =
+            Comparator.comparing(Event::getCloseEnrollmentDateTime).thenComparing(Event::getId);
+
+    private final LogStructuredStore store;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final ObjectProvider<EventCounter> eventCounter;
+    private final ConcurrentSkipListSet<Integer> ids = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<IndexKey> byBeginEvent = new ConcurrentSkipListSet<>(BEGIN_EVENT_ORDER);
+    private final ConcurrentSkipListSet<IndexKey> byStatus = new ConcurrentSkipListSet<>(STATUS_ORDER);
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Object sequenceLock = new Object();
+    private int nextId;
+    private int idLimit;
+
+    public KeyValueEventRepository(LogStructuredStore store, ArchivedEventRepository archivedEventRepository,
+                                   ObjectProvider<EventCounter> eventCounter) {
+        this.store = store;
+        this.archivedEventRepository = archivedEventRepository;
+        this.eventCounter = eventCounter;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+
+        int[] maxId = {0};
+        store.forEach((key, value) -> {
+            if (key == SEQUENCE_KEY) {
+                return;
+            }
+            Event event = EventCodec.decode(key.intValue(), value);
+            index(event);
+            maxId[0] = Math.max(maxId[0], event.getId());
+        });
+        Long reserved = store.get(SEQUENCE_KEY, value -> value.getLong());
+        // 이전에 예약한 블록은 쓰다 말았을 수 있으므로 건너뛴다.
+        this.nextId = Math.max(maxId[0] + 1, reserved == null ? 1 : reserved.intValue());
+        this.idLimit = nextId;
+    }
+
+    @Override
+    public Optional<Event> findById(Integer id) {
+        return Optional.ofNullable(load(id));
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return store.contains(id);
+    }
+
+    @Override
+    public List<Event> findAll() {
+        return visible(ids.stream()).collect(toList());
+    }
+
+    @Override
+    public List<Event> findAll(Sort sort) {
+        return read(sort, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Page<Event> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(pageable.getSort()));
+        }
+        return new PageImpl<>(read(pageable.getSort(), pageable.getOffset(), pageable.getPageSize()),
+                pageable, count());
+    }
+
+    @Override
+    public Slice<Event> findSlice(Pageable pageable) {
+        return slice(pageable, read(pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1));
+    }
+
+    @Override
+    public Slice<Event> findUncachedSlice(Pageable pageable) {
+        return findSlice(pageable);
+    }
+
+    @Override
+    public List<Event> findAllById(Iterable<Integer> ids) {
+        return visible(StreamSupport.stream(ids.spliterator(), false)).collect(toList());
+    }
+
+    @Override
+    public long count() {
+        return TenantContext.current() == null ? ids.size() : visible(ids.stream()).count();
+    }
+
+    @Override
+    public List<String> findTenantIds() {
+        return all().map(Event::getTenantId).filter(Objects::nonNull).distinct().collect(toList());
+    }
+
+    @Override
+    public Page<Event> findOverlapping(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        List<Event> matched = overlapping(from, to);
+        return new PageImpl<>(page(matched, pageable, pageable.getPageSize()), pageable, matched.size());
+    }
+
+    @Override
+    public Slice<Event> findSliceOverlapping(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return slice(pageable, page(overlapping(from, to), pageable, pageable.getPageSize() + 1));
+    }
+
+    @Override
+    public Page<Event> findEnrollmentOpenAt(LocalDateTime at, Pageable pageable) {
+        List<Event> matched = enrollmentOpenAt(at);
+        return new PageImpl<>(page(matched, pageable, pageable.getPageSize()), pageable, matched.size());
+    }
+
+    @Override
+    public Slice<Event> findSliceEnrollmentOpenAt(LocalDateTime at, Pageable pageable) {
+        return slice(pageable, page(enrollmentOpenAt(at), pageable, pageable.getPageSize() + 1));
+    }
+
+    @Override
+    public List<Integer> findIdsEndedBefore(LocalDateTime threshold, Pageable pageable) {
+        return all()
+                .filter(event -> event.getEndEventDateTime() != null
+                        && event.getEndEventDateTime().isBefore(threshold))
+                .sorted(END_EVENT_ORDER)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(Event::getId)
+                .collect(toList());
+    }
+
+    @Override
+    public List<Integer> findIdsByStatus(EventStatus status, Pageable pageable) {
+        List<Integer> matched = new ArrayList<>();
+        boolean tenantScoped = TenantContext.current() != null;
+        long skipped = 0;
+        for (IndexKey key : byStatus.tailSet(new IndexKey(status, null, Integer.MIN_VALUE))) {
+            if (key.status != status || matched.size() >= pageable.getPageSize()) {
+                break;
+            }
+            if (tenantScoped) {
+                Event event = load(key.id);
+                if (event == null || !TenantContext.isVisible(event)) {
+                    continue;
+                }
+            }
+            if (skipped < pageable.getOffset()) {
+                skipped++;
+                continue;
+            }
+            matched.add(key.id);
+        }
+        return matched;
+    }
+
+    @Override
+    public List<EventAggregateDelta> aggregate() {
+        return aggregate(visible(ids.stream()));
+    }
+
+    @Override
+    public List<EventAggregateDelta> aggregateByIds(List<Integer> ids) {
+        return aggregate(visible(ids.stream()));
+    }
+
+    @Override
+    public int copyToArchive(List<Integer> ids) {
+        List<ArchivedEvent> archived = ids.stream()
+                .map(this::load)
+                .filter(Objects::nonNull)
+                .map(ArchivedEvent::of)
+                .collect(toList());
+        archivedEventRepository.saveAll(archived);
+        return archived.size();
+    }
+
+    @Override
+    public int deleteByIds(List<Integer> ids) {
+        int deleted = 0;
+        for (Integer id : ids) {
+            if (remove(id) != null) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public int markDeleted(List<Integer> ids, LocalDateTime deletedAt) {
+        return deleteByIds(ids);
+    }
+
+    @Override
+    public <S extends Event> S save(S event) {
+        boolean created;
+        if (event.getId() == null) {
+            event.setId(nextId());
+        }
+        synchronized (lockFor(event.getId())) {
+            Event stored = load(event.getId());
+            if (!Objects.equals(stored == null ? null : stored.getVersion(), event.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Event.class, event.getId());
+            }
+            Long version = event.getVersion();
+            event.setVersion(version == null ? 0 : version + 1);
+            if (event.isDeleted()) {
+                remove(event.getId());
+                return event;
+            }
+            try {
+                store.put(event.getId(), EventCodec.encode(event));
+            } catch (RuntimeException e) {
+                event.setVersion(version);
+                throw e;
+            }
+            index(event);
+            if (stored != null) {
+                unindex(stored, event);
+            }
+            created = stored == null;
+        }
+        if (created) {
+            eventCounter.getObject().created(1);
+        }
+        return event;
+    }
+
+    @Override
+    public <S extends Event> S saveAndFlush(S event) {
+        return save(event);
+    }
+
+    @Override
+    public <S extends Event> List<S> saveAll(Iterable<S> events) {
+        List<S> saved = new ArrayList<>();
+        events.forEach(event -> saved.add(save(event)));
+        return saved;
+    }
+
+    @Override
+    public void flush() {
+        // 쓰기는 바로 저장소에 반영된다.
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        Event event = load(id);
+        if (event == null) {
+            throw new EmptyResultDataAccessException(
+                    String.format("No %s entity with id %s exists!", Event.class, id), 1);
+        }
+        delete(event);
+    }
+
+    @Override
+    public void delete(Event event) {
+        if (remove(event.getId()) != null) {
+            eventCounter.getObject().removed(1);
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Event> events) {
+        events.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        ids.forEach(id -> {
+            if (remove(id) != null) {
+                eventCounter.getObject().removed(1);
+            }
+        });
+    }
+
+    private Event load(Integer id) {
+        return id == null ? null : store.get(id, value -> EventCodec.decode(id, value));
+    }
+
+    private Event remove(Integer id) {
+        synchronized (lockFor(id)) {
+            Event stored = load(id);
+            if (stored == null) {
+                return null;
+            }
+            store.delete(id);
+            ids.remove(id);
+            byBeginEvent.remove(IndexKey.of(stored));
+            byStatus.remove(IndexKey.of(stored));
+            return stored;
+        }
+    }
+
+    private void index(Event event) {
+        ids.add(event.getId());
+        byBeginEvent.add(IndexKey.of(event));
+        byStatus.add(IndexKey.of(event));
+    }
+
+    // 새 키를 넣은 뒤에 이전 키를 빼므로 읽는 쪽이 이벤트를 놓치지 않는다.
+    private void unindex(Event previous, Event current) {
+        IndexKey before = IndexKey.of(previous);
+        IndexKey after = IndexKey.of(current);
+        if (BEGIN_EVENT_ORDER.compare(before, after) != 0) {
+            byBeginEvent.remove(before);
+        }
+        if (STATUS_ORDER.compare(before, after) != 0) {
+            byStatus.remove(before);
+        }
+    }
+
+    private int nextId() {
+        synchronized (sequenceLock) {
+            if (nextId >= idLimit) {
+                idLimit = nextId + ID_BLOCK;
+                store.put(SEQUENCE_KEY, ByteBuffer.allocate(Long.BYTES).putLong(idLimit).array());
+            }
+            return nextId++;
+        }
+    }
+
+    private Object lockFor(Integer id) {
+        return locks[Math.floorMod(id, locks.length)];
+    }
+
+    /**
+     * 허용된 정렬이면 인덱스 순서로 필요한 만큼만 읽고, 아니면 전체를 읽어 정렬한다.
+     */
+    private List<Event> read(Sort sort, long offset, int limit) {
+        Optional<Iterator<Integer>> ordered = indexOrder(sort);
+        if (!ordered.isPresent()) {
+            return visible(ids.stream())
+                    .sorted(SortComparator.of(sort, "id"))
+                    .skip(offset)
+                    .limit(limit)
+                    .collect(toList());
+        }
+
+        Iterator<Integer> iterator = ordered.get();
+        List<Event> content = new ArrayList<>(Math.min(limit, 1024));
+        long skipped = 0;
+        boolean tenantScoped = TenantContext.current() != null;
+        while (iterator.hasNext() && content.size() < limit) {
+            Integer id = iterator.next();
+            // 테넌트로 거르지 않으면 건너뛸 이벤트는 읽지 않는다.
+            if (!tenantScoped && skipped < offset) {
+                skipped++;
+                continue;
+            }
+            Event event = load(id);
+            if (event == null || !TenantContext.isVisible(event)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            content.add(event);
+        }
+        return content;
+    }
+
+    private Optional<Iterator<Integer>> indexOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return Optional.of(ids.iterator());
+        }
+        List<Sort.Order> orders = sort.stream().collect(toList());
+        Sort.Direction direction = orders.get(0).getDirection();
+        List<String> properties = new ArrayList<>();
+        for (Sort.Order order : orders) {
+            if (order.getDirection() != direction || order.isIgnoreCase()) {
+                return Optional.empty();
+            }
+            properties.add(order.getProperty());
+        }
+
+        if (properties.equals(Collections.singletonList("id"))) {
+            return Optional.of(direction.isAscending() ? ids.iterator() : ids.descendingIterator());
+        }
+        NavigableSet<IndexKey> index;
+        if (isPrefix(properties, Arrays.asList("beginEventDateTime", "id"))) {
+            index = byBeginEvent;
+        } else if (isPrefix(properties, Arrays.asList("eventStatus", "beginEventDateTime", "id"))) {
+            index = byStatus;
+        } else {
+            return Optional.empty();
+        }
+        Iterator<IndexKey> keys = direction.isAscending() ? index.iterator() : index.descendingIterator();
+        return Optional.of(new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                return keys.next().id;
+            }
+        });
+    }
+
+    private List<Event> overlapping(LocalDateTime from, LocalDateTime to) {
+        return visible(ids.stream())
+                .filter(event -> event.getEndEventDateTime() != null && event.getBeginEventDateTime() != null
+                        && event.getEndEventDateTime().isAfter(from) && event.getBeginEventDateTime().isBefore(to))
+                .sorted(END_EVENT_ORDER)
+                .collect(toList());
+    }
+
+    private List<Event> enrollmentOpenAt(LocalDateTime at) {
+        return visible(ids.stream())
+                .filter(event -> event.getCloseEnrollmentDateTime() != null
+                        && event.getBeginEnrollmentDateTime() != null
+                        && event.getCloseEnrollmentDateTime().isAfter(at)
+                        && !event.getBeginEnrollmentDateTime().isAfter(at))
+                .sorted(CLOSE_ENROLLMENT_ORDER)
+                .collect(toList());
+    }
+
+    // 목록 조회처럼 현재 테넌트의 이벤트만
+    private Stream<Event> visible(Stream<Integer> ids) {
+        return ids.map(this::load).filter(Objects::nonNull).filter(TenantContext::isVisible);
+    }
+
+    // 보관, 재배치처럼 테넌트와 관계없이 모든 이벤트
+    private Stream<Event> all() {
+        return ids.stream().map(this::load).filter(Objects::nonNull);
+    }
+
+    private static List<Event> page(List<Event> matched, Pageable pageable, int limit) {
+        return matched.stream().skip(pageable.getOffset()).limit(limit).collect(toList());
+    }
+
+    private static Slice<Event> slice(Pageable pageable, List<Event> content) {
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private static List<EventAggregateDelta> aggregate(Stream<Event> events) {
+        Map<EventAggregateKey, EventAggregateDelta> groups = new LinkedHashMap<>();
+        events.map(EventAggregateDelta::of)
+                .forEach(delta -> groups.merge(delta.getKey(), delta, (a, b) -> a.minus(b.negate())));
+        return new ArrayList<>(groups.values());
+    }
+
+    private static boolean isPrefix(List<String> properties, List<String> columns) {
+        return properties.size() <= columns.size() && columns.subList(0, properties.size()).equals(properties);
+    }
+
+    private static final class IndexKey {
+        private final EventStatus status;
+        private final LocalDateTime beginEventDateTime;
+        private final int id;
+
+        IndexKey(EventStatus status, LocalDateTime beginEventDateTime, int id) {
+            this.status = status;
+            this.beginEventDateTime = beginEventDateTime;
+            this.id = id;
+        }
+
+        static IndexKey of(Event event) {
+            return new IndexKey(event.getEventStatus(), event.getBeginEventDateTime(), event.getId());
+        }
+    }
+}
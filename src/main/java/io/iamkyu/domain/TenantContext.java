@@ -0,0 +1,49 @@
+package io.iamkyu.domain;
+
+/**
+ * 현재 요청의 테넌트. 설정되어 있으면 이벤트 조회는 그 테넌트의 이벤트만 보고, 새 이벤트는 그 테넌트에 속한다.
+ * 목록 조회는 Hibernate 필터(FILTER)로 거르고, 아이디 조회는 isVisible 로 확인한다.
+ */
+public final class TenantContext {
+    public static final String FILTER = "tenant";
+    public static final String FILTER_PARAMETER = "tenantId";
+
+    private static final ThreadLocal<String> TENANT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        return TENANT.get();
+    }
+
+    public static void set(String tenantId) {
+        if (tenantId == null) {
+            TENANT.remove();
+        } else {
+            TENANT.set(tenantId);
+        }
+    }
+
+    public static void clear() {
+        TENANT.remove();
+    }
+
+    /**
+     * 다른 스레드로 넘긴 작업을 요청한 테넌트로 실행한다. 끝나면 이전 테넌트로 되돌린다.
+     */
+    public static void run(String tenantId, Runnable task) {
+        String previous = TENANT.get();
+        set(tenantId);
+        try {
+            task.run();
+        } finally {
+            set(previous);
+        }
+    }
+
+    public static boolean isVisible(Event event) {
+        String tenantId = TENANT.get();
+        return tenantId == null || tenantId.equals(event.getTenantId());
+    }
+}
@@ -0,0 +1,161 @@
+package io.iamkyu.app;
+
+import io.iamkyu.common.TestDescription;
+import io.iamkyu.domain.ArchivedEvent;
+import io.iamkyu.domain.ArchivedEventRepository;
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventCounter;
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.EventStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EventFinderTest {
+
+    @Test
+    @TestDescription("같은 이벤트를 동시에 조회하면 쿼리는 한 번만 실행된다")
+    public void findById_burst() throws Exception {
+        //given
+        int burst = 50;
+        Event event = Event.builder().id(1).name("viral").build();
+        CountDownLatch release = new CountDownLatch(1);
+
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findById(1)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(event);
+        });
+        EventFinder eventFinder = new EventFinder(eventRepository, mock(ArchivedEventRepository.class),
+                mock(EventCounter.class), mock(EventAccessTracker.class), new SimpleMeterRegistry());
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(burst);
+        List<Future<Optional<Event>>> results = new ArrayList<>();
+        for (int i = 0; i < burst; i++) {
+            results.add(executor.submit(() -> eventFinder.findById(1)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (eventFinder.findByIdFlight().collapsed() < burst - 1) {
+            if (System.nanoTime() > deadline) {
+                release.countDown();
+                executor.shutdownNow();
+                fail("Only " + eventFinder.findByIdFlight().collapsed() + " of " + (burst - 1)
+                        + " calls joined the in-flight query within 5 seconds");
+            }
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        //then
+        for (Future<Optional<Event>> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).contains(event);
+        }
+        executor.shutdown();
+
+        verify(eventRepository, times(1)).findById(1);
+        assertThat(eventFinder.findByIdFlight().executions()).isEqualTo(1);
+        assertThat(eventFinder.findByIdFlight().collapsed()).isEqualTo(burst - 1);
+    }
+
+    @Test
+    @TestDescription("이전 조회가 끝난 뒤의 조회는 다시 쿼리를 실행한다")
+    public void findById_sequential() {
+        //given
+        EventRepository eventRepository = mock(EventRepository.class);
+        when(eventRepository.findById(1)).thenReturn(Optional.empty());
+        EventFinder eventFinder = new EventFinder(eventRepository, mock(ArchivedEventRepository.class),
+                mock(EventCounter.class), mock(EventAccessTracker.class), new SimpleMeterRegistry());
+
+        //when
+        eventFinder.findById(1);
+        eventFinder.findById(1);
+
+        //then
+        verify(eventRepository, times(2)).findById(1);
+    }
+
+    @Test
+    @TestDescription("보관된 이벤트와 합칠 때 eventStatus 는 데이터베이스와 같이 이름 순으로 정렬한다")
+    public void findAll_includeArchived_byStatus() {
+        //given
+        EventRepository eventRepository = mock(EventRepository.class);
+        ArchivedEventRepository archivedEventRepository = mock(ArchivedEventRepository.class);
+        when(eventRepository.findSlice(any())).thenReturn(new SliceImpl<>(Arrays.asList(
+                event(3, EventStatus.BEGAN_ENROLLEMENT, 2),
+                event(1, EventStatus.DRAFT, 3),
+                event(2, EventStatus.PUBLISHED, 1))));
+        when(archivedEventRepository.findSlice(any())).thenReturn(new SliceImpl<>(Collections.singletonList(
+                ArchivedEvent.of(event(4, EventStatus.DRAFT, 1)))));
+        EventFinder eventFinder = new EventFinder(eventRepository, archivedEventRepository,
+                mock(EventCounter.class), mock(EventAccessTracker.class), new SimpleMeterRegistry());
+        Pageable pageable = PageRequest.of(0, 3, Sort.by("eventStatus", "beginEventDateTime", "id"));
+
+        //when
+        Page<Event> page = eventFinder.findAll(pageable, true);
+
+        //then
+        assertThat(ids(page)).containsExactly(3, 4, 1);
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    @TestDescription("정렬 없이 보관된 이벤트와 합치면 두 테이블 모두 id 순으로 앞부분을 읽는다")
+    public void findAll_includeArchived_unsorted() {
+        //given
+        EventRepository eventRepository = mock(EventRepository.class);
+        ArchivedEventRepository archivedEventRepository = mock(ArchivedEventRepository.class);
+        Pageable head = PageRequest.of(0, 2, Sort.by("id"));
+        when(eventRepository.findSlice(head)).thenReturn(new SliceImpl<>(Arrays.asList(
+                event(2, EventStatus.DRAFT, 1), event(5, EventStatus.DRAFT, 1))));
+        when(archivedEventRepository.findSlice(head)).thenReturn(new SliceImpl<>(Collections.singletonList(
+                ArchivedEvent.of(event(1, EventStatus.DRAFT, 1)))));
+        EventFinder eventFinder = new EventFinder(eventRepository, archivedEventRepository,
+                mock(EventCounter.class), mock(EventAccessTracker.class), new SimpleMeterRegistry());
+
+        //when
+        Page<Event> page = eventFinder.findAll(PageRequest.of(0, 2), true);
+
+        //then
+        verify(eventRepository).findSlice(head);
+        verify(archivedEventRepository).findSlice(head);
+        assertThat(ids(page)).containsExactly(1, 2);
+    }
+
+    private static List<Integer> ids(Page<Event> page) {
+        return page.getContent().stream().map(Event::getId).collect(toList());
+    }
+
+    private static Event event(int id, EventStatus status, int date) {
+        return Event.builder()
+                .id(id)
+                .eventStatus(status)
+                .beginEventDateTime(LocalDateTime.of(2018, 12, date, 0, 0))
+                .build();
+    }
+}
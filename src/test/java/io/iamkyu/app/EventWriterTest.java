@@ -0,0 +1,160 @@
+package io.iamkyu.app;
+
+import io.iamkyu.common.TestDescription;
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventAggregateRepository;
+import io.iamkyu.domain.EventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.update.max-attempts=100")
+public class EventWriterTest {
+    private static final int UPDATES = 400;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private EventWriter eventWriter;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventAggregateRepository aggregateRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @After
+    public void tearDown() {
+        eventRepository.deleteAll();
+        aggregateRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @TestDescription("한 이벤트를 동시에 수정해도 성공한 수정은 잃어버리지 않고, 같은 필드를 다투면 충돌로 거절한다")
+    public void concurrentUpdates() throws Exception {
+        //given
+        Event event = eventWriter.create(Event.builder()
+                .name("Event")
+                .description("Foo bar")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 12, 1, 0, 0))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 12, 10, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2018, 12, 24, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2018, 12, 25, 0, 0))
+                .basePrice(10000)
+                .maxPrice(50000)
+                .limitOfEnrollment(100)
+                .location("서울특별시")
+                .build());
+        double appliedBefore = updates("applied");
+        double mergedBefore = updates("merged");
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> futures = new ArrayList<>();
+        for (int i = 0; i < UPDATES; i++) {
+            int n = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return update(event.getId(), n);
+            }));
+        }
+        start.countDown();
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<Outcome> future : futures) {
+            outcomes.add(future.get(1, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+
+        //then
+        List<Outcome> succeeded = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            if (outcome.saved != null) {
+                succeeded.add(outcome);
+            } else {
+                assertThat(outcome.conflict.getConflicts())
+                        .extracting(EventUpdateConflict.FieldConflict::getField)
+                        .containsExactly(outcome.field.name());
+            }
+        }
+        assertThat(succeeded).isNotEmpty();
+
+        Event updated = eventRepository.findById(event.getId()).get();
+        assertThat(updated.getVersion()).isEqualTo(event.getVersion() + succeeded.size());
+        assertThat(updated.getName()).isEqualTo(lastValue(succeeded, EventField.NAME, event.getName()));
+        assertThat(updated.getLocation()).isEqualTo(lastValue(succeeded, EventField.LOCATION, event.getLocation()));
+        assertThat(updates("applied") - appliedBefore + updates("merged") - mergedBefore)
+                .isEqualTo(succeeded.size());
+    }
+
+    // 클라이언트처럼 이벤트를 읽고, 읽은 버전으로 필드 하나(짝수는 name, 홀수는 location)만 바꿔 보낸다.
+    private Outcome update(Integer id, int n) {
+        Event source = eventRepository.findById(id).get();
+        EventField field = n % 2 == 0 ? EventField.NAME : EventField.LOCATION;
+        EventUpdateRequest request = EventUpdateRequest.builder()
+                .name(field == EventField.NAME ? "Name " + n : source.getName())
+                .description(source.getDescription())
+                .beginEnrollmentDateTime(source.getBeginEnrollmentDateTime())
+                .closeEnrollmentDateTime(source.getCloseEnrollmentDateTime())
+                .beginEventDateTime(source.getBeginEventDateTime())
+                .endEventDateTime(source.getEndEventDateTime())
+                .location(field == EventField.LOCATION ? "Location " + n : source.getLocation())
+                .basePrice(source.getBasePrice())
+                .maxPrice(source.getMaxPrice())
+                .limitOfEnrollment(source.getLimitOfEnrollment())
+                .version(source.getVersion())
+                .build();
+        try {
+            return new Outcome(field, eventWriter.update(source, request), null);
+        } catch (EventUpdateConflictException e) {
+            return new Outcome(field, null, e.getConflict());
+        }
+    }
+
+    private static Object lastValue(List<Outcome> succeeded, EventField field, Object initial) {
+        return succeeded.stream()
+                .filter(outcome -> outcome.field == field)
+                .max(Comparator.comparing(outcome -> outcome.saved.getVersion()))
+                .map(outcome -> EventField.valuesOf(outcome.saved).get(field))
+                .orElse(initial);
+    }
+
+    private double updates(String result) {
+        return meterRegistry.get("events.updates").tag("result", result).counter().count();
+    }
+
+    private static class Outcome {
+        private final EventField field;
+        private final Event saved;
+        private final EventUpdateConflict conflict;
+
+        Outcome(EventField field, Event saved, EventUpdateConflict conflict) {
+            this.field = field;
+            this.saved = saved;
+            this.conflict = conflict;
+        }
+    }
+}
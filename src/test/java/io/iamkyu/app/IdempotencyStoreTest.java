@@ -0,0 +1,82 @@
+package io.iamkyu.app;
+
+import io.iamkyu.common.TestDescription;
+import io.iamkyu.domain.IdempotencyRecord;
+import io.iamkyu.domain.IdempotencyRecordRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdempotencyStoreTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @After
+    public void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @TestDescription("처리 중인 키는 다시 기록하지 않는다")
+    public void begin_pending() {
+        //given
+        assertThat(store.begin("POST /api/events key", "fingerprint")).isTrue();
+
+        //when then
+        assertThat(store.begin("POST /api/events key", "fingerprint")).isFalse();
+    }
+
+    @Test
+    @TestDescription("만료된 기록을 동시에 가져가려 하면 하나만 성공하고 나머지는 예외 없이 실패한다")
+    public void begin_expired_동시요청() throws Exception {
+        //given
+        String key = "POST /api/events expired";
+        repository.saveAndFlush(new IdempotencyRecord(key, "old", LocalDateTime.now().minusMinutes(1)));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return store.begin(key, "new");
+            }));
+        }
+        start.countDown();
+
+        //then
+        int begun = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get(10, TimeUnit.SECONDS)) {
+                begun++;
+            }
+        }
+        executor.shutdown();
+        assertThat(begun).isEqualTo(1);
+        assertThat(repository.findById(key).get().getFingerprint()).isEqualTo("new");
+    }
+}
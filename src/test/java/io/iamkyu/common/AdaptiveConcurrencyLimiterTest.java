@@ -0,0 +1,30 @@
+package io.iamkyu.common;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    @TestDescription("응답 시간이 목표를 넘으면 한도를 줄이고, 목표 안으로 돌아오면 다시 늘린다")
+    public void adaptLimit() {
+        //given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 10, 100);
+
+        //when
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(1_000);
+        }
+
+        //then
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(10);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,63 @@
+package io.iamkyu.common;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchLoaderTest {
+
+    @Test
+    @TestDescription("모아 둔 키는 중복 없이 batchSize 개씩 한 번에 읽고, 없는 키는 null 로 전달한다")
+    public void dispatch() {
+        //given
+        List<List<Integer>> calls = new ArrayList<>();
+        BatchLoader<Integer, String> loader = new BatchLoader<>(keys -> {
+            calls.add(new ArrayList<>(keys));
+            return keys.stream().filter(key -> key != 4).collect(toMap(key -> key, key -> "v" + key));
+        }, 3);
+        Map<Integer, String> values = new HashMap<>();
+        for (int key : Arrays.asList(1, 2, 1, 3, 4, 2)) {
+            loader.load(key, value -> values.put(key, value));
+        }
+        assertThat(calls).isEmpty();
+
+        //when
+        loader.dispatch();
+
+        //then
+        assertThat(calls).containsExactly(Arrays.asList(1, 2, 3), Arrays.asList(4));
+        assertThat(loader.batches()).isEqualTo(2);
+        assertThat(values).containsEntry(1, "v1").containsEntry(3, "v3").containsEntry(4, null);
+    }
+
+    @Test
+    @TestDescription("이미 읽은 키는 다시 읽지 않고, 값을 받은 쪽에서 요청한 키는 이어서 읽는다")
+    public void nestedLoads() {
+        //given
+        List<Collection<Integer>> calls = new ArrayList<>();
+        BatchLoader<Integer, Integer> loader = new BatchLoader<>(keys -> {
+            calls.add(new ArrayList<>(keys));
+            return keys.stream().collect(toMap(key -> key, key -> key * 10));
+        }, 100);
+        List<Integer> values = new ArrayList<>();
+        loader.load(1, value -> loader.load(value, values::add));
+        loader.load(2, values::add);
+
+        //when
+        loader.dispatch();
+        loader.load(2, values::add);
+        loader.dispatch();
+
+        //then
+        assertThat(calls).containsExactly(Arrays.asList(1, 2), Arrays.asList(10));
+        assertThat(values).containsExactly(20, 100, 20);
+    }
+}
@@ -0,0 +1,55 @@
+package io.iamkyu.common;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConsistentHashRingTest {
+    private static final int KEYS = 10_000;
+
+    @Test
+    @TestDescription("키는 노드에 고르게 나뉘고 같은 키는 항상 같은 노드로 간다")
+    public void nodeFor_balanced() {
+        //given
+        List<String> nodes = Arrays.asList("shard0", "shard1", "shard2", "shard3");
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(nodes, 160);
+
+        //when
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.nodeFor("tenant-" + i), 1, Integer::sum);
+        }
+
+        //then
+        assertThat(counts.keySet()).containsExactlyInAnyOrderElementsOf(nodes);
+        counts.values().forEach(count -> assertThat(count).isBetween(KEYS / 8, KEYS * 3 / 8));
+        assertThat(new ConsistentHashRing<>(nodes, 160).nodeFor("tenant-42")).isEqualTo(ring.nodeFor("tenant-42"));
+    }
+
+    @Test
+    @TestDescription("노드를 하나 더하면 일부 키만 새 노드로 옮겨진다")
+    public void addNode_movesFewKeys() {
+        //given
+        ConsistentHashRing<String> before = new ConsistentHashRing<>(Arrays.asList("shard0", "shard1", "shard2"), 160);
+        ConsistentHashRing<String> after = new ConsistentHashRing<>(
+                Arrays.asList("shard0", "shard1", "shard2", "shard3"), 160);
+
+        //when
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "tenant-" + i;
+            if (!before.nodeFor(key).equals(after.nodeFor(key))) {
+                assertThat(after.nodeFor(key)).isEqualTo("shard3");
+                moved++;
+            }
+        }
+
+        //then
+        assertThat(moved).isBetween(KEYS / 8, KEYS * 3 / 8);
+    }
+}
@@ -0,0 +1,67 @@
+package io.iamkyu.common;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CountMinSketchTest {
+
+    @Test
+    @TestDescription("추정값은 실제 빈도보다 작지 않고, 자주 나온 키가 더 크게 추정된다")
+    public void estimate() {
+        //given
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        for (int id = 0; id < 5000; id++) {
+            sketch.add(id);
+        }
+        for (int i = 0; i < 100; i++) {
+            sketch.add(42);
+        }
+
+        //when then
+        assertThat(sketch.estimate(42)).isGreaterThanOrEqualTo(101);
+        assertThat(sketch.estimate(7)).isGreaterThanOrEqualTo(1).isLessThan(sketch.estimate(42));
+    }
+
+    @Test
+    @TestDescription("반으로 줄이면 추정값도 반으로 준다")
+    public void halve() {
+        //given
+        CountMinSketch sketch = new CountMinSketch(2, 64);
+        for (int i = 0; i < 10; i++) {
+            sketch.add(1);
+        }
+
+        //when
+        sketch.halve();
+
+        //then
+        assertThat(sketch.estimate(1)).isEqualTo(5);
+    }
+
+    @Test
+    @TestDescription("저장했다가 다시 읽어도 같은 추정값을 준다")
+    public void writeAndRead() throws IOException {
+        //given
+        CountMinSketch sketch = new CountMinSketch(3, 128);
+        for (int i = 0; i < 7; i++) {
+            sketch.add(99);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+
+        //when
+        CountMinSketch read = CountMinSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        //then
+        assertThat(read.getDepth()).isEqualTo(3);
+        assertThat(read.getWidth()).isEqualTo(128);
+        assertThat(read.estimate(99)).isEqualTo(sketch.estimate(99));
+    }
+}
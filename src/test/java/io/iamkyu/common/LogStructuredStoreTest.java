@@ -0,0 +1,134 @@
+package io.iamkyu.common;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogStructuredStoreTest {
+    private static final int REGION_SIZE = 4096;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @TestDescription("저장한 값은 다시 열어도 읽히고, 지운 키는 다시 열어도 없다")
+    public void reopen() throws IOException {
+        //given
+        Path path = folder.getRoot().toPath().resolve("store.kv");
+        try (LogStructuredStore store = new LogStructuredStore(path, REGION_SIZE, false)) {
+            store.put(1, bytes("one"));
+            store.put(2, bytes("two"));
+            store.put(1, bytes("uno"));
+            store.delete(2);
+        }
+
+        //when
+        try (LogStructuredStore store = new LogStructuredStore(path, REGION_SIZE, false)) {
+            //then
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.get(1, LogStructuredStoreTest::string)).isEqualTo("uno");
+            assertThat(store.get(2, LogStructuredStoreTest::string)).isNull();
+        }
+    }
+
+    @Test
+    @TestDescription("레코드는 영역 경계에 걸치지 않고 여러 영역에 나뉘어 저장된다")
+    public void regions() throws IOException {
+        //given
+        Path path = folder.getRoot().toPath().resolve("store.kv");
+        byte[] value = new byte[1000];
+        try (LogStructuredStore store = new LogStructuredStore(path, REGION_SIZE, false)) {
+            for (int key = 0; key < 20; key++) {
+                value[0] = (byte) key;
+                store.put(key, value);
+            }
+        }
+
+        //when
+        try (LogStructuredStore store = new LogStructuredStore(path, REGION_SIZE, false)) {
+            //then
+            assertThat(store.size()).isEqualTo(20);
+            for (int key = 0; key < 20; key++) {
+                assertThat(store.get(key, buffer -> buffer.get(0))).isEqualTo((byte) key);
+                assertThat(store.get(key, ByteBuffer::remaining)).isEqualTo(1000);
+            }
+            assertThat(Files.size(path)).isGreaterThan(REGION_SIZE * 4L);
+        }
+    }
+
+    @Test
+    @TestDescription("쓰다 멈춘 마지막 레코드는 다시 열 때 버리고 그 자리에 이어 쓴다")
+    public void tornTail() throws IOException {
+        //given
+        Path path = folder.getRoot().toPath().resolve("store.kv");
+        try (LogStructuredStore store = new LogStructuredStore(path, REGION_SIZE, false)) {
+            store.put(1, bytes("one"));
+            store.put(2, bytes("two"));
+        }
+        // 두 번째 레코드(헤더 20 바이트 + 첫 번째 값 3 바이트 뒤)의 값을 망가뜨린다.
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes("X")), 23 + 20);
+        }
+
+        //when
+        try (LogStructuredStore store = new LogStructuredStore(path, REGION_SIZE, false)) {
+            assertThat(store.get(1, LogStructuredStoreTest::string)).isEqualTo("one");
+            assertThat(store.contains(2)).isFalse();
+            store.put(3, bytes("three"));
+        }
+
+        //then
+        try (LogStructuredStore store = new LogStructuredStore(path, REGION_SIZE, false)) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.get(3, LogStructuredStoreTest::string)).isEqualTo("three");
+        }
+    }
+
+    @Test
+    @TestDescription("compact 하면 덮어쓴 레코드의 공간을 회수하고 최신 값만 남는다")
+    public void compact() throws IOException {
+        //given
+        Path path = folder.getRoot().toPath().resolve("store.kv");
+        try (LogStructuredStore store = new LogStructuredStore(path, REGION_SIZE, false)) {
+            for (int i = 0; i < 500; i++) {
+                store.put(i % 10, bytes("value-" + i));
+            }
+            assertThat(store.garbageRatio()).isGreaterThan(0.9);
+            long before = Files.size(path);
+
+            //when
+            store.compact();
+
+            //then
+            assertThat(store.garbageRatio()).isLessThan(0.1);
+            assertThat(Files.size(path)).isLessThan(before);
+            assertThat(store.get(3, LogStructuredStoreTest::string)).isEqualTo("value-493");
+            store.put(3, bytes("after"));
+        }
+        try (LogStructuredStore store = new LogStructuredStore(path, REGION_SIZE, false)) {
+            assertThat(store.size()).isEqualTo(10);
+            assertThat(store.get(3, LogStructuredStoreTest::string)).isEqualTo("after");
+            assertThat(store.get(9, LogStructuredStoreTest::string)).isEqualTo("value-499");
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
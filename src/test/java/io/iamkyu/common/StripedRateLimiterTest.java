@@ -0,0 +1,42 @@
+package io.iamkyu.common;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StripedRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @TestDescription("버스트 만큼은 바로 허용하고 이후에는 초당 허용량 만큼만 허용한다")
+    public void burstThenSteadyRate() {
+        //given
+        StripedRateLimiter limiter = new StripedRateLimiter(16, 10, 3, clock::get);
+
+        //when then
+        assertThat(limiter.tryAcquire("client")).isZero();
+        assertThat(limiter.tryAcquire("client")).isZero();
+        assertThat(limiter.tryAcquire("client")).isZero();
+        assertThat(limiter.tryAcquire("client")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limiter.tryAcquire("client")).isZero();
+        assertThat(limiter.tryAcquire("client")).isPositive();
+    }
+
+    @Test
+    @TestDescription("클라이언트마다 별도의 버킷을 사용한다")
+    public void separateClients() {
+        //given
+        StripedRateLimiter limiter = new StripedRateLimiter(1024, 1, 1, clock::get);
+
+        //when then
+        assertThat(limiter.tryAcquire("importer")).isZero();
+        assertThat(limiter.tryAcquire("importer")).isPositive();
+        assertThat(limiter.tryAcquire("dashboard")).isZero();
+    }
+}
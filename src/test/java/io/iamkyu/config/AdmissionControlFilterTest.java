@@ -0,0 +1,97 @@
+package io.iamkyu.config;
+
+import io.iamkyu.common.TestDescription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @TestDescription("허용량을 넘은 클라이언트는 429 와 Retry-After 를 받는다")
+    public void rateLimited_429() throws Exception {
+        //given
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setPermitsPerSecond(1);
+        properties.setBurst(1);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, meterRegistry);
+
+        //when
+        MockHttpServletResponse first = perform(filter, "GET", "10.0.0.1", null);
+        MockHttpServletResponse second = perform(filter, "GET", "10.0.0.1", null);
+        MockHttpServletResponse other = perform(filter, "GET", "10.0.0.2", null);
+
+        //then
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(429);
+        assertThat(second.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(other.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("api.admission.rejections")
+                .tag("reason", "rate-limit").tag("kind", "read")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("클라이언트 아이디 헤더는 믿도록 설정했을 때만 속도 제한의 키로 쓴다")
+    public void rateLimited_clientIdHeader() throws Exception {
+        //given
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setPermitsPerSecond(1);
+        properties.setBurst(1);
+        AdmissionControlFilter untrusted = new AdmissionControlFilter(properties, meterRegistry);
+        properties.setTrustClientIdHeader(true);
+        AdmissionControlFilter trusted = new AdmissionControlFilter(properties, meterRegistry);
+
+        //when
+        perform(untrusted, "GET", "10.0.0.1", "client-1");
+        MockHttpServletResponse untrustedOther = perform(untrusted, "GET", "10.0.0.1", "client-2");
+        perform(trusted, "GET", "10.0.0.1", "client-1");
+        MockHttpServletResponse trustedOther = perform(trusted, "GET", "10.0.0.1", "client-2");
+
+        //then
+        assertThat(untrustedOther.getStatus()).isEqualTo(429);
+        assertThat(trustedOther.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @TestDescription("쓰기 동시 처리 한도를 넘으면 503 과 Retry-After 를 받는다")
+    public void loadShed_503() throws Exception {
+        //given
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setMinConcurrency(1);
+        properties.setWriteConcurrency(1);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, meterRegistry);
+
+        //when
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/events");
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/events"), shed, new MockFilterChain()));
+
+        //then
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(meterRegistry.get("api.admission.rejections")
+                .tag("reason", "load-shed").tag("kind", "write")
+                .counter().count()).isEqualTo(1);
+    }
+
+    private MockHttpServletResponse perform(AdmissionControlFilter filter, String method, String remoteAddr,
+                                            String clientId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/events");
+        request.setRemoteAddr(remoteAddr);
+        if (clientId != null) {
+            request.addHeader("X-Client-Id", clientId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
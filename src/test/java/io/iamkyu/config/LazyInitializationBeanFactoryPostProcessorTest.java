@@ -0,0 +1,47 @@
+package io.iamkyu.config;
+
+import io.iamkyu.common.TestDescription;
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyInitializationBeanFactoryPostProcessorTest {
+
+    @Test
+    @TestDescription("스스로 동작해야 하는 @Scheduled 빈과 러너는 지연 생성하지 않는다")
+    public void eagerBeans() {
+        //given
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("plain", new RootBeanDefinition(Plain.class));
+        beanFactory.registerBeanDefinition("scheduled", new RootBeanDefinition(ScheduledJob.class));
+        beanFactory.registerBeanDefinition("runner", new RootBeanDefinition(Runner.class));
+
+        //when
+        new LazyInitializationBeanFactoryPostProcessor().postProcessBeanFactory(beanFactory);
+
+        //then
+        assertThat(beanFactory.getBeanDefinition("plain").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("scheduled").isLazyInit()).isFalse();
+        assertThat(beanFactory.getBeanDefinition("runner").isLazyInit()).isFalse();
+    }
+
+    static class Plain {
+    }
+
+    static class ScheduledJob {
+        @Scheduled(fixedDelay = 1000)
+        public void run() {
+        }
+    }
+
+    static class Runner implements ApplicationRunner {
+        @Override
+        public void run(ApplicationArguments args) {
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.iamkyu.config;
+
+import io.iamkyu.common.TestDescription;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+
+    @Test
+    @TestDescription("쓰기에 성공한 클라이언트의 읽기만 프라이머리로 보내고, 클라이언트 아이디 헤더로는 구분하지 않는다")
+    public void write_sticksClient() throws Exception {
+        //when
+        perform("POST", "/api/events", "10.0.0.1", "client-1");
+
+        //then
+        assertThat(perform("GET", "/api/events", "10.0.0.1", "client-2")).isTrue();
+        assertThat(perform("GET", "/api/events", "10.0.0.2", "client-1")).isFalse();
+    }
+
+    @Test
+    @TestDescription("본문으로 조건을 받는 다건 조회와 쿼리는 읽기로 본다")
+    public void postReads_notSticky() throws Exception {
+        //when
+        perform("POST", "/api/events/multi-get", "10.0.0.1", null);
+        perform("POST", "/api/query", "10.0.0.1", null);
+
+        //then
+        assertThat(perform("GET", "/api/events", "10.0.0.1", null)).isFalse();
+    }
+
+    // 요청을 처리하는 동안 프라이머리로 보내도록 표시되었는지 돌려준다.
+    private boolean perform(String method, String uri, String remoteAddr, String clientId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        if (clientId != null) {
+            request.addHeader("X-Client-Id", clientId);
+        }
+        AtomicBoolean primaryForced = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> primaryForced.set(ReplicaRoutingContext.isPrimaryForced()));
+        return primaryForced.get();
+    }
+}
@@ -0,0 +1,136 @@
+package io.iamkyu.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.iamkyu.common.TestDescription;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica1 = mock(DataSource.class);
+    private final DataSource replica2 = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+    private ReplicaRoutingDataSource dataSource;
+
+    @Before
+    public void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+        when(replica1Connection.isValid(1)).thenReturn(true);
+        when(replica2Connection.isValid(1)).thenReturn(true);
+        dataSource = new ReplicaRoutingDataSource(primary, Arrays.asList(replica1, replica2),
+                ReplicaProperties.Selection.ROUND_ROBIN, Duration.ofHours(1));
+    }
+
+    @After
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingContext.clear();
+        dataSource.destroy();
+    }
+
+    @Test
+    @TestDescription("읽기 전용이 아닌 트랜잭션은 프라이머리를 사용한다")
+    public void write_primary() throws SQLException {
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @TestDescription("읽기 전용 트랜잭션은 레플리카를 번갈아 사용한다")
+    public void readOnly_roundRobin() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replica1Connection);
+        assertThat(dataSource.getConnection()).isSameAs(replica2Connection);
+        assertThat(dataSource.getConnection()).isSameAs(replica1Connection);
+    }
+
+    @Test
+    @TestDescription("쓰기 직후의 읽기는 프라이머리를 사용한다")
+    public void readYourWrites_primary() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingContext.forcePrimary();
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @TestDescription("커넥션을 얻지 못한 레플리카는 헬스 체크를 통과할 때까지 제외된다")
+    public void unhealthyReplica_ejected() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replica1.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(dataSource.getConnection()).isSameAs(replica2Connection);
+        assertThat(dataSource.getConnection()).isSameAs(replica2Connection);
+
+        doReturn(replica1Connection).when(replica1).getConnection();
+        dataSource.checkHealth();
+        assertThat(Arrays.asList(dataSource.getConnection(), dataSource.getConnection()))
+                .containsExactlyInAnyOrder(replica1Connection, replica2Connection);
+    }
+
+    @Test
+    @TestDescription("H2 두 개로 읽기 전용 트랜잭션은 레플리카, 나머지는 프라이머리에서 읽고 종료하면 풀을 닫는다")
+    public void h2_routing() throws SQLException {
+        //given
+        HikariDataSource h2Primary = h2("replica-test-primary", "primary");
+        HikariDataSource h2Replica = h2("replica-test-replica", "replica");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(h2Primary,
+                Collections.singletonList(h2Replica), ReplicaProperties.Selection.ROUND_ROBIN, Duration.ofHours(1));
+
+        //when then
+        try {
+            assertThat(nodeOf(routing)).isEqualTo("primary");
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertThat(nodeOf(routing)).isEqualTo("replica");
+        } finally {
+            routing.destroy();
+        }
+        assertThat(h2Primary.isClosed()).isTrue();
+        assertThat(h2Replica.isClosed()).isTrue();
+    }
+
+    private static HikariDataSource h2(String database, String node) throws SQLException {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + database);
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(2);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists node(name varchar(20))");
+            statement.execute("delete from node");
+            statement.execute("insert into node values ('" + node + "')");
+        }
+        return dataSource;
+    }
+
+    private static String nodeOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select name from node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
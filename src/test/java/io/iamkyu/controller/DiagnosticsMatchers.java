@@ -0,0 +1,33 @@
+package io.iamkyu.controller;
+
+import io.iamkyu.config.DiagnosticsFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * X-Diagnostics: true 로 보낸 요청이 실행한 SQL 개수를 검증한다.
+ */
+public final class DiagnosticsMatchers {
+    public static final String DIAGNOSTICS_HEADER = "X-Diagnostics";
+
+    private DiagnosticsMatchers() {
+    }
+
+    public static ResultMatcher sqlCount(int expected) {
+        return result -> assertThat(sqlCountOf(result.getResponse().getHeader(DiagnosticsFilter.SQL_COUNT_HEADER)))
+                .as("SQL statements: %s", result.getResponse().getHeaders(DiagnosticsFilter.SQL_HEADER))
+                .isEqualTo(expected);
+    }
+
+    public static ResultMatcher sqlCountAtMost(int max) {
+        return result -> assertThat(sqlCountOf(result.getResponse().getHeader(DiagnosticsFilter.SQL_COUNT_HEADER)))
+                .as("SQL statements: %s", result.getResponse().getHeaders(DiagnosticsFilter.SQL_HEADER))
+                .isLessThanOrEqualTo(max);
+    }
+
+    private static int sqlCountOf(String header) {
+        assertThat(header).as("%s header", DiagnosticsFilter.SQL_COUNT_HEADER).isNotNull();
+        return Integer.parseInt(header);
+    }
+}
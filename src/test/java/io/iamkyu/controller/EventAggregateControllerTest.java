@@ -0,0 +1,132 @@
+package io.iamkyu.controller;
+
+import io.iamkyu.app.EventAggregator;
+import io.iamkyu.app.EventCreateRequest;
+import io.iamkyu.app.EventUpdateRequest;
+import io.iamkyu.common.TestDescription;
+import io.iamkyu.domain.EventAggregateRepository;
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.EventStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EventAggregateControllerTest extends ControllerTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventAggregateRepository aggregateRepository;
+
+    @Autowired
+    private EventAggregator aggregator;
+
+    @Before
+    @After
+    public void cleanUp() {
+        eventRepository.deleteAll();
+        aggregateRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @TestDescription("생성, 수정한 이벤트의 집계를 조회한다")
+    public void queryAggregates_200() throws Exception {
+        //given
+        createEvent("서울특별시", 0, 0, 100);
+        Integer paidId = createEvent("부산광역시", 1000, 5000, 10);
+        EventUpdateRequest updateRequest = EventUpdateRequest.builder()
+                .name("Updated Event")
+                .description("Foo bar")
+                .beginEnrollmentDateTime(december(1))
+                .closeEnrollmentDateTime(december(10))
+                .beginEventDateTime(december(24))
+                .endEventDateTime(december(25))
+                .location("서울특별시")
+                .basePrice(2000)
+                .maxPrice(4000)
+                .limitOfEnrollment(20)
+                .build();
+        mockMvc.perform(put("/api/events/{id}", paidId)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON)
+                .content(mapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+
+        //when then
+        mockMvc.perform(get("/api/events/aggregates").accept(MediaTypes.HAL_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("eventCount").value(2))
+                .andExpect(jsonPath("capacityValue").value(80000))
+                .andExpect(jsonPath("averageBasePrice").value(1000.0))
+                .andExpect(jsonPath("byStatus.length()").value(1))
+                .andExpect(jsonPath("byStatus[0].eventStatus").value(EventStatus.DRAFT.name()))
+                .andExpect(jsonPath("byStatus[0].free").value(1))
+                .andExpect(jsonPath("byStatus[0].paid").value(1))
+                .andExpect(jsonPath("byLocation.length()").value(1))
+                .andExpect(jsonPath("byLocation[0].location").value("서울특별시"))
+                .andExpect(jsonPath("_links.self").exists())
+                .andExpect(jsonPath("_links.profile").exists());
+
+        assertThat(aggregator.check()).isZero();
+    }
+
+    @Test
+    @TestDescription("집계가 어긋나면 다시 집계한 값으로 보정한다")
+    public void checkAggregates_보정() throws Exception {
+        //given
+        createEvent("서울특별시", 1000, 5000, 10);
+        eventRepository.deleteAll();
+
+        //when
+        int drift = aggregator.check();
+
+        //then
+        assertThat(drift).isEqualTo(1);
+        assertThat(aggregator.check()).isZero();
+        mockMvc.perform(get("/api/events/aggregates").accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("eventCount").value(0));
+    }
+
+    private Integer createEvent(String location, int basePrice, int maxPrice, int limitOfEnrollment)
+            throws Exception {
+        EventCreateRequest request = EventCreateRequest.builder()
+                .name("Event")
+                .description("Foo bar")
+                .beginEnrollmentDateTime(december(1))
+                .closeEnrollmentDateTime(december(10))
+                .beginEventDateTime(december(24))
+                .endEventDateTime(december(25))
+                .location(location)
+                .basePrice(basePrice)
+                .maxPrice(maxPrice)
+                .limitOfEnrollment(limitOfEnrollment)
+                .build();
+        String response = mockMvc.perform(post("/api/events")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON)
+                .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response).get("id").asInt();
+    }
+
+    private LocalDateTime december(int date) {
+        return LocalDateTime.of(2018, 12, date, 0, 0);
+    }
+}
@@ -1,23 +1,53 @@
 package io.iamkyu.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.iamkyu.app.EventArchiver;
 import io.iamkyu.app.EventCreateRequest;
+import io.iamkyu.app.EventMultiGetRequest;
+import io.iamkyu.app.EventMultiGetter;
+import io.iamkyu.app.EventPurger;
 import io.iamkyu.app.EventUpdateRequest;
 import io.iamkyu.common.TestDescription;
+import io.iamkyu.config.IdempotencyFilter;
+import io.iamkyu.domain.ArchivedEventRepository;
 import io.iamkyu.domain.Event;
 import io.iamkyu.domain.EventRepository;
 import io.iamkyu.domain.EventStatus;
+import io.iamkyu.domain.EventTombstoneRepository;
+import io.iamkyu.domain.IdempotencyRecordRepository;
 import org.junit.After;
 import org.junit.Test;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static io.iamkyu.config.BinaryMessageConverterConfig.APPLICATION_CBOR_VALUE;
+import static io.iamkyu.config.BinaryMessageConverterConfig.APPLICATION_SMILE_VALUE;
+import static io.iamkyu.controller.DiagnosticsMatchers.DIAGNOSTICS_HEADER;
+import static io.iamkyu.controller.DiagnosticsMatchers.sqlCountAtMost;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.hateoas.MediaTypes.HAL_JSON_UTF8_VALUE;
 import static org.springframework.http.HttpHeaders.ACCEPT;
 import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
@@ -33,6 +63,7 @@ import static org.springframework.restdocs.payload.PayloadDocumentation.requestF
 import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
 import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
 import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
@@ -42,6 +73,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class EventControllerTest extends ControllerTest {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String ADMIN_HEADER = "X-Admin-Token";
+    private static final String ADMIN_TOKEN = "test-admin-token";
 
     @Autowired
     private EventRepository eventRepository;
@@ -49,9 +83,27 @@ public class EventControllerTest extends ControllerTest {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private ArchivedEventRepository archivedEventRepository;
+
+    @Autowired
+    private EventArchiver eventArchiver;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private EventTombstoneRepository eventTombstoneRepository;
+
+    @Autowired
+    private EventPurger eventPurger;
+
     @After
     public void tearDown() {
         eventRepository.deleteAll();
+        archivedEventRepository.deleteAllInBatch();
+        idempotencyRecordRepository.deleteAllInBatch();
+        eventTombstoneRepository.deleteAllInBatch();
     }
 
     @Test
@@ -130,6 +182,7 @@ public class EventControllerTest extends ControllerTest {
                                 fieldWithPath("offline").description("오프라인 이벤트 여부"),
                                 fieldWithPath("free").description("무료 이벤트 여부"),
                                 fieldWithPath("eventStatus").description("이벤트 상태"),
+                                fieldWithPath("version").description("이벤트 버전. 수정 요청의 version 으로 보낸다"),
                                 fieldWithPath("_links.self.href").description("자신을 가르키는 링크"),
                                 fieldWithPath("_links.profile.href").description("프로필을 가르키는 링크"),
                                 fieldWithPath("_links.query-events.href").description("이벤트들을 조회하는 링크"),
@@ -138,6 +191,96 @@ public class EventControllerTest extends ControllerTest {
                 ));
     }
 
+    @Test
+    @TestDescription("같은 Idempotency-Key 로 다시 생성하면 처음 응답을 돌려준다")
+    public void createEvent_idempotencyKey_201() throws Exception {
+        //given
+        String body = mapper.writeValueAsString(createRequest("Idempotent Event"));
+        String location = mockMvc.perform(post("/api/events")
+                .header(IDEMPOTENCY_KEY, "create-1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON)
+                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getHeader(LOCATION);
+
+        //when then
+        mockMvc.perform(post("/api/events")
+                .header(IDEMPOTENCY_KEY, "create-1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON)
+                .content(body))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(header().string(LOCATION, location))
+                .andExpect(jsonPath("name").value("Idempotent Event"));
+
+        mockMvc.perform(post("/api/events")
+                .header(IDEMPOTENCY_KEY, "create-1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON)
+                .content(mapper.writeValueAsString(createRequest("Other Event"))))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertThat(eventRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("다른 클라이언트가 같은 Idempotency-Key 로 생성하면 각자의 이벤트를 만든다")
+    public void createEvent_idempotencyKey_다른클라이언트_201() throws Exception {
+        //given
+        String body = mapper.writeValueAsString(createRequest("Idempotent Event"));
+        for (String remoteAddr : new String[]{"10.0.0.1", "10.0.0.2"}) {
+            //when then
+            mockMvc.perform(post("/api/events")
+                    .with(request -> {
+                        request.setRemoteAddr(remoteAddr);
+                        return request;
+                    })
+                    .header(IDEMPOTENCY_KEY, "create-1")
+                    .contentType(MediaType.APPLICATION_JSON_UTF8)
+                    .accept(MediaTypes.HAL_JSON)
+                    .content(body))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+        }
+        assertThat(eventRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @TestDescription("같은 Idempotency-Key 로 동시에 생성해도 이벤트는 하나만 만든다")
+    public void createEvent_idempotencyKey_동시요청_201() throws Exception {
+        //given
+        String body = mapper.writeValueAsString(createRequest("Concurrent Event"));
+        int requests = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //when
+        List<Future<MockHttpServletResponse>> futures = IntStream.range(0, requests)
+                .mapToObj(i -> executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/events")
+                            .header(IDEMPOTENCY_KEY, "concurrent-1")
+                            .contentType(MediaType.APPLICATION_JSON_UTF8)
+                            .accept(MediaTypes.HAL_JSON)
+                            .content(body))
+                            .andReturn().getResponse();
+                }))
+                .collect(toList());
+        start.countDown();
+
+        //then
+        for (Future<MockHttpServletResponse> future : futures) {
+            MockHttpServletResponse response = future.get(10, TimeUnit.SECONDS);
+            assertThat(response.getStatus()).isEqualTo(201);
+        }
+        executor.shutdown();
+        assertThat(eventRepository.count()).isEqualTo(1);
+    }
+
     @Test
     public void createEvent_알수없는_파라미터_400() throws Exception {
         //given
@@ -291,6 +434,7 @@ public class EventControllerTest extends ControllerTest {
                                 fieldWithPath("_embedded.eventList[].offline").description("오프라인 이벤트 여부"),
                                 fieldWithPath("_embedded.eventList[].free").description("무료 이벤트 여부"),
                                 // fieldWithPath("_embedded.eventList[].eventStatus").description("이벤트 상태"),
+                                fieldWithPath("_embedded.eventList[].version").description("이벤트 버전"),
                                 fieldWithPath("_embedded.eventList[]._links.self.href").description("자신을 가르키는 링크"),
 
                                 fieldWithPath("_links.first.href").description("첫 페이지를 가르키는 링크"),
@@ -348,12 +492,352 @@ public class EventControllerTest extends ControllerTest {
                                 fieldWithPath("offline").description("오프라인 이벤트 여부"),
                                 fieldWithPath("free").description("무료 이벤트 여부"),
                                 // fieldWithPath("eventStatus").description("이벤트 상태"),
+                                fieldWithPath("version").description("이벤트 버전. 수정 요청의 version 으로 보낸다"),
                                 fieldWithPath("_links.self.href").description("자신을 가르키는 링크"),
                                 fieldWithPath("_links.profile.href").description("프로필을 가르키는 링크")
                         )
                 ));
     }
 
+    @Test
+    @TestDescription("전체 개수 없이 페이징 된 이벤트 조회")
+    public void queryEvents_totals_false_200() throws Exception {
+        //given
+        generateEventsCountOf(15);
+
+        //when then
+        mockMvc.perform(get("/api/events")
+                .param("page", "0")
+                .param("size", "10")
+                .param("totals", "false")
+                .accept(MediaTypes.HAL_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+                .andExpect(jsonPath("page.hasNext").value(true))
+                .andExpect(jsonPath("page.totalElements").doesNotExist())
+                .andExpect(jsonPath("_links.next.href").exists())
+                .andExpect(jsonPath("_links.prev").doesNotExist());
+    }
+
+    @Test
+    @TestDescription("진단 모드로 조회하면 실행한 SQL 개수와 Server-Timing 을 응답한다")
+    public void queryEvents_diagnostics_200() throws Exception {
+        //given
+        Event event = generateEvent(1);
+        generateEventsCountOf(14);
+        mockMvc.perform(delete("/api/admin/diagnostics").header(ADMIN_HEADER, ADMIN_TOKEN))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/events").param("size", "10").accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk());
+
+        //when then
+        mockMvc.perform(get("/api/events")
+                .param("size", "10")
+                .header(DIAGNOSTICS_HEADER, "true")
+                .accept(MediaTypes.HAL_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+                .andExpect(header().string("Server-Timing", containsString("db;dur=")))
+                .andExpect(sqlCountAtMost(1));
+
+        mockMvc.perform(get("/api/events/{id}", event.getId())
+                .header(DIAGNOSTICS_HEADER, "true")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(sqlCountAtMost(1));
+
+        mockMvc.perform(get("/api/events/not-a-handler/x").header(DIAGNOSTICS_HEADER, "true"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/admin/diagnostics").header(ADMIN_HEADER, ADMIN_TOKEN))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("['GET /api/events'].requests").value(1))
+                .andExpect(jsonPath("['GET /api/events/{id}'].requests").value(1))
+                .andExpect(jsonPath("UNMATCHED.requests").value(1));
+        mockMvc.perform(get("/api/admin/diagnostics"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @TestDescription("기간과 겹치는 이벤트 조회")
+    public void queryEvents_overlaps_200() throws Exception {
+        //given
+        Event before = generateEvent(1, december(1), december(3));
+        Event overlapsStart = generateEvent(2, december(5), december(11));
+        Event inside = generateEvent(3, december(12), december(13));
+        Event overlapsEnd = generateEvent(4, december(14), december(20));
+        Event after = generateEvent(5, december(21), december(24));
+
+        //when then
+        mockMvc.perform(get("/api/events")
+                .param("overlaps", "2018-12-10T00:00,2018-12-15T00:00")
+                .param("totals", "true")
+                .accept(MediaTypes.HAL_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(3))
+                .andExpect(jsonPath("_embedded.eventList[*].id").value(contains(
+                        overlapsStart.getId(), inside.getId(), overlapsEnd.getId())))
+                .andExpect(jsonPath("_links.profile").exists());
+
+        mockMvc.perform(get("/api/events")
+                .param("overlaps", "2018-12-15T00:00,2018-12-10T00:00")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/events")
+                .param("overlaps", "2018-12-10T00:00,2018-12-15T00:00")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.hasNext").value(false))
+                .andExpect(jsonPath("page.totalElements").doesNotExist());
+
+        mockMvc.perform(get("/api/events")
+                .param("overlaps", "2018-12-10T00:00,2018-12-15T00:00")
+                .param("ids", String.valueOf(inside.getId()))
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].code").value("conflictingFilters"));
+    }
+
+    @Test
+    @TestDescription("특정 시점에 등록 기간인 이벤트 조회")
+    public void queryEvents_enrollmentOpenAt_200() throws Exception {
+        //given
+        generateEventsCountOf(3);
+        Event open = generateEvent(10, december(5), december(20));
+        open.setBeginEnrollmentDateTime(december(1));
+        open.setCloseEnrollmentDateTime(december(3));
+        eventRepository.save(open);
+
+        //when then
+        mockMvc.perform(get("/api/events")
+                .param("enrollmentOpenAt", "2018-12-02T12:00")
+                .accept(MediaTypes.HAL_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(4))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(open.getId()))
+                .andExpect(jsonPath("page.hasNext").value(false));
+
+        mockMvc.perform(get("/api/events")
+                .param("enrollmentOpenAt", "2018-12-10T00:00")
+                .param("totals", "true")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(0));
+    }
+
+    @Test
+    @TestDescription("지원하지 않는 정렬로 이벤트 조회")
+    public void queryEvents_지원하지_않는_정렬_400() throws Exception {
+        mockMvc.perform(get("/api/events")
+                .param("sort", "location,ASC")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].code").value("unsupportedSort"))
+                .andExpect(jsonPath("_links.index").exists());
+    }
+
+    @Test
+    @TestDescription("보존 기간이 지난 이벤트는 보관되고, includeArchived 로 함께 조회한다")
+    public void queryEvents_includeArchived_200() throws Exception {
+        //given
+        Event ended = generateEvent(1);
+        Event upcoming = generateEvent(2);
+        upcoming.setEndEventDateTime(LocalDateTime.now().plusDays(1));
+        eventRepository.save(upcoming);
+
+        //when
+        int archived = eventArchiver.archive();
+
+        //then
+        assertThat(archived).isEqualTo(1);
+
+        mockMvc.perform(get("/api/events")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(1))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(upcoming.getId()));
+
+        mockMvc.perform(get("/api/events")
+                .param("includeArchived", "true")
+                .param("sort", "id,ASC")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(2))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(ended.getId()))
+                .andExpect(jsonPath("_embedded.eventList[1].id").value(upcoming.getId()));
+
+        mockMvc.perform(get("/api/events/{id}", ended.getId())
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/events/{id}", ended.getId())
+                .param("includeArchived", "true")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value(ended.getName()));
+    }
+
+    @Test
+    @TestDescription("CBOR, Smile 포맷으로 페이징 된 이벤트 조회")
+    public void queryEvents_binary_200() throws Exception {
+        //given
+        generateEventsCountOf(30);
+
+        byte[] json = mockMvc.perform(get("/api/events")
+                .accept(MediaTypes.HAL_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        for (JsonFactory factory : Arrays.asList(new CBORFactory(), new SmileFactory())) {
+            String mediaType = factory instanceof CBORFactory ? APPLICATION_CBOR_VALUE : APPLICATION_SMILE_VALUE;
+
+            //when
+            byte[] binary = mockMvc.perform(get("/api/events")
+                    .accept(mediaType))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(CONTENT_TYPE, mediaType))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            //then
+            JsonNode node = new ObjectMapper(factory).readTree(binary);
+            assertThat(node.at("/_embedded/eventList/0/_links/self/href").asText()).isNotEmpty();
+            assertThat(node.at("/page/totalElements").asInt()).isEqualTo(30);
+            assertThat(binary.length).isLessThan(json.length);
+        }
+    }
+
+    @Test
+    @TestDescription("Accept 헤더가 없으면 HAL JSON 으로 응답")
+    public void queryEvent_defaultMediaType_200() throws Exception {
+        Event event = generateEvent(1);
+
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CONTENT_TYPE, HAL_JSON_UTF8_VALUE));
+    }
+
+    @Test
+    @TestDescription("Accept 가 application/json 이면 링크 없이 이벤트만 응답")
+    public void queryEvent_leanJson_200() throws Exception {
+        //given
+        Event event = generateEvent(1);
+
+        //when
+        String body = mockMvc.perform(get("/api/events/{id}", event.getId())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(jsonPath("_links").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        //then
+        assertThat(mapper.readTree(body)).isEqualTo(mapper.valueToTree(event));
+    }
+
+    @Test
+    @TestDescription("links=none 이면 HAL 을 요청해도 링크 없는 목록을 응답")
+    public void queryEvents_linksNone_200() throws Exception {
+        //given
+        generateEventsCountOf(30);
+
+        //when then
+        mockMvc.perform(get("/api/events")
+                .param("links", "none")
+                .param("page", "1")
+                .param("size", "10")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE))
+                .andExpect(jsonPath("content.length()").value(10))
+                .andExpect(jsonPath("content[0]._links").doesNotExist())
+                .andExpect(jsonPath("page.totalElements").value(30))
+                .andExpect(jsonPath("_links").doesNotExist());
+
+        mockMvc.perform(get("/api/events")
+                .param("links", "none")
+                .param("totals", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.hasNext").value(true))
+                .andExpect(jsonPath("page.totalElements").doesNotExist());
+    }
+
+    @Test
+    @TestDescription("여러 아이디의 이벤트를 한 번에 조회")
+    public void queryEventsByIds_200() throws Exception {
+        //given
+        List<Event> events = generateEventsCountOf(3);
+        int missingId = Integer.MIN_VALUE;
+        String ids = Stream.of(events.get(2).getId(), missingId, events.get(0).getId())
+                .map(String::valueOf)
+                .collect(joining(","));
+
+        //when then
+        mockMvc.perform(get("/api/events")
+                .param("ids", ids)
+                .accept(MediaTypes.HAL_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(2))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(events.get(2).getId()))
+                .andExpect(jsonPath("_embedded.eventList[1].id").value(events.get(0).getId()))
+                .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+                .andExpect(jsonPath("missingIds[0]").value(missingId))
+                .andDo(document("multi-get-events"));
+    }
+
+    @Test
+    @TestDescription("조회할 아이디가 비었거나 숫자가 아니면 400")
+    public void queryEventsByIds_400() throws Exception {
+        mockMvc.perform(get("/api/events")
+                .param("ids", "")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].code").value("wrongIds"));
+
+        mockMvc.perform(get("/api/events")
+                .param("ids", "1,two")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].code").value("wrongIds"));
+    }
+
+    @Test
+    @TestDescription("요청 본문의 아이디 목록으로 이벤트를 한 번에 조회")
+    public void multiGetEvents_200() throws Exception {
+        //given
+        List<Event> events = generateEventsCountOf(EventMultiGetter.CHUNK_SIZE + 1);
+        List<Integer> ids = events.stream().map(Event::getId).collect(toList());
+        Collections.reverse(ids);
+        EventMultiGetRequest request = EventMultiGetRequest.builder().ids(ids).build();
+
+        //when then
+        mockMvc.perform(post("/api/events/multi-get")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON)
+                .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.eventList.length()").value(ids.size()))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(ids.get(0)))
+                .andExpect(jsonPath("missingIds").isEmpty());
+    }
+
+    @Test
+    @TestDescription("빈 아이디 목록으로 이벤트를 한 번에 조회")
+    public void multiGetEvents_빈_아이디_400() throws Exception {
+        EventMultiGetRequest request = EventMultiGetRequest.builder().build();
+
+        mockMvc.perform(post("/api/events/multi-get")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON)
+                .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @TestDescription("존재하지 않는 이벤트 조회")
     public void queryNotExistEvent_404() throws Exception {
@@ -414,12 +898,86 @@ public class EventControllerTest extends ControllerTest {
                                 fieldWithPath("offline").description("오프라인 이벤트 여부"),
                                 fieldWithPath("free").description("무료 이벤트 여부"),
                                 // fieldWithPath("eventStatus").description("이벤트 상태"),
+                                fieldWithPath("version").description("이벤트 버전. 수정 요청의 version 으로 보낸다"),
                                 fieldWithPath("_links.self.href").description("자신을 가르키는 링크"),
                                 fieldWithPath("_links.profile.href").description("프로필을 가르키는 링크")
                         )
                 ));
     }
 
+    @Test
+    @TestDescription("읽은 버전 이후 다른 필드가 수정됐으면 병합해서 수정한다")
+    public void updateEvent_merged_200() throws Exception {
+        //given
+        Event event = generateEvent(1);
+        EventUpdateRequest nameRequest = modelMapper.map(event, EventUpdateRequest.class);
+        nameRequest.setName("Updated Name");
+        EventUpdateRequest locationRequest = modelMapper.map(event, EventUpdateRequest.class);
+        locationRequest.setLocation("부산광역시");
+
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .content(mapper.writeValueAsString(nameRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk());
+
+        //when then
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .content(mapper.writeValueAsString(locationRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Updated Name"))
+                .andExpect(jsonPath("location").value("부산광역시"))
+                .andExpect(jsonPath("version").value(event.getVersion() + 2));
+    }
+
+    @Test
+    @TestDescription("읽은 버전 이후 같은 필드가 다른 값으로 수정됐으면 409 와 차이를 응답한다")
+    public void updateEvent_conflict_409() throws Exception {
+        //given
+        Event event = generateEvent(1);
+        EventUpdateRequest firstRequest = modelMapper.map(event, EventUpdateRequest.class);
+        firstRequest.setName("First Name");
+        EventUpdateRequest secondRequest = modelMapper.map(event, EventUpdateRequest.class);
+        secondRequest.setName("Second Name");
+
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .content(mapper.writeValueAsString(firstRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk());
+
+        //when then
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .content(mapper.writeValueAsString(secondRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("id").value(event.getId()))
+                .andExpect(jsonPath("version").value(event.getVersion() + 1))
+                .andExpect(jsonPath("conflicts.length()").value(1))
+                .andExpect(jsonPath("conflicts[0].field").value("name"))
+                .andExpect(jsonPath("conflicts[0].base").value(event.getName()))
+                .andExpect(jsonPath("conflicts[0].requested").value("Second Name"))
+                .andExpect(jsonPath("conflicts[0].current").value("First Name"))
+                .andExpect(jsonPath("_links.event").exists())
+                .andDo(document("update-event-conflict",
+                        responseFields(
+                                fieldWithPath("id").description("이벤트 아이디"),
+                                fieldWithPath("version").description("현재 이벤트 버전"),
+                                fieldWithPath("conflicts[].field").description("충돌한 필드"),
+                                fieldWithPath("conflicts[].base").optional().description("요청이 기준으로 한 버전의 값. 알 수 없으면 null"),
+                                fieldWithPath("conflicts[].requested").description("요청한 값"),
+                                fieldWithPath("conflicts[].current").description("현재 값"),
+                                fieldWithPath("_links.event.href").description("이벤트를 가르키는 링크"),
+                                fieldWithPath("_links.index.href").description("인덱스를 가르키는 링크"),
+                                fieldWithPath("_links.profile.href").description("프로필을 가르키는 링크")
+                        )
+                ));
+    }
+
     @Test
     @TestDescription("존재하지 않는 이벤트 수정 시도")
     public void updateNoExistEvent_404() throws Exception {
@@ -468,6 +1026,103 @@ public class EventControllerTest extends ControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @TestDescription("이벤트를 삭제하면 조회되지 않고, 삭제 표시한 행은 나중에 지운다")
+    public void deleteEvent_204() throws Exception {
+        //given
+        Event event = generateEvent(1);
+        generateEvent(2);
+
+        //when
+        mockMvc.perform(delete("/api/events/{id}", event.getId()))
+                .andDo(print())
+                .andExpect(status().isNoContent())
+                .andDo(document("delete-event"));
+
+        //then
+        mockMvc.perform(get("/api/events/{id}", event.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/events/{id}", event.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/events").accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(1));
+        assertThat(eventRepository.findById(event.getId()).get().isDeleted()).isTrue();
+        assertThat(eventTombstoneRepository.count()).isEqualTo(1);
+
+        assertThat(eventPurger.purge()).isEqualTo(1);
+        assertThat(eventRepository.findById(event.getId())).isEmpty();
+        assertThat(eventTombstoneRepository.count()).isZero();
+    }
+
+    @Test
+    @TestDescription("상태로 이벤트를 일괄 삭제한다")
+    public void deleteEvents_byStatus_200() throws Exception {
+        //given
+        generateEventsCountOf(3);
+        Event published = generateEvent(10);
+        published.setEventStatus(EventStatus.PUBLISHED);
+        eventRepository.save(published);
+
+        //when
+        mockMvc.perform(delete("/api/events")
+                .param("status", EventStatus.DRAFT.name())
+                .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("status").value(EventStatus.DRAFT.name()))
+                .andExpect(jsonPath("deleted").value(3))
+                .andDo(document("delete-events",
+                        requestParameters(
+                                parameterWithName("status").description("삭제할 이벤트의 상태")
+                        ),
+                        responseFields(
+                                fieldWithPath("status").description("삭제한 이벤트의 상태"),
+                                fieldWithPath("deleted").description("삭제한 이벤트 수")
+                        )
+                ));
+
+        //then
+        mockMvc.perform(get("/api/events").accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(1))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(published.getId()));
+        assertThat(eventPurger.purge()).isEqualTo(3);
+        assertThat(eventRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("삭제한 이벤트 수정 시도")
+    public void updateDeletedEvent_404() throws Exception {
+        //given
+        Event event = generateEvent(1);
+        EventUpdateRequest updateRequest = modelMapper.map(event, EventUpdateRequest.class);
+        mockMvc.perform(delete("/api/events/{id}", event.getId()))
+                .andExpect(status().isNoContent());
+
+        //when then
+        mockMvc.perform(put("/api/events/{id}", event.getId())
+                .content(mapper.writeValueAsString(updateRequest))
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    private EventCreateRequest createRequest(String name) {
+        return EventCreateRequest.builder()
+                .name(name)
+                .description("Foo bar")
+                .beginEnrollmentDateTime(december(1))
+                .closeEnrollmentDateTime(december(10))
+                .beginEventDateTime(december(24))
+                .endEventDateTime(december(25))
+                .basePrice(10000)
+                .maxPrice(50000)
+                .limitOfEnrollment(100)
+                .location("서울특별시")
+                .build();
+    }
+
     private Event generateEvent(int id) {
         Event event = Event.builder()
                 .name("Event" + id)
@@ -484,6 +1139,13 @@ public class EventControllerTest extends ControllerTest {
         return eventRepository.save(event);
     }
 
+    private Event generateEvent(int id, LocalDateTime beginEvent, LocalDateTime endEvent) {
+        Event event = generateEvent(id);
+        event.setBeginEventDateTime(beginEvent);
+        event.setEndEventDateTime(endEvent);
+        return eventRepository.save(event);
+    }
+
     private List<Event> generateEventsCountOf(int expectedCount) {
         List<Event> events = IntStream.range(0, expectedCount)
                 .mapToObj(this::generateEvent)
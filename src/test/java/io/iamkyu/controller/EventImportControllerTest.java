@@ -0,0 +1,110 @@
+package io.iamkyu.controller;
+
+import io.iamkyu.common.TestDescription;
+import io.iamkyu.domain.Event;
+import io.iamkyu.domain.EventRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EventImportControllerTest extends ControllerTest {
+    private static final String CSV_HEADER = "name,description,beginEnrollmentDateTime,closeEnrollmentDateTime,"
+            + "beginEventDateTime,endEventDateTime,location,basePrice,maxPrice,limitOfEnrollment\n";
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @After
+    public void tearDown() {
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    @TestDescription("CSV 파일로 이벤트를 가져오고 유효하지 않은 행은 보고한다")
+    public void importEvents_csv_200() throws Exception {
+        String csv = CSV_HEADER
+                + "Event 1,\"Foo, bar\",2018-12-01T00:00,2018-12-10T00:00,2018-12-24T00:00,2018-12-25T00:00,서울특별시,0,0,100\n"
+                + "Event 2,\"Multi\nline\",2018-12-01T00:00,2018-12-10T00:00,2018-12-24T00:00,2018-12-25T00:00,부산광역시,1000,5000,100\n"
+                + "Event 3,Wrong price,2018-12-01T00:00,2018-12-10T00:00,2018-12-24T00:00,2018-12-25T00:00,서울특별시,9000,5000,100\n";
+
+        mockMvc.perform(multipart("/api/events/import")
+                .file(new MockMultipartFile("file", "events.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("rowsRead").value(3))
+                .andExpect(jsonPath("imported").value(2))
+                .andExpect(jsonPath("rejected").value(1))
+                .andExpect(jsonPath("errors[0].row").value(3))
+                .andExpect(jsonPath("errors[0].messages").isNotEmpty());
+
+        List<Event> events = eventRepository.findAll(Sort.by("name"));
+        assertThat(events).extracting(Event::getDescription).containsExactly("Foo, bar", "Multi\nline");
+        assertThat(events.get(0).isFree()).isTrue();
+        assertThat(events.get(1).isOffline()).isTrue();
+    }
+
+    @Test
+    @TestDescription("JSON 배열 파일로 이벤트를 가져온다")
+    public void importEvents_json_200() throws Exception {
+        String json = "[{\"name\":\"Event 1\",\"description\":\"Foo\",\"beginEnrollmentDateTime\":\"2018-12-01T00:00\","
+                + "\"closeEnrollmentDateTime\":\"2018-12-10T00:00\",\"beginEventDateTime\":\"2018-12-24T00:00\","
+                + "\"endEventDateTime\":\"2018-12-25T00:00\",\"location\":\"서울특별시\",\"basePrice\":100,"
+                + "\"maxPrice\":200,\"limitOfEnrollment\":10},"
+                + "{\"description\":\"Missing name\"}]";
+
+        mockMvc.perform(multipart("/api/events/import")
+                .file(new MockMultipartFile("file", "events.json", "application/json",
+                        json.getBytes(StandardCharsets.UTF_8))))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("imported").value(1))
+                .andExpect(jsonPath("rejected").value(1))
+                .andExpect(jsonPath("errors[0].row").value(2));
+
+        assertThat(eventRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("본문으로 보낸 CSV 파일은 multipart 없이 스트리밍으로 가져온다")
+    public void importEvents_body_200() throws Exception {
+        String csv = CSV_HEADER
+                + "Event 1,Foo,2018-12-01T00:00,2018-12-10T00:00,2018-12-24T00:00,2018-12-25T00:00,서울특별시,0,0,100\n";
+
+        mockMvc.perform(post("/api/events/import")
+                .contentType("text/csv")
+                .content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("imported").value(1));
+
+        assertThat(eventRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("Content-Length 가 없는 본문은 가져오지 않는다")
+    public void importEvents_body_411() throws Exception {
+        mockMvc.perform(post("/api/events/import")
+                .contentType("text/csv"))
+                .andExpect(status().isLengthRequired());
+    }
+
+    @Test
+    @TestDescription("알 수 없는 형식의 파일은 가져오지 않는다")
+    public void importEvents_unknownFormat_415() throws Exception {
+        mockMvc.perform(multipart("/api/events/import")
+                .file(new MockMultipartFile("file", "events.txt", "text/plain", new byte[0])))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+}
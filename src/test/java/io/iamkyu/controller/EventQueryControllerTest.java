@@ -0,0 +1,186 @@
+package io.iamkyu.controller;
+
+import io.iamkyu.app.EventCreateRequest;
+import io.iamkyu.app.EventQueryRequest;
+import io.iamkyu.common.TestDescription;
+import io.iamkyu.domain.EventAggregateRepository;
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.EventStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+import static io.iamkyu.controller.DiagnosticsMatchers.DIAGNOSTICS_HEADER;
+import static io.iamkyu.controller.DiagnosticsMatchers.sqlCountAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.requestFields;
+import static org.springframework.restdocs.payload.PayloadDocumentation.responseFields;
+import static org.springframework.restdocs.payload.PayloadDocumentation.subsectionWithPath;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EventQueryControllerTest extends ControllerTest {
+    private static final String QUERY = "{\n"
+            + "  events(status: $status, sort: \"beginEventDateTime,desc\", size: 2) {\n"
+            + "    id\n"
+            + "    name\n"
+            + "    beginEventDateTime\n"
+            + "    aggregate { eventCount basePriceSum }\n"
+            + "  }\n"
+            + "}";
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventAggregateRepository aggregateRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Before
+    @After
+    public void cleanUp() {
+        eventRepository.deleteAll();
+        aggregateRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @TestDescription("선택한 필드와 집계만 쿼리 두 번으로 조회한다")
+    public void queryEvents_200() throws Exception {
+        //given
+        createEvent("Event1", "서울특별시", 1000, 24);
+        Integer second = createEvent("Event2", "서울특별시", 2000, 25);
+        Integer third = createEvent("Event3", "부산광역시", 0, 26);
+
+        //when then
+        query(QUERY, Collections.singletonMap("status", EventStatus.DRAFT.name()))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(sqlCountAtMost(2))
+                .andExpect(jsonPath("events.length()").value(2))
+                .andExpect(jsonPath("events[0].id").value(third))
+                .andExpect(jsonPath("events[0].name").value("Event3"))
+                .andExpect(jsonPath("events[0].beginEventDateTime").exists())
+                .andExpect(jsonPath("events[0].location").doesNotExist())
+                .andExpect(jsonPath("events[0].description").doesNotExist())
+                .andExpect(jsonPath("events[0].aggregate.eventCount").value(1))
+                .andExpect(jsonPath("events[1].id").value(second))
+                .andExpect(jsonPath("events[1].aggregate.eventCount").value(2))
+                .andExpect(jsonPath("events[1].aggregate.basePriceSum").value(3000))
+                .andExpect(jsonPath("page.number").value(0))
+                .andExpect(jsonPath("page.hasNext").value(true))
+                .andDo(document("query-events",
+                        requestFields(
+                                fieldWithPath("query").description("조회할 필드와 조건"),
+                                subsectionWithPath("variables").description("쿼리의 $변수 값")
+                        ),
+                        responseFields(
+                                fieldWithPath("events[].id").description("이벤트 아이디"),
+                                fieldWithPath("events[].name").description("이벤트 이름"),
+                                fieldWithPath("events[].beginEventDateTime").description("이벤트 시작일"),
+                                fieldWithPath("events[].aggregate.eventCount")
+                                        .description("같은 상태, 장소, 무료 여부의 이벤트 수"),
+                                fieldWithPath("events[].aggregate.basePriceSum")
+                                        .description("같은 상태, 장소, 무료 여부의 이벤트 기본 가격 합"),
+                                fieldWithPath("page.size").description("페이지 크기"),
+                                fieldWithPath("page.number").description("페이지 번호"),
+                                fieldWithPath("page.hasNext").description("다음 페이지가 있는지 여부")
+                        )
+                ));
+    }
+
+    @Test
+    @TestDescription("같은 쿼리 텍스트는 다시 파싱하지 않고 변수 값만 바꿔 실행한다")
+    public void queryEvents_재사용() throws Exception {
+        //given
+        createEvent("Event1", "서울특별시", 1000, 24);
+        createEvent("Event2", "부산광역시", 1000, 25);
+        String query = "query { events(location: $location) { name location } }";
+        query(query, Collections.singletonMap("location", "서울특별시"))
+                .andExpect(status().isOk());
+        double hits = meterRegistry.counter("events.query.plans", "result", "hit").count();
+
+        //when then
+        query(query, Collections.singletonMap("location", "부산광역시"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("events.length()").value(1))
+                .andExpect(jsonPath("events[0].name").value("Event2"))
+                .andExpect(jsonPath("events[0].location").value("부산광역시"));
+        assertThat(meterRegistry.counter("events.query.plans", "result", "hit").count()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    @TestDescription("잘못된 쿼리, 없는 필드나 변수, 허용하지 않는 정렬로 조회")
+    public void queryEvents_400() throws Exception {
+        query("{ events { id ", null)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].defaultMessage").value("Expected a name at position 14"));
+        query("{ events { id tenantId } }", null)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].defaultMessage", containsString("Unknown field 'tenantId'")));
+        query("{ events(status: $status) { id } }", null)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].defaultMessage").value("Variable $status is not given."));
+        query("{ events(size: 1000) { id } }", null)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].defaultMessage", containsString("Argument 'size'")));
+        query("{ events(sort: \"location\") { id } }", null)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("content[0].defaultMessage", containsString("Sort is not supported")));
+        query("", null)
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions query(String query, Map<String, Object> variables) throws Exception {
+        EventQueryRequest request = EventQueryRequest.builder()
+                .query(query)
+                .variables(variables)
+                .build();
+        return mockMvc.perform(post("/api/query")
+                .header(DIAGNOSTICS_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(request)));
+    }
+
+    private Integer createEvent(String name, String location, int basePrice, int date) throws Exception {
+        EventCreateRequest request = EventCreateRequest.builder()
+                .name(name)
+                .description("Foo bar")
+                .beginEnrollmentDateTime(december(1))
+                .closeEnrollmentDateTime(december(10))
+                .beginEventDateTime(december(date))
+                .endEventDateTime(december(date + 1))
+                .location(location)
+                .basePrice(basePrice)
+                .maxPrice(basePrice * 5)
+                .limitOfEnrollment(10)
+                .build();
+        String response = mockMvc.perform(post("/api/events")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON)
+                .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response).get("id").asInt();
+    }
+
+    private LocalDateTime december(int date) {
+        return LocalDateTime.of(2018, 12, date, 0, 0);
+    }
+}
@@ -0,0 +1,344 @@
+package io.iamkyu.controller;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.iamkyu.app.EventArchiver;
+import io.iamkyu.app.EventCreateRequest;
+import io.iamkyu.app.EventPurger;
+import io.iamkyu.app.EventQueryRequest;
+import io.iamkyu.app.EventRebalancer;
+import io.iamkyu.app.IdempotencyStore;
+import io.iamkyu.common.TestDescription;
+import io.iamkyu.config.ShardRoutingContext;
+import io.iamkyu.config.ShardRoutingDataSource;
+import io.iamkyu.domain.ArchivedEventRepository;
+import io.iamkyu.domain.EventAggregateRepository;
+import io.iamkyu.domain.EventRepository;
+import io.iamkyu.domain.IdempotencyRecord;
+import io.iamkyu.domain.IdempotencyRecordRepository;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0",
+        "spring.datasource.hikari.maximum-pool-size=7",
+        "app.sharding.shards[0].name=shard1",
+        "app.sharding.shards[0].url=jdbc:h2:mem:shard1",
+        "app.sharding.shards[0].username=sa",
+        "app.sharding.tenants.acme=shard0",
+        "app.sharding.tenants.globex=shard1",
+        "app.sharding.tenants.hooli=shard0",
+        "app.admin.token=secret"
+})
+public class EventShardingTest extends ControllerTest {
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+    private static final String ADMIN_HEADER = "X-Admin-Token";
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    @Autowired
+    private ShardRoutingDataSource shards;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventAggregateRepository aggregateRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ArchivedEventRepository archivedEventRepository;
+
+    @Autowired
+    private EventRebalancer rebalancer;
+
+    @Autowired
+    private EventPurger purger;
+
+    @Autowired
+    private EventArchiver archiver;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @After
+    public void tearDown() {
+        for (String shard : shards.shardNames()) {
+            ShardRoutingContext.run(shard, () -> {
+                eventRepository.deleteAll();
+                archivedEventRepository.deleteAllInBatch();
+                aggregateRepository.deleteAllInBatch();
+                idempotencyRecordRepository.deleteAllInBatch();
+            });
+        }
+    }
+
+    @Test
+    @TestDescription("기본 샤드는 spring.datasource.hikari 설정을 쓴다")
+    public void defaultShardPoolSettings() {
+        assertThat(((HikariDataSource) shards.shard("shard0")).getMaximumPoolSize()).isEqualTo(7);
+    }
+
+    @Test
+    @TestDescription("테넌트의 이벤트는 그 테넌트의 샤드에 저장되고 다른 테넌트에게 보이지 않는다")
+    public void tenantIsolation() throws Exception {
+        //given
+        int acmeId = createEvent("acme", "Acme Event");
+        int globexId = createEvent("globex", "Globex Event");
+
+        //when then
+        assertThat(acmeId).isNotEqualTo(globexId);
+        assertThat(countOnShard("shard0", "acme")).isEqualTo(1);
+        assertThat(countOnShard("shard1", "globex")).isEqualTo(1);
+
+        mockMvc.perform(get("/api/events")
+                .header(TENANT_HEADER, "acme")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(1))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(acmeId));
+
+        mockMvc.perform(get("/api/events/{id}", globexId)
+                .header(TENANT_HEADER, "acme")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @TestDescription("모든 테넌트 조회는 샤드의 페이지를 정렬 순서대로 합친다")
+    public void queryEventsAcrossTenants() throws Exception {
+        //given
+        int globexId = createEvent("globex", "A Globex Event");
+        int acmeId = createEvent("acme", "B Acme Event");
+        int otherGlobexId = createEvent("globex", "C Globex Event");
+
+        //when then
+        mockMvc.perform(get("/api/admin/events")
+                .header(ADMIN_HEADER, "secret")
+                .param("sort", "name")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("page.totalElements").value(3))
+                .andExpect(jsonPath("_embedded.eventList[0].id").value(globexId))
+                .andExpect(jsonPath("_embedded.eventList[1].id").value(acmeId))
+                .andExpect(jsonPath("_embedded.eventList[2].id").value(otherGlobexId));
+    }
+
+    @Test
+    @TestDescription("테넌트 헤더가 없는 이벤트 요청과 토큰이 없는 관리자 요청은 거절한다")
+    public void tenantRequired() throws Exception {
+        //given
+        createEvent("acme", "Acme Event");
+
+        //when then
+        mockMvc.perform(get("/api/events").accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/admin/events").accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/events")
+                .header(ADMIN_HEADER, "wrong")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @TestDescription("같은 샤드의 다른 테넌트가 같은 Idempotency-Key 로 생성해도 각자의 이벤트를 만든다")
+    public void idempotencyKeyPerTenant() throws Exception {
+        //when
+        int acmeId = createEvent("acme", "Acme Event", "create-1");
+        int hooliId = createEvent("hooli", "Hooli Event", "create-1");
+
+        //then
+        assertThat(hooliId).isNotEqualTo(acmeId);
+        assertThat(countOnShard("shard0", "acme")).isEqualTo(1);
+        assertThat(countOnShard("shard0", "hooli")).isEqualTo(1);
+        assertThat(createEvent("acme", "Acme Event", "create-1")).isEqualTo(acmeId);
+    }
+
+    @Test
+    @TestDescription("같은 샤드의 다른 테넌트 이벤트는 집계에 포함되지 않는다")
+    public void aggregatesPerTenant() throws Exception {
+        //given
+        createEvent("acme", "Acme Event");
+        createEvent("acme", "Other Acme Event");
+        createEvent("hooli", "Hooli Event");
+
+        //when then
+        mockMvc.perform(get("/api/events/aggregates")
+                .header(TENANT_HEADER, "acme")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("eventCount").value(2));
+
+        EventQueryRequest request = EventQueryRequest.builder()
+                .query("{ events { id aggregate { eventCount } } }")
+                .build();
+        mockMvc.perform(post("/api/query")
+                .header(TENANT_HEADER, "hooli")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("events.length()").value(1))
+                .andExpect(jsonPath("events[0].aggregate.eventCount").value(1));
+    }
+
+    @Test
+    @TestDescription("삭제한 이벤트는 어느 샤드에 있든 모두 실제로 지운다")
+    public void purgeAllShards() throws Exception {
+        //given
+        int acmeId = createEvent("acme", "Acme Event");
+        int globexId = createEvent("globex", "Globex Event");
+        mockMvc.perform(delete("/api/events/{id}", acmeId).header(TENANT_HEADER, "acme"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/events/{id}", globexId).header(TENANT_HEADER, "globex"))
+                .andExpect(status().isNoContent());
+
+        //when
+        int purged = purger.purge();
+
+        //then
+        assertThat(purged).isEqualTo(2);
+        assertThat(countOnShard("shard0", "acme")).isZero();
+        assertThat(countOnShard("shard1", "globex")).isZero();
+    }
+
+    @Test
+    @TestDescription("종료된 이벤트는 어느 샤드에 있든 모두 보관한다")
+    public void archiveAllShards() throws Exception {
+        //given
+        createEvent("acme", "Acme Event");
+        createEvent("globex", "Globex Event");
+
+        //when
+        int archived = archiver.archive();
+
+        //then
+        assertThat(archived).isEqualTo(2);
+        assertThat(countOnShard("shard0", "acme")).isZero();
+        assertThat(countOnShard("shard1", "globex")).isZero();
+        assertThat(ShardRoutingContext.call("shard1", archivedEventRepository::count)).isEqualTo(1L);
+    }
+
+    @Test
+    @TestDescription("만료된 Idempotency-Key 기록은 어느 샤드에 있든 모두 지운다")
+    public void purgeExpiredIdempotencyRecordsOnAllShards() {
+        //given
+        LocalDateTime expired = LocalDateTime.now().minusMinutes(1);
+        for (String shard : shards.shardNames()) {
+            ShardRoutingContext.run(shard, () -> idempotencyRecordRepository.saveAndFlush(
+                    new IdempotencyRecord("POST /api/events " + shard, "fingerprint", expired)));
+        }
+
+        //when
+        int purged = idempotencyStore.purgeExpired();
+
+        //then
+        assertThat(purged).isEqualTo(shards.shardNames().size());
+        for (String shard : shards.shardNames()) {
+            assertThat(ShardRoutingContext.call(shard, idempotencyRecordRepository::count)).isZero();
+        }
+    }
+
+    @Test
+    @TestDescription("테넌트를 다른 샤드에 지정하고 재배치하면 이벤트가 옮겨진다")
+    public void rebalance() throws Exception {
+        //given
+        shards.pin("initech", "shard0");
+        int id = createEvent("initech", "Initech Event");
+        shards.pin("initech", "shard1");
+
+        //when
+        EventRebalancer.Result result = rebalancer.rebalance();
+
+        //then
+        assertThat(result.getTenants()).containsExactly("initech");
+        assertThat(result.getEvents()).isEqualTo(1);
+        assertThat(countOnShard("shard0", "initech")).isZero();
+        assertThat(countOnShard("shard1", "initech")).isEqualTo(1);
+
+        mockMvc.perform(get("/api/events/{id}", id)
+                .header(TENANT_HEADER, "initech")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("name").value("Initech Event"));
+    }
+
+    @Test
+    @TestDescription("삭제 표시된 이벤트는 재배치하지 않고 원래 샤드에서 지운다")
+    public void rebalance_deletedEvents() throws Exception {
+        //given
+        shards.pin("initech", "shard0");
+        int id = createEvent("initech", "Initech Event");
+        int deletedId = createEvent("initech", "Deleted Initech Event");
+        mockMvc.perform(delete("/api/events/{id}", deletedId).header(TENANT_HEADER, "initech"))
+                .andExpect(status().isNoContent());
+        shards.pin("initech", "shard1");
+
+        //when
+        EventRebalancer.Result result = rebalancer.rebalance();
+        int purged = purger.purge();
+
+        //then
+        assertThat(result.getEvents()).isEqualTo(1);
+        assertThat(purged).isEqualTo(1);
+        assertThat(countOnShard("shard0", "initech")).isZero();
+        assertThat(countOnShard("shard1", "initech")).isEqualTo(1);
+
+        mockMvc.perform(get("/api/events/{id}", id)
+                .header(TENANT_HEADER, "initech")
+                .accept(MediaTypes.HAL_JSON))
+                .andExpect(status().isOk());
+    }
+
+    private int createEvent(String tenantId, String name) throws Exception {
+        return createEvent(tenantId, name, null);
+    }
+
+    private int createEvent(String tenantId, String name, String idempotencyKey) throws Exception {
+        EventCreateRequest request = EventCreateRequest.builder()
+                .name(name)
+                .description("Foo bar")
+                .beginEnrollmentDateTime(LocalDateTime.of(2018, 12, 1, 9, 0))
+                .closeEnrollmentDateTime(LocalDateTime.of(2018, 12, 10, 18, 0))
+                .beginEventDateTime(LocalDateTime.of(2018, 12, 24, 9, 0))
+                .endEventDateTime(LocalDateTime.of(2018, 12, 25, 18, 0))
+                .basePrice(1000)
+                .maxPrice(5000)
+                .limitOfEnrollment(100)
+                .location("서울특별시")
+                .build();
+        MockHttpServletRequestBuilder builder = post("/api/events")
+                .header(TENANT_HEADER, tenantId);
+        if (idempotencyKey != null) {
+            builder.header(IDEMPOTENCY_KEY, idempotencyKey);
+        }
+        String body = mockMvc.perform(builder
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaTypes.HAL_JSON)
+                .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(body).get("id").asInt();
+    }
+
+    private int countOnShard(String shard, String tenantId) {
+        return new JdbcTemplate(shards.shard(shard))
+                .queryForObject("select count(*) from event where tenant_id = ?", Integer.class, tenantId);
+    }
+}
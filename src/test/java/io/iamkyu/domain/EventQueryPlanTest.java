@@ -0,0 +1,101 @@
+package io.iamkyu.domain;
+
+import io.iamkyu.app.EventSortPolicy;
+import io.iamkyu.common.TestDescription;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 허용된 정렬의 목록 조회 쿼리가 인덱스 순서로 읽히는지 H2 의 EXPLAIN 으로 확인한다.
+ * H2 는 인덱스를 역방향으로 읽지 않으므로 오름차순만 확인한다.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=io.iamkyu.domain.SqlCaptor",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ActiveProfiles("test")
+public class EventQueryPlanTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventSortPolicy sortPolicy;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @TestDescription("허용된 정렬의 목록 조회는 인덱스로 정렬한다")
+    public void supportedSortsUseIndex() {
+        for (List<String> columns : EventSortPolicy.SUPPORTED_SORTS) {
+            //given
+            Pageable pageable = sortPolicy.apply(PageRequest.of(0, 10, Sort.by(columns.get(0)))).get();
+            SqlCaptor.clear();
+
+            //when
+            eventRepository.findSlice(pageable);
+            String plan = explain(pageQuery());
+
+            //then
+            assertThat(plan)
+                    .as("plan for sort %s", columns)
+                    .containsIgnoringCase("index sorted");
+            if (columns.size() > 1) {
+                assertThat(plan).as("plan for sort %s", columns).containsIgnoringCase("idx_event");
+            }
+        }
+    }
+
+    @Test
+    @TestDescription("기간 조회는 범위 인덱스를 정렬 순서대로 읽는다")
+    public void calendarQueriesUseRangeIndex() {
+        LocalDateTime from = LocalDateTime.of(2018, 12, 10, 0, 0);
+        LocalDateTime to = from.plusDays(7);
+
+        SqlCaptor.clear();
+        eventRepository.findSliceOverlapping(from, to, PageRequest.of(0, 10));
+        assertThat(explain(pageQuery(), Timestamp.valueOf(from), Timestamp.valueOf(to), 11))
+                .containsIgnoringCase("idx_event_end_event")
+                .containsIgnoringCase("index sorted");
+
+        SqlCaptor.clear();
+        eventRepository.findSliceEnrollmentOpenAt(from, PageRequest.of(0, 10));
+        assertThat(explain(pageQuery(), Timestamp.valueOf(from), Timestamp.valueOf(from), 11))
+                .containsIgnoringCase("idx_event_close_enrollment")
+                .containsIgnoringCase("index sorted");
+    }
+
+    private String pageQuery() {
+        return SqlCaptor.statements().stream()
+                .filter(sql -> sql.contains("order by"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No paged select statement captured."));
+    }
+
+    private String explain(String sql) {
+        Object[] parameters = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        Arrays.fill(parameters, 10);
+        return explain(sql, parameters);
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+    }
+}
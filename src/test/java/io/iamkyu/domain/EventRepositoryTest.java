@@ -0,0 +1,128 @@
+package io.iamkyu.domain;
+
+import io.iamkyu.common.TestDescription;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventRepositoryTest {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EventCounter eventCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @After
+    public void tearDown() {
+        eventRepository.deleteAll();
+    }
+
+    @Test
+    @TestDescription("커밋된 생성과 삭제만 이벤트 개수에 반영하고 롤백된 것은 반영하지 않는다")
+    public void countEvents_rollback() {
+        //given
+        eventCounter.reconcile();
+        long before = eventCounter.countEvents();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        //when
+        Event kept = eventRepository.save(Event.builder().name("kept").build());
+        Event deleted = eventRepository.save(Event.builder().name("deleted").build());
+        eventRepository.delete(deleted);
+        transactionTemplate.execute(status -> {
+            eventRepository.save(Event.builder().name("rolled back").build());
+            eventRepository.delete(eventRepository.findById(kept.getId()).get());
+            eventRepository.flush();
+            status.setRollbackOnly();
+            return null;
+        });
+
+        //then
+        assertThat(eventCounter.countEvents()).isEqualTo(before + 1);
+        assertThat(eventRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    @TestDescription("저장된 이벤트는 2차 캐시에서 조회된다")
+    public void findById_secondLevelCache() {
+        //given
+        Event event = eventRepository.save(Event.builder().name("cached").build());
+
+        //when
+        eventRepository.findById(event.getId());
+        eventRepository.findById(event.getId());
+
+        //then
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @TestDescription("같은 페이지 조회는 쿼리 캐시에서 조회되고, 이벤트가 저장되면 무효화된다")
+    public void findAll_queryCache() {
+        //given
+        eventRepository.save(Event.builder().name("first").build());
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("name"));
+
+        //when
+        eventRepository.findAll(pageable);
+        eventRepository.findAll(pageable);
+
+        //then
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(1);
+
+        eventRepository.save(Event.builder().name("second").build());
+        assertThat(eventRepository.findAll(pageable).getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @TestDescription("아이디를 블록 단위로 할당받아 여러 이벤트를 배치로 저장한다")
+    public void saveAll_pooledIds() {
+        //given
+        List<Event> events = IntStream.range(0, 20)
+                .mapToObj(i -> Event.builder().name("Event" + i).build())
+                .collect(toList());
+
+        //when
+        List<Event> saved = eventRepository.saveAll(events);
+
+        //then
+        assertThat(saved).extracting(Event::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(events.size());
+    }
+}
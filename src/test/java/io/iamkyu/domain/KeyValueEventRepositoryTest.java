@@ -0,0 +1,184 @@
+package io.iamkyu.domain;
+
+import io.iamkyu.common.LogStructuredStore;
+import io.iamkyu.common.TestDescription;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KeyValueEventRepositoryTest {
+    private static final int REGION_SIZE = 64 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final EventCounter eventCounter = mock(EventCounter.class);
+    private Path path;
+    private LogStructuredStore store;
+    private KeyValueEventRepository repository;
+
+    @Before
+    public void setUp() throws IOException {
+        path = folder.getRoot().toPath().resolve("events.kv");
+        open();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    @TestDescription("저장하면 아이디와 버전이 정해지고 모든 필드를 그대로 읽는다")
+    public void saveAndFind() {
+        //given
+        Event event = event(1, EventStatus.PUBLISHED);
+        event.setTenantId("acme");
+
+        //when
+        Event saved = repository.save(event);
+
+        //then
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getVersion()).isEqualTo(0L);
+        assertThat(repository.findById(saved.getId()).get()).isEqualToComparingFieldByField(saved);
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("읽은 뒤 다른 쪽이 먼저 저장했으면 버전 충돌로 거절한다")
+    public void optimisticLocking() {
+        //given
+        Integer id = repository.save(event(1, EventStatus.DRAFT)).getId();
+        Event first = repository.findById(id).get();
+        Event second = repository.findById(id).get();
+        first.setName("first");
+        repository.save(first);
+
+        //when then
+        second.setName("second");
+        assertThatThrownBy(() -> repository.save(second)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(repository.findById(id).get().getName()).isEqualTo("first");
+        assertThat(repository.findById(id).get().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @TestDescription("보조 인덱스로 읽은 페이지는 전체를 정렬한 결과와 같고, 다시 열어도 같다")
+    public void pagingByIndexes() throws IOException {
+        //given
+        EventStatus[] statuses = EventStatus.values();
+        IntStream.range(0, 100).forEach(n -> {
+            Event event = repository.save(event(n % 17, statuses[n % statuses.length]));
+            if (n % 5 == 0) {
+                event.setEventStatus(statuses[(n + 1) % statuses.length]);
+                event.setBeginEventDateTime(december(20 + n % 7));
+                repository.save(event);
+            }
+        });
+        // SQL 과 같이 eventStatus 는 이름 순이다.
+        Map<Sort, Comparator<Event>> sorts = new LinkedHashMap<>();
+        sorts.put(Sort.by(Sort.Direction.DESC, "id"), Comparator.comparing(Event::getId).reversed());
+        sorts.put(Sort.by(Sort.Direction.ASC, "beginEventDateTime", "id"),
+                Comparator.comparing(Event::getBeginEventDateTime).thenComparing(Event::getId));
+        sorts.put(Sort.by(Sort.Direction.DESC, "beginEventDateTime", "id"),
+                Comparator.comparing(Event::getBeginEventDateTime).thenComparing(Event::getId).reversed());
+        sorts.put(Sort.by(Sort.Direction.ASC, "eventStatus", "beginEventDateTime", "id"),
+                Comparator.comparing((Event event) -> event.getEventStatus().name())
+                        .thenComparing(Event::getBeginEventDateTime)
+                        .thenComparing(Event::getId));
+
+        //when then
+        for (int reopen = 0; reopen < 2; reopen++) {
+            for (Map.Entry<Sort, Comparator<Event>> entry : sorts.entrySet()) {
+                Sort sort = entry.getKey();
+                List<Integer> expected = repository.findAll().stream()
+                        .sorted(entry.getValue())
+                        .skip(20)
+                        .limit(10)
+                        .map(Event::getId)
+                        .collect(toList());
+                assertThat(ids(repository.findSlice(PageRequest.of(2, 10, sort)).getContent()))
+                        .as("%s", sort)
+                        .isEqualTo(expected);
+            }
+            store.close();
+            open();
+        }
+    }
+
+    @Test
+    @TestDescription("상태로 찾은 이벤트를 삭제 표시하면 개수와 조회에서 빠진다")
+    public void markDeleted() {
+        //given
+        IntStream.range(0, 10)
+                .forEach(n -> repository.save(event(n, n < 4 ? EventStatus.DRAFT : EventStatus.PUBLISHED)));
+
+        //when
+        List<Integer> drafts = repository.findIdsByStatus(EventStatus.DRAFT, PageRequest.of(0, 100));
+        int deleted = repository.markDeleted(drafts, LocalDateTime.now());
+
+        //then
+        assertThat(deleted).isEqualTo(4);
+        assertThat(repository.count()).isEqualTo(6);
+        assertThat(repository.findById(drafts.get(0))).isEmpty();
+        assertThat(repository.findIdsByStatus(EventStatus.DRAFT, PageRequest.of(0, 100))).isEmpty();
+        assertThat(repository.aggregate())
+                .extracting(EventAggregateDelta::getEventCount)
+                .containsExactly(6L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void open() throws IOException {
+        store = new LogStructuredStore(path, REGION_SIZE, false);
+        ObjectProvider<EventCounter> counter = mock(ObjectProvider.class);
+        when(counter.getObject()).thenReturn(eventCounter);
+        repository = new KeyValueEventRepository(store, mock(ArchivedEventRepository.class), counter);
+    }
+
+    private static List<Integer> ids(List<Event> events) {
+        return events.stream().map(Event::getId).collect(toList());
+    }
+
+    private static Event event(int n, EventStatus status) {
+        Event event = Event.builder()
+                .name("Event" + n)
+                .description("Foo bar")
+                .beginEnrollmentDateTime(december(1))
+                .closeEnrollmentDateTime(december(10))
+                .beginEventDateTime(december(1 + n))
+                .endEventDateTime(december(2 + n))
+                .basePrice(10000)
+                .maxPrice(50000)
+                .limitOfEnrollment(100)
+                .location("서울특별시")
+                .eventStatus(status)
+                .build();
+        event.adjust();
+        return event;
+    }
+
+    private static LocalDateTime december(int date) {
+        return LocalDateTime.of(2018, 12, date, 0, 0);
+    }
+}